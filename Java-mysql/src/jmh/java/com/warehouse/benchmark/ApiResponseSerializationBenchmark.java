@@ -0,0 +1,76 @@
+package com.warehouse.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tuần tự hóa JSON ApiResponse chứa danh sách nguyên liệu lớn (như GET /api/materials)
+ * ObjectMapper cấu hình như Spring Boot: ngày giờ dạng ISO thay vì số.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Material>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Supplier supplier = new Supplier();
+        supplier.setId(1L);
+        supplier.setCode("SUP-BENCH");
+        supplier.setName("Nhà cung cấp benchmark");
+        supplier.setContactPerson("Benchmark");
+        supplier.setPhone("0280000000");
+        supplier.setEmail("supplier@warehouse.local");
+        supplier.setCreatedAt(LocalDateTime.now());
+
+        List<Material> materials = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Material material = new Material();
+            material.setId((long) i);
+            material.setCode(String.format("MAT-B%06d", i));
+            material.setName("Nguyên liệu benchmark " + i);
+            material.setDescription("Mô tả nguyên liệu " + i);
+            material.setUnit("kg");
+            material.setQuantity(new BigDecimal("1234.50"));
+            material.setMinQuantity(new BigDecimal("10"));
+            material.setUnitPrice(new BigDecimal("125000"));
+            material.setExpiryDate(LocalDate.now().plusDays(i % 365));
+            material.setSupplier(supplier);
+            material.setStatus(Material.Status.AVAILABLE);
+            material.setCreatedAt(LocalDateTime.now());
+            material.setUpdatedAt(LocalDateTime.now());
+            materials.add(material);
+        }
+        response = ApiResponse.success("Lấy danh sách nguyên liệu thành công", materials);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
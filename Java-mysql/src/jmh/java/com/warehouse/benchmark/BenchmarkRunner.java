@@ -0,0 +1,117 @@
+package com.warehouse.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chạy benchmark JMH, ghi kết quả JSON và so sánh với kết quả mốc
+ * - Đối số: biểu thức chọn benchmark (mặc định tất cả)
+ * - -Djmh.result: file kết quả (mặc định target/jmh-result.json)
+ * - -Djmh.baseline: file kết quả mốc; -Djmh.updateBaseline=true ghi kết quả lần này làm mốc mới
+ * - -Djmh.threshold: % chậm hơn mốc bị coi là suy giảm; -Djmh.failOnRegression=true trả mã lỗi khi có suy giảm
+ */
+public final class BenchmarkRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkRunner.class);
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : ".*";
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh-result.json"));
+        Path baseline = Path.of(System.getProperty("jmh.baseline", "src/jmh/baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "10"));
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        int regressions = 0;
+        if (Files.exists(baseline)) {
+            regressions = compare(baseline, result, threshold);
+        } else {
+            log.warn("Chưa có kết quả mốc: {}", baseline);
+        }
+        if (Boolean.getBoolean("jmh.updateBaseline")) {
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Đã ghi kết quả mốc mới: {}", baseline);
+        }
+        if (regressions > 0 && Boolean.getBoolean("jmh.failOnRegression")) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Ghi log bảng so sánh với mốc
+     *
+     * @return số benchmark chậm hơn mốc quá threshold %
+     */
+    private static int compare(Path baseline, Path result, double threshold) throws IOException {
+        Map<String, JsonNode> before = load(baseline);
+        Map<String, JsonNode> after = load(result);
+        int regressions = 0;
+
+        log.info(String.format("%-75s %14s %14s %9s", "Benchmark", "Mốc", "Hiện tại", "Thay đổi"));
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode current = entry.getValue();
+            JsonNode previous = before.get(entry.getKey());
+            double score = current.at("/primaryMetric/score").asDouble();
+            String unit = current.at("/primaryMetric/scoreUnit").asText();
+            if (previous == null) {
+                log.info(String.format("%-75s %14s %14.3f %9s  %s", entry.getKey(), "-", score, "mới", unit));
+                continue;
+            }
+            double previousScore = previous.at("/primaryMetric/score").asDouble();
+            // Thông lượng: cao hơn là tốt; thời gian: thấp hơn là tốt
+            boolean higherIsBetter = "thrpt".equals(current.path("mode").asText());
+            double change = (score - previousScore) / previousScore * 100;
+            double slowdown = higherIsBetter ? -change : change;
+            boolean regressed = slowdown > threshold;
+            String line = String.format("%-75s %14.3f %14.3f %+8.1f%%  %s", entry.getKey(), previousScore, score,
+                    change, unit);
+            if (regressed) {
+                regressions++;
+                log.warn("{}  << CHẬM HƠN", line);
+            } else {
+                log.info(line);
+            }
+        }
+        log.info("Số benchmark chậm hơn mốc quá {}%: {}", String.format("%.0f", threshold), regressions);
+        return regressions;
+    }
+
+    /**
+     * Đọc file kết quả JMH, khóa = tên benchmark + tham số
+     */
+    private static Map<String, JsonNode> load(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText()
+                    .replace("com.warehouse.benchmark.", ""));
+            node.path("params").fields().forEachRemaining(param ->
+                    key.append(" ").append(param.getKey()).append("=").append(param.getValue().asText()));
+            results.put(key.toString(), node);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,38 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.service.TimestampSequenceCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sinh mã giao dịch (TimestampSequenceCodeGenerator) từ 1 luồng và từ 16 luồng dùng chung một bộ sinh
+ * Bộ sinh không dùng DB: chỉ đo phần sinh mã, không tính lần khởi tạo từ DB lúc khởi động.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeGeneratorBenchmark {
+
+    private TimestampSequenceCodeGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new TimestampSequenceCodeGenerator(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nextCode() {
+        return generator.nextCode("IMP");
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String nextCodeContended() {
+        return generator.nextCode("IMP");
+    }
+}
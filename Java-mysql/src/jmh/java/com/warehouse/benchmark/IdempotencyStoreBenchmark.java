@@ -0,0 +1,76 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.idempotency.IdempotencyStore;
+import com.warehouse.idempotency.StoredResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tra cứu IdempotencyStore (chỉ bộ nhớ, app.idempotency.persistent = false) khi kho đã có sẵn entries khóa
+ * - replay: gửi lại khóa đã xử lý, nhận phản hồi đã lưu
+ * - firstRequest: khóa mới (begin + complete); kho đầy nên có cả chi phí bỏ bớt khóa cũ
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdempotencyStoreBenchmark {
+
+    private static final String FINGERPRINT = "f".repeat(64);
+
+    @Param({"1000", "100000"})
+    public int entries;
+
+    private IdempotencyStore store;
+    private String[] keys;
+    private StoredResponse response;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttlSeconds", 86_400L);
+        ReflectionTestUtils.setField(store, "maxEntries", entries);
+        ReflectionTestUtils.setField(store, "waitSeconds", 30L);
+        ReflectionTestUtils.setField(store, "persistent", false);
+        response = new StoredResponse(200, "application/json",
+                "{\"success\":true,\"message\":\"Nhập kho thành công\"}".getBytes(StandardCharsets.UTF_8));
+
+        // Khóa dạng SHA-256 hex như IdempotencyFilter tạo
+        keys = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = key(i);
+            store.begin(keys[i], FINGERPRINT);
+            store.complete(keys[i], response);
+        }
+        next = entries;
+    }
+
+    @Benchmark
+    public StoredResponse replay() {
+        return store.begin(keys[ThreadLocalRandom.current().nextInt(entries)], FINGERPRINT);
+    }
+
+    @Benchmark
+    public StoredResponse firstRequest() {
+        String key = key(next++);
+        StoredResponse stored = store.begin(key, FINGERPRINT);
+        store.complete(key, response);
+        return stored;
+    }
+
+    private static String key(long n) {
+        byte[] bytes = new byte[32];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (n >>> (8 * i));
+        }
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.security.EmployeePrincipal;
+import com.warehouse.security.JwtAuthenticationFilter;
+import com.warehouse.security.JwtTokenProvider;
+import com.warehouse.security.PrincipalCache;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tạo / kiểm tra JWT và toàn bộ JwtAuthenticationFilter cho một request có token
+ * (người dùng lấy từ PrincipalCache, không truy vấn DB sau lần đầu)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private WarehouseFixture fixture;
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+    private Authentication authentication;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = WarehouseFixture.start(10);
+        tokenProvider = fixture.getBean(JwtTokenProvider.class);
+        filter = new JwtAuthenticationFilter(tokenProvider, fixture.getBean(PrincipalCache.class));
+        EmployeePrincipal principal = new EmployeePrincipal(fixture.getAdmin(), false);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication authenticationFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/materials");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication result = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.dto.response.MaterialWarningDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.service.MaterialService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cảnh báo tồn kho (từ chỉ mục trong bộ nhớ và từ DB) và cập nhật trạng thái nguyên liệu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MaterialServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    public int materialCount;
+
+    private WarehouseFixture fixture;
+    private MaterialService materialService;
+    private MaterialRepository materialRepository;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> materialIds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = WarehouseFixture.start(materialCount);
+        fixture.authenticate();
+        materialService = fixture.getBean(MaterialService.class);
+        materialRepository = fixture.getBean(MaterialRepository.class);
+        transactionTemplate = new TransactionTemplate(fixture.getBean(PlatformTransactionManager.class));
+        materialIds = fixture.getMaterials().stream().map(Material::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    /**
+     * Khoảng mặc định: đọc từ chỉ mục cảnh báo
+     */
+    @Benchmark
+    public List<MaterialWarningDTO> getWarningsIndexed() {
+        return materialService.getWarnings(null);
+    }
+
+    /**
+     * Khoảng khác mặc định: truy vấn DB
+     */
+    @Benchmark
+    public List<MaterialWarningDTO> getWarningsFromDatabase() {
+        return materialService.getWarnings(30);
+    }
+
+    /**
+     * Như khi xuất / nhập kho: nạp và cập nhật trạng thái trong cùng một transaction
+     */
+    @Benchmark
+    public Material updateMaterialStatus() {
+        Long id = materialIds.get(Math.floorMod(next.getAndIncrement(), materialIds.size()));
+        return transactionTemplate.execute(status -> {
+            Material material = materialRepository.findById(id).orElseThrow();
+            materialService.updateMaterialStatus(material);
+            return material;
+        });
+    }
+}
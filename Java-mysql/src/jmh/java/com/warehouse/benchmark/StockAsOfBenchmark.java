@@ -0,0 +1,114 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.dto.response.MaterialNetChangeDTO;
+import com.warehouse.dto.response.StockAsOfDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.repository.TransactionRepository;
+import com.warehouse.service.StockSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tồn kho tại một ngày trên sổ 1.000.000 giao dịch (100 nguyên liệu, 365 ngày)
+ * - asOfWithSnapshots: StockSnapshotService (ảnh chụp gần nhất + giao dịch sau ảnh chụp)
+ * - asOfFullReplay: cộng dồn mọi giao dịch từ đầu đến hết ngày, cùng dạng truy vấn sumNetChanges
+ * Ảnh chụp như sau khi dọn theo app.stock-snapshot.retention-days = 90: hằng ngày trong 90 ngày gần nhất,
+ * ngày cuối tháng trước đó.
+ * Ngày cần tính xoay vòng trong DATE_SPREAD ngày kể từ daysAgo: H2 dùng lại kết quả của câu lệnh vừa chạy
+ * nếu tham số và dữ liệu không đổi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StockAsOfBenchmark {
+
+    private static final int MATERIALS = 100;
+    private static final int TRANSACTIONS = 1_000_000;
+    private static final int DAYS = 365;
+    private static final int RETENTION_DAYS = 90;
+    private static final int DATE_SPREAD = 7;
+
+    // Số ngày trước hôm nay: trong khoảng ảnh chụp hằng ngày / chỉ còn ảnh chụp cuối tháng
+    @Param({"3", "200"})
+    public int daysAgo;
+
+    private WarehouseFixture fixture;
+    private StockSnapshotService stockSnapshotService;
+    private TransactionRepository transactionRepository;
+    private LocalDate today;
+    private LocalDateTime firstTransaction;
+    private int call;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = WarehouseFixture.start(MATERIALS);
+        stockSnapshotService = fixture.getBean(StockSnapshotService.class);
+        transactionRepository = fixture.getBean(TransactionRepository.class);
+        today = LocalDate.now();
+        firstTransaction = today.minusDays(DAYS).atStartOfDay();
+        insertTransactions(fixture.getBean(JdbcTemplate.class));
+
+        for (LocalDate date = today.minusDays(DAYS); date.isBefore(today); date = date.plusDays(1)) {
+            boolean monthEnd = date.getDayOfMonth() == date.lengthOfMonth();
+            if (monthEnd || !date.isBefore(today.minusDays(RETENTION_DAYS))) {
+                stockSnapshotService.takeSnapshot(date);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<StockAsOfDTO> asOfWithSnapshots() {
+        return stockSnapshotService.getStockAsOf(nextDate(), null);
+    }
+
+    @Benchmark
+    public List<MaterialNetChangeDTO> asOfFullReplay() {
+        return transactionRepository.sumNetChanges(firstTransaction, nextDate().plusDays(1).atStartOfDay(), null);
+    }
+
+    private LocalDate nextDate() {
+        return today.minusDays(daysAgo + call++ % DATE_SPREAD);
+    }
+
+    /**
+     * Giao dịch rải đều trên DAYS ngày, xoay vòng theo nguyên liệu; cứ 3 giao dịch có 1 xuất kho
+     */
+    private void insertTransactions(JdbcTemplate jdbcTemplate) {
+        List<Material> materials = fixture.getMaterials();
+        Long employeeId = fixture.getAdmin().getId();
+        long secondsPerTransaction = DAYS * 86_400L / TRANSACTIONS;
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            long id = 10_000_000L + i;
+            Timestamp date = Timestamp.valueOf(firstTransaction.plusSeconds(i * secondsPerTransaction));
+            batch.add(new Object[]{id, "IMP-ASOF-" + id, materials.get(i % MATERIALS).getId(),
+                    i % 3 == 0 ? "EXPORT" : "IMPORT", BigDecimal.ONE, employeeId, date, date});
+            if (batch.size() == 10_000) {
+                insert(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, transaction_code, material_id, type, quantity, unit, " +
+                "employee_id, transaction_date, created_at) VALUES (?, ?, ?, ?, ?, 'kg', ?, ?, ?)", batch);
+    }
+}
@@ -0,0 +1,69 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.dto.request.ExportRequest;
+import com.warehouse.dto.request.ImportRequest;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Transaction;
+import com.warehouse.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nhập / xuất kho một dòng qua TransactionService (UPDATE tồn kho, lô, giao dịch, bảng tổng hợp)
+ * Mỗi lần gọi dùng nguyên liệu kế tiếp để số lô mở của mỗi nguyên liệu tăng chậm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private WarehouseFixture fixture;
+    private TransactionService transactionService;
+    private List<Material> materials;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = WarehouseFixture.start(1000);
+        fixture.authenticate();
+        transactionService = fixture.getBean(TransactionService.class);
+        // Bỏ các nguyên liệu tồn kho thấp để xuất kho luôn đủ hàng
+        materials = fixture.getMaterials().stream()
+                .filter(material -> material.getQuantity().compareTo(BigDecimal.TEN) > 0)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public Transaction importMaterial() {
+        ImportRequest request = new ImportRequest();
+        request.setMaterialId(nextMaterialId());
+        request.setQuantity(BigDecimal.ONE);
+        request.setUnit("kg");
+        request.setUnitPrice(new BigDecimal("1000"));
+        return transactionService.importMaterial(request);
+    }
+
+    @Benchmark
+    public Transaction exportMaterial() {
+        ExportRequest request = new ExportRequest();
+        request.setMaterialId(nextMaterialId());
+        request.setQuantity(BigDecimal.ONE);
+        return transactionService.exportMaterial(request);
+    }
+
+    private Long nextMaterialId() {
+        return materials.get(Math.floorMod(next.getAndIncrement(), materials.size())).getId();
+    }
+}
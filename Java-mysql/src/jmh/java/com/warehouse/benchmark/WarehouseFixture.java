@@ -0,0 +1,122 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.WarehouseManagementApplication;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import com.warehouse.repository.EmployeeRepository;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.repository.SupplierRepository;
+import com.warehouse.security.EmployeePrincipal;
+import com.warehouse.service.MaterialService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Khởi động ứng dụng (không có web server) trên H2 chế độ MySQL và tạo dữ liệu mẫu cho benchmark
+ * Mỗi fork JMH dùng một DB trong bộ nhớ riêng.
+ */
+public final class WarehouseFixture {
+
+    private final ConfigurableApplicationContext context;
+    private final Employee admin;
+    private final List<Material> materials;
+
+    private WarehouseFixture(ConfigurableApplicationContext context, Employee admin, List<Material> materials) {
+        this.context = context;
+        this.admin = admin;
+        this.materials = materials;
+    }
+
+    /**
+     * Khởi động ứng dụng và tạo materialCount nguyên liệu (khoảng 1/10 tồn kho thấp, 1/10 sắp hết hạn)
+     */
+    public static WarehouseFixture start(int materialCount) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplication application = new SpringApplication(WarehouseManagementApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        ConfigurableApplicationContext context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;LOCK_TIMEOUT=10000",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--spring.flyway.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.warehouse=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework.security=WARN");
+
+        Employee admin = new Employee();
+        admin.setUsername("bench-admin");
+        admin.setPassword("password123");
+        admin.setFullName("Benchmark");
+        admin.setEmail("bench-admin@warehouse.local");
+        admin.setRole(Employee.Role.ADMIN);
+        admin = context.getBean(EmployeeRepository.class).save(admin);
+
+        Supplier supplier = new Supplier();
+        supplier.setCode("SUP-BENCH");
+        supplier.setName("Nhà cung cấp benchmark");
+        supplier.setContactPerson("Benchmark");
+        supplier.setPhone("0280000000");
+        supplier.setEmail("supplier@warehouse.local");
+        supplier = context.getBean(SupplierRepository.class).save(supplier);
+
+        List<Material> materials = new ArrayList<>(materialCount);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < materialCount; i++) {
+            Material material = new Material();
+            material.setCode(String.format("MAT-B%06d", i));
+            material.setName("Nguyên liệu benchmark " + i);
+            material.setUnit("kg");
+            material.setQuantity(i % 10 == 0 ? new BigDecimal("2") : new BigDecimal("5000000"));
+            material.setMinQuantity(new BigDecimal("10"));
+            material.setUnitPrice(new BigDecimal("1000"));
+            material.setExpiryDate(i % 10 == 1 ? today.plusDays(3) : today.plusYears(1));
+            material.setSupplier(supplier);
+            materials.add(material);
+        }
+        materials = context.getBean(MaterialRepository.class).saveAll(materials);
+        // Chỉ mục cảnh báo được nạp khi khởi động, trước khi có dữ liệu mẫu
+        context.getBean(MaterialService.class).rebuildWarningIndex();
+        return new WarehouseFixture(context, admin, materials);
+    }
+
+    /**
+     * Đăng nhập admin cho mọi luồng benchmark (các service đọc người dùng từ SecurityContext)
+     */
+    public void authenticate() {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        EmployeePrincipal principal = new EmployeePrincipal(admin, false);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Employee getAdmin() {
+        return admin;
+    }
+
+    public List<Material> getMaterials() {
+        return materials;
+    }
+
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.warehouse.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi độ trễ (micro giây) theo endpoint và tính p50 / p99 / p999
+ */
+public final class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long micros, boolean success) {
+        samples.computeIfAbsent(endpoint, k -> new Samples()).add(micros, success);
+    }
+
+    public void reset() {
+        samples.clear();
+    }
+
+    /**
+     * Kết quả theo endpoint, sắp xếp theo tên
+     */
+    public Map<String, Summary> summarize(double seconds) {
+        Map<String, Summary> result = new TreeMap<>();
+        samples.forEach((endpoint, s) -> result.put(endpoint, s.summarize(seconds)));
+        return result;
+    }
+
+    public record Summary(int count, int errors, double throughput,
+                          long p50, long p99, long p999, long max) {
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int count;
+        private int errors;
+
+        private synchronized void add(long micros, boolean success) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = micros;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        private synchronized Summary summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return new Summary(count, errors, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    count == 0 ? 0 : sorted[count - 1]);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.warehouse.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.WarehouseManagementApplication;
+import com.warehouse.entity.Employee;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Load test đầu-cuối: khởi động ứng dụng, tạo dữ liệu mẫu và gửi request HTTP qua controller thật
+ * - -Dloadtest.db: h2 (mặc định, H2 chế độ MySQL trong bộ nhớ) hoặc app (datasource trong application.yml)
+ * - -Dloadtest.profile: profile Spring (vd. prod); -Dloadtest.quiet=false giữ nguyên cấu hình log / show-sql
+ *   của ứng dụng (mặc định tắt để chỉ đo ứng dụng)
+ * - -Dloadtest.materials / suppliers / employees: quy mô dữ liệu mẫu (employees = số tài khoản mỗi vai trò)
+ * - -Dloadtest.clients: số client chạy song song (mỗi client một luồng, gửi request kế tiếp khi nhận phản hồi)
+ * - -Dloadtest.warmup / duration: số giây khởi động (không tính) và số giây đo
+ * - -Dloadtest.mix: tỉ trọng các thao tác, vd. login=5,import=20,export=20,request=10,approve=5,dashboard=40
+ *   (dashboard = 3 request GET như trang dashboard)
+ * - -Dloadtest.result: file CSV kết quả (mặc định target/loadtest-result.csv)
+ * Đối số dạng --key=value được chuyển cho Spring Boot.
+ */
+public final class LoadTestRunner {
+
+    private static final String DEFAULT_MIX = "login=5,import=20,export=20,request=10,approve=5,dashboard=40";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    // Các yêu cầu đã tạo, chờ phê duyệt
+    private final Queue<Long> pendingRequests = new ConcurrentLinkedQueue<>();
+
+    private final String baseUrl;
+    private final List<Long> materialIds;
+    private final List<Long> stockedMaterialIds;
+    private final Map<Employee.Role, List<String>> usernames;
+    private final Map<Employee.Role, List<String>> tokens = new EnumMap<>(Employee.Role.class);
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+
+    private LoadTestRunner(String baseUrl, List<Long> materialIds, Map<Employee.Role, List<String>> usernames,
+                           Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.materialIds = materialIds;
+        // Khoảng 1/10 nguyên liệu được tạo với tồn kho thấp: chỉ xuất / yêu cầu trên phần còn lại
+        this.stockedMaterialIds = new ArrayList<>();
+        for (int i = 0; i < materialIds.size(); i++) {
+            if (i % 10 != 0) {
+                stockedMaterialIds.add(materialIds.get(i));
+            }
+        }
+        this.usernames = usernames;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int materials = Integer.getInteger("loadtest.materials", 10000);
+        int suppliers = Integer.getInteger("loadtest.suppliers", 100);
+        int employees = Integer.getInteger("loadtest.employees", 10);
+        int clients = Integer.getInteger("loadtest.clients", 32);
+        int warmup = Integer.getInteger("loadtest.warmup", 15);
+        int duration = Integer.getInteger("loadtest.duration", 60);
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        Path result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.csv"));
+
+        long bootStart = System.nanoTime();
+        ConfigurableApplicationContext context = start(System.getProperty("loadtest.db", "h2"),
+                System.getProperty("loadtest.profile", ""),
+                Boolean.parseBoolean(System.getProperty("loadtest.quiet", "true")), args);
+        long bootMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootStart);
+        try {
+            System.out.printf("Khởi động ứng dụng trong %d ms%n", bootMillis);
+            String tag = Long.toString(System.currentTimeMillis() % 1_000_000, 36);
+            WarehouseSeeder seeder = new WarehouseSeeder(context, tag);
+            long seedStart = System.nanoTime();
+            List<Long> materialIds = seeder.seed(suppliers, materials, employees);
+            System.out.printf("Đã tạo %d nguyên liệu, %d nhà cung cấp, %d tài khoản trong %d ms%n",
+                    materials, suppliers, employees * Employee.Role.values().length,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            Map<Employee.Role, List<String>> usernames = new EnumMap<>(Employee.Role.class);
+            for (Employee.Role role : Employee.Role.values()) {
+                List<String> names = new ArrayList<>();
+                for (int i = 0; i < employees; i++) {
+                    names.add(seeder.usernamePrefix(role) + i);
+                }
+                usernames.put(role, names);
+            }
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner("http://localhost:" + port, materialIds, usernames, mix);
+            runner.loginAll();
+            runner.run(clients, warmup, duration);
+
+            Map<String, LatencyRecorder.Summary> summary = runner.recorder.summarize(duration);
+            print(summary, clients, duration);
+            write(result, summary);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String db, String profile, boolean quiet, String[] args) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0"));
+        if (!profile.isBlank()) {
+            arguments.add("--spring.profiles.active=" + profile);
+        }
+        if (quiet) {
+            arguments.addAll(List.of(
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.warehouse=WARN",
+                    "--logging.level.org.hibernate.SQL=WARN",
+                    "--logging.level.org.springframework.security=WARN"));
+        }
+        if ("h2".equals(db)) {
+            arguments.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;LOCK_TIMEOUT=20000",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    "--spring.sql.init.mode=never",
+                    // Migration viết cho MySQL; lược đồ H2 do Hibernate tạo
+                    "--spring.flyway.enabled=false"));
+        }
+        arguments.addAll(List.of(args));
+        return SpringApplication.run(WarehouseManagementApplication.class, arguments.toArray(String[]::new));
+    }
+
+    /**
+     * Đăng nhập trước mọi tài khoản để client dùng token sẵn (thao tác login trong mix đo riêng)
+     */
+    private void loginAll() throws IOException, InterruptedException {
+        for (Map.Entry<Employee.Role, List<String>> entry : usernames.entrySet()) {
+            List<String> roleTokens = new ArrayList<>();
+            for (String username : entry.getValue()) {
+                HttpResponse<String> response = send("POST /api/auth/login", null, "POST", "/api/auth/login",
+                        loginBody(username));
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Đăng nhập thất bại: " + username + " - " + response.body());
+                }
+                roleTokens.add(objectMapper.readTree(response.body()).at("/data/token").asText());
+            }
+            tokens.put(entry.getKey(), roleTokens);
+        }
+    }
+
+    private void run(int clients, int warmup, int duration) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            executor.submit(() -> {
+                while (running.get()) {
+                    try {
+                        step();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        recorder.record("client error", 0, false);
+                    }
+                }
+            });
+        }
+        System.out.printf("Khởi động %d client trong %d giây...%n", clients, warmup);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        recorder.reset();
+        System.out.printf("Đo trong %d giây...%n", duration);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        running.set(false);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Một thao tác chọn ngẫu nhiên theo tỉ trọng trong mix
+     */
+    private void step() throws IOException, InterruptedException {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        String operation = null;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                operation = entry.getKey();
+                break;
+            }
+        }
+        switch (operation) {
+            case "login" -> {
+                List<String> names = usernames.get(randomRole());
+                send("POST /api/auth/login", null, "POST", "/api/auth/login", loginBody(random(names)));
+            }
+            case "import" -> send("POST /api/materials/import", token(Employee.Role.WAREHOUSE_STAFF), "POST",
+                    "/api/materials/import", json(Map.of(
+                            "materialId", random(materialIds),
+                            "quantity", 1 + ThreadLocalRandom.current().nextInt(20),
+                            "unit", "kg",
+                            "unitPrice", 1000)));
+            case "export" -> send("POST /api/materials/export", token(Employee.Role.WAREHOUSE_STAFF), "POST",
+                    "/api/materials/export", json(Map.of(
+                            "materialId", random(stockedMaterialIds),
+                            "quantity", 1 + ThreadLocalRandom.current().nextInt(5))));
+            case "request" -> createRequest();
+            case "approve" -> {
+                Long id = pendingRequests.poll();
+                if (id == null) {
+                    createRequest();
+                } else {
+                    send("PUT /api/requests/{id}/approve", token(Employee.Role.WAREHOUSE_STAFF), "PUT",
+                            "/api/requests/" + id + "/approve", null);
+                }
+            }
+            case "dashboard" -> {
+                // Cảnh báo và yêu cầu chờ xử lý chỉ dành cho admin / nhân viên kho
+                String token = token(ThreadLocalRandom.current().nextBoolean()
+                        ? Employee.Role.ADMIN : Employee.Role.WAREHOUSE_STAFF);
+                send("GET /api/materials", token, "GET", "/api/materials", null);
+                send("GET /api/materials/warning", token, "GET", "/api/materials/warning", null);
+                send("GET /api/requests/pending", token, "GET", "/api/requests/pending", null);
+            }
+            default -> throw new IllegalArgumentException("Thao tác không hợp lệ: " + operation);
+        }
+    }
+
+    private void createRequest() throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST /api/requests", token(Employee.Role.KITCHEN_STAFF), "POST",
+                "/api/requests", json(Map.of(
+                        "materialId", random(stockedMaterialIds),
+                        "requestedQuantity", 1 + ThreadLocalRandom.current().nextInt(10),
+                        "unit", "kg",
+                        "reason", "Load test")));
+        if (response.statusCode() == 200) {
+            JsonNode id = objectMapper.readTree(response.body()).at("/data/id");
+            if (!id.isMissingNode()) {
+                pendingRequests.add(id.asLong());
+            }
+        }
+    }
+
+    /**
+     * Gửi request và ghi độ trễ; lỗi khi mã trạng thái khác 2xx
+     */
+    private HttpResponse<String> send(String endpoint, String token, String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        recorder.record(endpoint, micros, response.statusCode() / 100 == 2);
+        return response;
+    }
+
+    private String token(Employee.Role role) {
+        return random(tokens.get(role));
+    }
+
+    private String loginBody(String username) throws IOException {
+        return json(Map.of("username", username, "password", WarehouseSeeder.PASSWORD));
+    }
+
+    private String json(Map<String, Object> value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static Employee.Role randomRole() {
+        Employee.Role[] roles = Employee.Role.values();
+        return roles[ThreadLocalRandom.current().nextInt(roles.length)];
+    }
+
+    private static <T> T random(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        Stream.of(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(part -> {
+            String[] pair = part.split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(pair[0].trim(), weight);
+            }
+        });
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix không có thao tác nào");
+        }
+        return mix;
+    }
+
+    private static void print(Map<String, LatencyRecorder.Summary> summary, int clients, int duration) {
+        System.out.printf("%n%d client, %d giây - độ trễ tính bằng ms%n", clients, duration);
+        System.out.printf("%-34s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Số req", "Lỗi", "req/s", "p50", "p99", "p999", "max");
+        int total = 0;
+        for (Map.Entry<String, LatencyRecorder.Summary> entry : summary.entrySet()) {
+            LatencyRecorder.Summary s = entry.getValue();
+            total += s.count();
+            System.out.printf("%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), s.count(), s.errors(),
+                    s.throughput(), s.p50() / 1000.0, s.p99() / 1000.0, s.p999() / 1000.0, s.max() / 1000.0);
+        }
+        System.out.printf("%-34s %9d %7s %9.1f%n", "Tổng", total, "", total / (double) duration);
+    }
+
+    private static void write(Path file, Map<String, LatencyRecorder.Summary> summary) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file))) {
+            writer.println("endpoint,count,errors,throughput,p50_us,p99_us,p999_us,max_us");
+            summary.forEach((endpoint, s) -> writer.printf("%s,%d,%d,%.1f,%d,%d,%d,%d%n", endpoint, s.count(),
+                    s.errors(), s.throughput(), s.p50(), s.p99(), s.p999(), s.max()));
+        }
+        System.out.println("Kết quả: " + file.toAbsolutePath());
+    }
+}
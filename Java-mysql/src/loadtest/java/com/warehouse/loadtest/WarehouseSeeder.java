@@ -0,0 +1,117 @@
+package com.warehouse.loadtest;
+
+import com.warehouse.cache.SupplierSearchIndex;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import com.warehouse.repository.EmployeeRepository;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.repository.SupplierRepository;
+import com.warehouse.service.MaterialService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tạo dữ liệu mẫu theo quy mô cho load test (thay cho data.sql)
+ * - suppliers nhà cung cấp, materials nguyên liệu (khoảng 1/10 tồn kho thấp, 1/10 sắp hết hạn)
+ * - employees tài khoản cho mỗi vai trò: lt{tag}-admin-i, lt{tag}-staff-i, lt{tag}-kitchen-i (mật khẩu PASSWORD)
+ * Mã / tên đăng nhập có thêm tag của lần chạy để chạy lại được trên cùng một DB.
+ */
+public final class WarehouseSeeder {
+
+    public static final String PASSWORD = "password123";
+    private static final int BATCH_SIZE = 1000;
+
+    private final ApplicationContext context;
+    private final String tag;
+
+    public WarehouseSeeder(ApplicationContext context, String tag) {
+        this.context = context;
+        this.tag = tag;
+    }
+
+    /**
+     * @return id các nguyên liệu đã tạo
+     */
+    public List<Long> seed(int suppliers, int materials, int employees) {
+        seedEmployees(employees);
+        List<Supplier> savedSuppliers = seedSuppliers(suppliers);
+        List<Long> materialIds = seedMaterials(materials, savedSuppliers);
+
+        // Các chỉ mục trong bộ nhớ được nạp khi khởi động, trước khi có dữ liệu mẫu
+        MaterialService materialService = context.getBean(MaterialService.class);
+        materialService.rebuildWarningIndex();
+        materialService.rebuildSearchIndex();
+        context.getBean(SupplierSearchIndex.class).rebuild();
+        return materialIds;
+    }
+
+    private void seedEmployees(int perRole) {
+        PasswordEncoder encoder = context.getBean(PasswordEncoder.class);
+        List<Employee> employees = new ArrayList<>();
+        for (Employee.Role role : Employee.Role.values()) {
+            String prefix = usernamePrefix(role);
+            for (int i = 0; i < perRole; i++) {
+                Employee employee = new Employee();
+                employee.setUsername(prefix + i);
+                employee.setPassword(encoder.encode(PASSWORD));
+                employee.setFullName("Load test " + prefix + i);
+                employee.setEmail(prefix + i + "." + tag + "@loadtest.local");
+                employee.setRole(role);
+                employees.add(employee);
+            }
+        }
+        context.getBean(EmployeeRepository.class).saveAll(employees);
+    }
+
+    private List<Supplier> seedSuppliers(int count) {
+        List<Supplier> suppliers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setCode(String.format("SUP-LT%s-%05d", tag, i));
+            supplier.setName("Nhà cung cấp load test " + i);
+            supplier.setContactPerson("Load test");
+            supplier.setPhone(String.format("028%07d", i));
+            supplier.setEmail("supplier" + i + "@loadtest.local");
+            suppliers.add(supplier);
+        }
+        return context.getBean(SupplierRepository.class).saveAll(suppliers);
+    }
+
+    private List<Long> seedMaterials(int count, List<Supplier> suppliers) {
+        MaterialRepository repository = context.getBean(MaterialRepository.class);
+        LocalDate today = LocalDate.now();
+        List<Long> ids = new ArrayList<>(count);
+        List<Material> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            Material material = new Material();
+            material.setCode(String.format("MAT-LT%s-%06d", tag, i));
+            material.setName("Nguyên liệu load test " + i);
+            material.setUnit("kg");
+            material.setQuantity(i % 10 == 0 ? new BigDecimal("5") : new BigDecimal("1000000"));
+            material.setMinQuantity(new BigDecimal("10"));
+            material.setUnitPrice(new BigDecimal("1000"));
+            material.setExpiryDate(i % 10 == 1 ? today.plusDays(3) : today.plusYears(1));
+            material.setSupplier(suppliers.get(i % suppliers.size()));
+            batch.add(material);
+            if (batch.size() == BATCH_SIZE || i == count - 1) {
+                repository.saveAll(batch).forEach(saved -> ids.add(saved.getId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    public String usernamePrefix(Employee.Role role) {
+        return "lt" + tag + switch (role) {
+            case ADMIN -> "-admin-";
+            case WAREHOUSE_STAFF -> "-staff-";
+            case KITCHEN_STAFF -> "-kitchen-";
+        };
+    }
+}
@@ -2,11 +2,13 @@ package com.warehouse;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Application Class for Warehouse Management System
  */
 @SpringBootApplication
+@EnableScheduling
 public class WarehouseManagementApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,371 @@
+package com.warehouse.cache;
+
+import com.warehouse.dto.response.CacheStatsDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import com.warehouse.repository.MaterialRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Cache trong bộ nhớ cho danh mục nguyên liệu (bảng nhỏ, đọc nhiều)
+ * - Hai chỉ mục: theo ID và theo mã nguyên liệu
+ * - Giới hạn kích thước (app.cache.material.max-size) và thời gian sống (ttl-seconds)
+ * - Ghi xuyên (write-through): nhập / xuất kho cập nhật cache sau khi commit
+ * Mỗi bản ghi mang một số thứ tự (sequence): ghi xuyên lấy số mới ngay trước commit
+ * (khi đang giữ khóa dòng), lần đọc DB lấy số hiện tại trước khi truy vấn. Bản ghi chỉ
+ * bị thay thế bởi dữ liệu mới hơn, nên thứ tự hoàn tất lệch nhau không làm cache cũ đi.
+ * Các bản ghi trong cache là bản sao tách khỏi persistence context, không được sửa đổi.
+ * Khi vượt kích thước tối đa, bản ghi được nạp lâu nhất bị loại theo hàng đợi thứ tự nạp (không quét toàn bộ map).
+ * Sửa / xóa nhà cung cấp loại các nguyên liệu của nhà cung cấp đó (bản sao giữ thông tin nhà cung cấp).
+ */
+@Component
+public class MaterialCache {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Value("${app.cache.material.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.material.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.cache.material.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByCode = new ConcurrentHashMap<>();
+
+    // Thứ tự nạp (cũ nhất ở đầu); phần tử đã bị thay thế / loại khỏi byId được bỏ qua khi lấy ra
+    private final ConcurrentLinkedQueue<Entry> loadOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock compactLock = new ReentrantLock();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Thời điểm nạp toàn bộ danh mục gần nhất (0 = cache chưa chứa đầy đủ danh mục)
+    private volatile long fullyLoadedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Lấy toàn bộ nguyên liệu
+     */
+    public List<Material> getAll() {
+        if (!enabled) {
+            return materialRepository.findAll();
+        }
+        if (isFresh(fullyLoadedAt)) {
+            hits.increment();
+            return sortedValues();
+        }
+        misses.increment();
+
+        long readSequence = sequence.get();
+        List<Material> materials = materialRepository.findAllWithSupplier();
+        List<Material> snapshots = new ArrayList<>(materials.size());
+        for (Material material : materials) {
+            snapshots.add(snapshot(material));
+        }
+        if (snapshots.size() <= maxSize) {
+            byId.keySet().retainAll(snapshots.stream().map(Material::getId).toList());
+            idByCode.values().retainAll(byId.keySet());
+            for (Material material : snapshots) {
+                putIfNewer(material, readSequence, false);
+            }
+            fullyLoadedAt = System.currentTimeMillis();
+        }
+        return snapshots;
+    }
+
+    /**
+     * Lấy nguyên liệu theo ID
+     */
+    public Optional<Material> getById(Long id) {
+        if (!enabled) {
+            return materialRepository.findById(id);
+        }
+        Entry entry = byId.get(id);
+        if (entry != null && isFresh(entry.loadedAt)) {
+            hits.increment();
+            return Optional.of(entry.material);
+        }
+        misses.increment();
+        long readSequence = sequence.get();
+        Optional<Material> material = materialRepository.findWithSupplierById(id).map(this::snapshot);
+        material.ifPresent(m -> putIfNewer(m, readSequence, false));
+        return material;
+    }
+
+    /**
+     * Lấy nguyên liệu theo mã
+     */
+    public Optional<Material> getByCode(String code) {
+        if (!enabled) {
+            return materialRepository.findByCode(code);
+        }
+        Long id = idByCode.get(code);
+        if (id != null) {
+            return getById(id);
+        }
+        misses.increment();
+        long readSequence = sequence.get();
+        Optional<Material> material = materialRepository.findByCode(code).map(this::snapshot);
+        material.ifPresent(m -> putIfNewer(m, readSequence, false));
+        return material;
+    }
+
+    /**
+     * Tìm kiếm theo tên (không phân biệt hoa thường và dấu, giống collation utf8mb4_unicode_ci)
+     */
+    public List<Material> searchByName(String name) {
+        if (!enabled) {
+            return materialRepository.findByNameContainingIgnoreCase(name);
+        }
+        String keyword = fold(name);
+        List<Material> result = new ArrayList<>();
+        for (Material material : getAll()) {
+            if (fold(material.getName()).contains(keyword)) {
+                result.add(material);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cập nhật cache sau khi transaction hiện tại commit (ghi xuyên)
+     * Ảnh chụp được lấy ngay trước commit để phản ánh trạng thái cuối cùng của entity;
+     * nếu transaction rollback thì bản ghi bị loại khỏi cache.
+     */
+    public void putAfterCommit(Material material) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putIfNewer(snapshot(material), sequence.incrementAndGet(), true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Material snapshot;
+            private long writeSequence;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                snapshot = snapshot(material);
+                writeSequence = sequence.incrementAndGet();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && snapshot != null) {
+                    putIfNewer(snapshot, writeSequence, true);
+                } else {
+                    evict(material.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Loại một nguyên liệu khỏi cache
+     */
+    public void evict(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            idByCode.remove(removed.material.getCode(), id);
+        }
+        fullyLoadedAt = 0;
+    }
+
+    /**
+     * Loại các nguyên liệu của nhà cung cấp sau khi transaction hiện tại kết thúc
+     * (nhà cung cấp vừa được sửa / xóa, bản sao trong cache giữ thông tin cũ)
+     */
+    public void evictSupplierAfterCommit(Long supplierId) {
+        if (!enabled || supplierId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictSupplier(supplierId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evictSupplier(supplierId);
+            }
+        });
+    }
+
+    /**
+     * Xóa toàn bộ cache
+     */
+    public void clear() {
+        byId.clear();
+        idByCode.clear();
+        loadOrder.clear();
+        queued.set(0);
+        fullyLoadedAt = 0;
+    }
+
+    /**
+     * Thống kê hit / miss / eviction
+     */
+    public CacheStatsDTO getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new CacheStatsDTO(enabled, byId.size(), maxSize, ttlSeconds, hitCount, missCount,
+                evictions.sum(), total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    /**
+     * Ghi bản ghi vào cache nếu nó mới hơn bản ghi hiện có
+     * Ghi xuyên thắng khi cùng số thứ tự; lần đọc DB chỉ thắng khi số thứ tự lớn hơn hẳn.
+     */
+    private void putIfNewer(Material material, long seq, boolean write) {
+        long now = System.currentTimeMillis();
+        Entry stored = byId.compute(material.getId(), (id, existing) -> {
+            if (existing == null || seq > existing.sequence || (write && seq == existing.sequence)) {
+                return new Entry(material, seq, now);
+            }
+            return existing;
+        });
+        if (stored.material == material) {
+            idByCode.put(material.getCode(), material.getId());
+            loadOrder.add(stored);
+            if (queued.incrementAndGet() > 2 * Math.max(maxSize, byId.size())) {
+                compactLoadOrder();
+            }
+            if (byId.size() > maxSize) {
+                evictOldest();
+            }
+        }
+    }
+
+    /**
+     * Loại các bản ghi được nạp lâu nhất khi vượt quá kích thước tối đa
+     * Lấy từ đầu hàng đợi thứ tự nạp: mỗi lần loại O(1) (không tính phần tử đã cũ bị bỏ qua).
+     */
+    private void evictOldest() {
+        while (byId.size() > maxSize) {
+            Entry oldest = loadOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (removeIfCurrent(oldest)) {
+                evictions.increment();
+                fullyLoadedAt = 0;
+            }
+        }
+    }
+
+    /**
+     * Bỏ các phần tử đã cũ khỏi hàng đợi thứ tự nạp (bản ghi bị thay thế nhiều lần bởi ghi xuyên)
+     * Chạy khi hàng đợi dài gấp đôi cache, nên chi phí chia đều cho các lần ghi là O(1).
+     */
+    private void compactLoadOrder() {
+        if (!compactLock.tryLock()) {
+            return;
+        }
+        try {
+            loadOrder.removeIf(entry -> byId.get(entry.material.getId()) != entry);
+            queued.set(loadOrder.size());
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    private boolean removeIfCurrent(Entry entry) {
+        Long id = entry.material.getId();
+        boolean[] removed = new boolean[1];
+        byId.computeIfPresent(id, (key, current) -> {
+            if (current == entry) {
+                removed[0] = true;
+                return null;
+            }
+            return current;
+        });
+        if (removed[0]) {
+            idByCode.remove(entry.material.getCode(), id);
+        }
+        return removed[0];
+    }
+
+    private void evictSupplier(Long supplierId) {
+        for (Entry entry : byId.values()) {
+            Supplier supplier = entry.material.getSupplier();
+            if (supplier != null && supplierId.equals(supplier.getId())) {
+                removeIfCurrent(entry);
+            }
+        }
+        fullyLoadedAt = 0;
+    }
+
+    private boolean isFresh(long loadedAt) {
+        return loadedAt > 0 && System.currentTimeMillis() - loadedAt < ttlSeconds * 1000;
+    }
+
+    private List<Material> sortedValues() {
+        List<Material> materials = new ArrayList<>(byId.size());
+        for (Entry entry : byId.values()) {
+            materials.add(entry.material);
+        }
+        materials.sort(Comparator.comparing(Material::getId));
+        return materials;
+    }
+
+    /**
+     * Tạo bản sao tách khỏi persistence context (nhà cung cấp đã được nạp sẵn)
+     */
+    private Material snapshot(Material material) {
+        Material copy = new Material();
+        copy.setId(material.getId());
+        copy.setCode(material.getCode());
+        copy.setName(material.getName());
+        copy.setDescription(material.getDescription());
+        copy.setQuantity(material.getQuantity());
+        copy.setReservedQuantity(material.getReservedQuantity());
+        copy.setUnit(material.getUnit());
+        copy.setMinQuantity(material.getMinQuantity());
+        copy.setUnitPrice(material.getUnitPrice());
+        copy.setExpiryDate(material.getExpiryDate());
+        copy.setSupplier(material.getSupplier() != null ? Hibernate.unproxy(material.getSupplier(), Supplier.class) : null);
+        copy.setStatus(material.getStatus());
+        copy.setCreatedAt(material.getCreatedAt());
+        copy.setUpdatedAt(material.getUpdatedAt());
+        return copy;
+    }
+
+    private static String fold(String text) {
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(normalized).replaceAll("").replace('đ', 'd');
+    }
+
+    private record Entry(Material material, long sequence, long loadedAt) {
+    }
+}
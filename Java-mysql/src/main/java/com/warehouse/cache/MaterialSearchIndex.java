@@ -0,0 +1,84 @@
+package com.warehouse.cache;
+
+import com.warehouse.entity.Material;
+import com.warehouse.repository.MaterialRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Chỉ mục tìm kiếm nguyên liệu theo mã / tên / mô tả (không phân biệt dấu)
+ * - Nạp toàn bộ khi ứng dụng khởi động; thêm / sửa / xóa nguyên liệu cập nhật sau khi commit (SearchIndexListener)
+ * - Khi tắt (app.search.enabled=false) hoặc chưa nạp xong thì trả về rỗng để service tìm theo cách cũ
+ */
+@Component
+public class MaterialSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterialSearchIndex.class);
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    private final SearchIndex index = new SearchIndex();
+
+    private volatile boolean ready;
+
+    /**
+     * Tìm kiếm và xếp hạng, trả về ID nguyên liệu của trang [offset, offset + limit)
+     */
+    public Optional<SearchIndex.Page> search(String query, int offset, int limit) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query, offset, limit));
+    }
+
+    public void putAfterCommit(Material material) {
+        if (enabled) {
+            index.putAfterCommit(toDocument(material));
+        }
+    }
+
+    public void removeAfterCommit(Long id) {
+        if (enabled) {
+            index.removeAfterCommit(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Không nạp được chỉ mục tìm kiếm nguyên liệu: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục từ DB
+     *
+     * @return số nguyên liệu trong chỉ mục
+     */
+    public synchronized int rebuild() {
+        index.replaceAll(materialRepository.findAll().stream().map(MaterialSearchIndex::toDocument).toList());
+        ready = true;
+        log.info("Đã nạp chỉ mục tìm kiếm nguyên liệu: {} nguyên liệu", index.size());
+        return index.size();
+    }
+
+    private static SearchIndex.Document toDocument(Material material) {
+        return new SearchIndex.Document(material.getId(), material.getCode(), material.getName(), material.getDescription());
+    }
+}
@@ -0,0 +1,176 @@
+package com.warehouse.cache;
+
+import com.warehouse.dto.response.MaterialWarningDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
+import com.warehouse.event.StockEvent;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.service.MaterialLotService;
+import com.warehouse.service.MaterialWarningClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chỉ mục cảnh báo nguyên liệu trong bộ nhớ (theo ID nguyên liệu)
+ * - Nạp toàn bộ khi ứng dụng khởi động và quét lại mỗi ngày (hạn dùng thay đổi theo ngày)
+ * - Sau mỗi lần nhập / xuất kho đã commit, chỉ tính lại cảnh báo của nguyên liệu bị ảnh hưởng
+ * - Đọc cảnh báo không truy cập DB, chi phí tỉ lệ với số cảnh báo
+ * Chỉ phục vụ khoảng cảnh báo mặc định (app.warning.expiring-days); khi chưa sẵn sàng
+ * hoặc đã sang ngày mới mà chưa quét lại thì trả về rỗng để service truy vấn DB.
+ */
+@Component
+public class MaterialWarningIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterialWarningIndex.class);
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private MaterialLotService lotService;
+
+    @Autowired
+    private MaterialWarningClassifier warningClassifier;
+
+    @Value("${app.warning.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warning.expiring-days:7}")
+    private int expiringDays;
+
+    private final ConcurrentNavigableMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+
+    // Tăng mỗi khi một sự kiện được áp dụng; lần quét lại không ghi đè bản ghi đã được cập nhật sau khi quét bắt đầu
+    private final AtomicLong applied = new AtomicLong();
+
+    // Ngày mà chỉ mục được tính cho (null = chưa sẵn sàng)
+    private volatile LocalDate builtFor;
+
+    /**
+     * Lấy cảnh báo từ chỉ mục (thứ tự: tồn kho thấp, sắp hết hạn, đã hết hạn; trong nhóm theo ID)
+     */
+    public Optional<List<MaterialWarningDTO>> getWarnings() {
+        if (!enabled || !LocalDate.now().equals(builtFor)) {
+            return Optional.empty();
+        }
+        List<MaterialWarningDTO> lowStock = new ArrayList<>();
+        List<MaterialWarningDTO> expiringSoon = new ArrayList<>();
+        List<MaterialWarningDTO> expired = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            for (MaterialWarningDTO warning : entry.warnings) {
+                switch (warning.getWarningType()) {
+                    case MaterialWarningClassifier.LOW_STOCK -> lowStock.add(warning);
+                    case MaterialWarningClassifier.EXPIRING_SOON -> expiringSoon.add(warning);
+                    default -> expired.add(warning);
+                }
+            }
+        }
+        List<MaterialWarningDTO> warnings = new ArrayList<>(lowStock.size() + expiringSoon.size() + expired.size());
+        warnings.addAll(lowStock);
+        warnings.addAll(expiringSoon);
+        warnings.addAll(expired);
+        return Optional.of(warnings);
+    }
+
+    /**
+     * Cập nhật cảnh báo của nguyên liệu sau khi nhập / xuất kho commit
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockEvent(StockEvent event) {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        List<MaterialWarningDTO> warnings = warningClassifier.classify(event.getMaterial(), event.getLots(),
+                today, today.plusDays(expiringDays));
+        entries.compute(event.getMaterialId(), (id, existing) -> {
+            if (existing != null && existing.eventSequence >= event.getSequence()) {
+                return existing;
+            }
+            return new Entry(warnings, event.getSequence(), applied.incrementAndGet());
+        });
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục khi ứng dụng khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Không nạp được chỉ mục cảnh báo, dùng truy vấn DB: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Quét lại hằng ngày để cập nhật cảnh báo hết hạn / sắp hết hạn theo ngày mới
+     */
+    @Scheduled(cron = "${app.warning.sweep-cron:0 0 0 * * *}")
+    public void dailySweep() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Tính lại toàn bộ chỉ mục từ DB (một lượt quét bảng materials, một truy vấn lô sắp hết hạn)
+     * Bản ghi đã được sự kiện cập nhật trong lúc quét được giữ nguyên, vì dữ liệu đọc được có thể cũ hơn.
+     */
+    public synchronized void rebuild() {
+        long appliedAtStart = applied.get();
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(expiringDays);
+
+        Map<Long, List<MaterialLot>> lots = lotService.findExpiringLots(horizon);
+        Map<Long, List<MaterialWarningDTO>> computed = new HashMap<>();
+        for (Material material : materialRepository.findWarningCandidates(horizon)) {
+            computed.put(material.getId(), warningClassifier.classify(material,
+                    lots.getOrDefault(material.getId(), List.of()), today, horizon));
+        }
+
+        for (Long id : entries.keySet()) {
+            computed.putIfAbsent(id, Collections.emptyList());
+        }
+        computed.forEach((id, warnings) -> entries.compute(id, (key, existing) -> {
+            if (existing == null) {
+                return warnings.isEmpty() ? null : new Entry(warnings, 0, 0);
+            }
+            if (existing.appliedAt > appliedAtStart) {
+                return existing;
+            }
+            if (warnings.isEmpty() && existing.eventSequence == 0) {
+                return null;
+            }
+            return new Entry(warnings, existing.eventSequence, existing.appliedAt);
+        }));
+
+        builtFor = today;
+        log.info("Đã nạp chỉ mục cảnh báo: {} nguyên liệu có cảnh báo", computed.values().stream().filter(w -> !w.isEmpty()).count());
+    }
+
+    private record Entry(List<MaterialWarningDTO> warnings, long eventSequence, long appliedAt) {
+    }
+}
@@ -0,0 +1,378 @@
+package com.warehouse.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Chỉ mục tìm kiếm toàn văn trong bộ nhớ cho các trường mã / tên / mô tả
+ * - Văn bản được chuẩn hóa: chữ thường, bỏ dấu tiếng Việt (đ -> d), ký tự không phải chữ / số thành khoảng trắng
+ * - Mỗi từ được tách thành các trigram và tiền tố 1-2 ký tự; từ khóa >= 3 ký tự tìm theo chuỗi con,
+ *   từ khóa ngắn hơn tìm theo đầu từ. Nhiều từ khóa: tài liệu phải khớp tất cả.
+ * - Danh sách tài liệu của mỗi gram là mảng số thứ tự tăng dần (chỉ ghi thêm); tài liệu bị sửa / xóa
+ *   được đánh dấu bỏ và chỉ mục tự nén lại khi số tài liệu bỏ đi vượt quá 1/4.
+ * - Xếp hạng: khớp trọn trường > khớp đầu từ > khớp chuỗi con, nhân trọng số trường (mã 3, tên 2, mô tả 1);
+ *   cùng điểm thì tên ngắn hơn trước. Chỉ giữ top (offset + limit) kết quả trong heap.
+ */
+public class SearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] FIELD_WEIGHTS = {3, 2, 1};
+    private static final int NAME_FIELD = 1;
+
+    /**
+     * Tài liệu cần đánh chỉ mục
+     */
+    public record Document(Long id, String code, String name, String description) {
+    }
+
+    /**
+     * Một trang kết quả: ID theo thứ tự xếp hạng và tổng số tài liệu khớp
+     */
+    public record Page(List<Long> ids, int total) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private int removed;
+
+    /**
+     * Thay toàn bộ nội dung chỉ mục
+     */
+    public void replaceAll(Collection<Document> documents) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            ordinals.clear();
+            removed = 0;
+            for (Document document : documents) {
+                append(new Entry(document.id(), fold(document.code()), fold(document.name()), fold(document.description())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Thêm hoặc cập nhật tài liệu (bỏ qua nếu nội dung đã chuẩn hóa không đổi)
+     */
+    public void put(Document document) {
+        Entry entry = new Entry(document.id(), fold(document.code()), fold(document.name()), fold(document.description()));
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(document.id());
+            if (ordinal != null && Arrays.equals(entries.get(ordinal).fields, entry.fields)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            markRemoved(document.id());
+            append(entry);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa tài liệu khỏi chỉ mục
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            markRemoved(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cập nhật chỉ mục sau khi transaction hiện tại commit (bỏ qua nếu rollback)
+     */
+    public void putAfterCommit(Document document) {
+        afterCommit(() -> put(document));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Số tài liệu đang có trong chỉ mục
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tìm kiếm và xếp hạng
+     *
+     * @return trang kết quả [offset, offset + limit); rỗng nếu từ khóa không có chữ / số
+     */
+    public Page search(String query, int offset, int limit) {
+        String[] terms = new LinkedHashSet<>(Arrays.asList(fold(query).split(" "))).stream()
+                .filter(term -> !term.isEmpty())
+                .toArray(String[]::new);
+        if (terms.length == 0) {
+            return new Page(List.of(), 0);
+        }
+        Comparator<Hit> ranking = Comparator.comparingInt(Hit::score).reversed()
+                .thenComparingInt(Hit::nameLength)
+                .thenComparingLong(Hit::id);
+        int keep = offset + limit;
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(terms);
+            String[] wordStarts = Arrays.stream(terms).map(term -> " " + term).toArray(String[]::new);
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, Math.min(keep, candidates.length)), ranking.reversed());
+            int total = 0;
+            for (int ordinal : candidates) {
+                Entry entry = entries.get(ordinal);
+                if (entry == null) {
+                    continue;
+                }
+                int score = score(entry, terms, wordStarts);
+                if (score == 0) {
+                    continue;
+                }
+                total++;
+                top.offer(new Hit(entry.id, score, entry.fields[NAME_FIELD].length()));
+                if (top.size() > keep) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(ranking);
+            List<Long> ids = ranked.stream().skip(offset).map(Hit::id).toList();
+            return new Page(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chuẩn hóa văn bản để so khớp: chữ thường, bỏ dấu, chỉ giữ chữ / số cách nhau một khoảng trắng
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        normalized = DIACRITICS.matcher(normalized).replaceAll("").replace('đ', 'd');
+        return NON_WORD.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Giao các danh sách tài liệu của mọi gram trong từ khóa (bắt đầu từ danh sách ngắn nhất)
+     */
+    private int[] candidates(String[] terms) {
+        List<IntList> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : queryGrams(term)) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = intersect(result, length, lists.get(i));
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private static int intersect(int[] current, int length, IntList other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < other.size; i++) {
+            int value = current[i];
+            j = advance(other.values, j, other.size, value);
+            if (j < other.size && other.values[j] == value) {
+                current[kept++] = value;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Vị trí đầu tiên >= value trong mảng tăng dần, tìm theo bước nhảy rồi nhị phân
+     */
+    private static int advance(int[] values, int from, int size, int value) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && values[high] < value) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int score(Entry entry, String[] terms, String[] wordStarts) {
+        int total = 0;
+        for (int t = 0; t < terms.length; t++) {
+            String term = terms[t];
+            int best = 0;
+            for (int f = 0; f < entry.fields.length; f++) {
+                String field = entry.fields[f];
+                int match;
+                if (field.equals(term)) {
+                    match = 4;
+                } else if (field.startsWith(term) || field.contains(wordStarts[t])) {
+                    match = 2;
+                } else if (term.length() >= 3 && field.contains(term)) {
+                    match = 1;
+                } else {
+                    continue;
+                }
+                best = Math.max(best, match * FIELD_WEIGHTS[f]);
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private void append(Entry entry) {
+        int ordinal = entries.size();
+        entries.add(entry);
+        ordinals.put(entry.id, ordinal);
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : entry.fields) {
+            for (String word : field.split(" ")) {
+                indexGrams(word, grams);
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, k -> new IntList()).add(ordinal);
+        }
+    }
+
+    private void markRemoved(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal != null) {
+            entries.set(ordinal, null);
+            removed++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (removed > 1000 && removed > entries.size() / 4) {
+            List<Entry> live = entries.stream().filter(entry -> entry != null).toList();
+            postings.clear();
+            entries.clear();
+            ordinals.clear();
+            removed = 0;
+            live.forEach(this::append);
+        }
+    }
+
+    private static void indexGrams(String word, Set<String> grams) {
+        if (word.isEmpty()) {
+            return;
+        }
+        grams.add("^" + word.substring(0, 1));
+        if (word.length() >= 2) {
+            grams.add("^" + word.substring(0, 2));
+        }
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            grams.add(word.substring(i, i + 3));
+        }
+    }
+
+    private static List<String> queryGrams(String term) {
+        if (term.length() < 3) {
+            return List.of("^" + term);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            grams.add(term.substring(i, i + 3));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final String[] fields;
+
+        private Entry(Long id, String code, String name, String description) {
+            this.id = id;
+            this.fields = new String[]{code, name, description};
+        }
+    }
+
+    private record Hit(Long id, int score, int nameLength) {
+    }
+
+    /**
+     * Mảng int tăng dần chỉ ghi thêm
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.warehouse.cache;
+
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Đồng bộ chỉ mục tìm kiếm khi nguyên liệu / nhà cung cấp được thêm, sửa, xóa
+ * Chỉ mục chỉ được cập nhật sau khi transaction commit. Cập nhật tồn kho bằng câu lệnh
+ * UPDATE trực tiếp không đi qua listener, nhưng cũng không đổi các trường được tìm kiếm.
+ */
+@Component
+public class SearchIndexListener {
+
+    @Autowired
+    @Lazy
+    private MaterialSearchIndex materialSearchIndex;
+
+    @Autowired
+    @Lazy
+    private SupplierSearchIndex supplierSearchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Material material) {
+            materialSearchIndex.putAfterCommit(material);
+        } else if (entity instanceof Supplier supplier) {
+            supplierSearchIndex.putAfterCommit(supplier);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Material material) {
+            materialSearchIndex.removeAfterCommit(material.getId());
+        } else if (entity instanceof Supplier supplier) {
+            supplierSearchIndex.removeAfterCommit(supplier.getId());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.warehouse.cache;
+
+import com.warehouse.entity.Supplier;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loại các nguyên liệu của nhà cung cấp khỏi MaterialCache khi nhà cung cấp bị sửa / xóa
+ * (bản sao nguyên liệu trong cache giữ thông tin nhà cung cấp được nạp kèm)
+ */
+@Component
+public class SupplierChangeListener {
+
+    @Autowired
+    @Lazy
+    private MaterialCache materialCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Supplier supplier) {
+        materialCache.evictSupplierAfterCommit(supplier.getId());
+    }
+}
@@ -0,0 +1,87 @@
+package com.warehouse.cache;
+
+import com.warehouse.entity.Supplier;
+import com.warehouse.repository.SupplierRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Chỉ mục tìm kiếm nhà cung cấp theo mã / tên / (người liên hệ, địa chỉ, ghi chú)
+ * Cùng cơ chế với MaterialSearchIndex.
+ */
+@Component
+public class SupplierSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplierSearchIndex.class);
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    private final SearchIndex index = new SearchIndex();
+
+    private volatile boolean ready;
+
+    /**
+     * Tìm kiếm và xếp hạng, trả về ID nhà cung cấp của trang [offset, offset + limit)
+     */
+    public Optional<SearchIndex.Page> search(String query, int offset, int limit) {
+        if (!enabled || !ready) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(query, offset, limit));
+    }
+
+    public void putAfterCommit(Supplier supplier) {
+        if (enabled) {
+            index.putAfterCommit(toDocument(supplier));
+        }
+    }
+
+    public void removeAfterCommit(Long id) {
+        if (enabled) {
+            index.removeAfterCommit(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Không nạp được chỉ mục tìm kiếm nhà cung cấp: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lại toàn bộ chỉ mục từ DB
+     *
+     * @return số nhà cung cấp trong chỉ mục
+     */
+    public synchronized int rebuild() {
+        index.replaceAll(supplierRepository.findAll().stream().map(SupplierSearchIndex::toDocument).toList());
+        ready = true;
+        log.info("Đã nạp chỉ mục tìm kiếm nhà cung cấp: {} nhà cung cấp", index.size());
+        return index.size();
+    }
+
+    private static SearchIndex.Document toDocument(Supplier supplier) {
+        String details = String.join(" ",
+                supplier.getContactPerson() != null ? supplier.getContactPerson() : "",
+                supplier.getAddress() != null ? supplier.getAddress() : "",
+                supplier.getNote() != null ? supplier.getNote() : "");
+        return new SearchIndex.Document(supplier.getId(), supplier.getCode(), supplier.getName(), details);
+    }
+}
@@ -0,0 +1,91 @@
+package com.warehouse.controller;
+
+import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.dto.response.MaterialForecastDTO;
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.service.ConsumptionForecastService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller cho dự báo tiêu thụ và điểm đặt hàng lại
+ */
+@RestController
+@RequestMapping("/api/forecasts")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ForecastController {
+
+    @Autowired
+    private ConsumptionForecastService forecastService;
+
+    /**
+     * Dự báo tiêu thụ của tất cả nguyên liệu
+     * GET /api/forecasts?reorderOnly=true chỉ lấy nguyên liệu cần đặt hàng
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<MaterialForecastDTO>>> getForecasts(
+            @RequestParam(defaultValue = "false") boolean reorderOnly) {
+        try {
+            List<MaterialForecastDTO> forecasts = forecastService.getForecasts(reorderOnly);
+            return ResponseEntity.ok(ApiResponse.success("Lấy dự báo tiêu thụ thành công", forecasts));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy dự báo tiêu thụ: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Dự báo tiêu thụ của một nguyên liệu
+     * GET /api/forecasts/{materialId}
+     */
+    @GetMapping("/{materialId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<MaterialForecastDTO>> getForecast(@PathVariable Long materialId) {
+        try {
+            MaterialForecastDTO forecast = forecastService.getForecast(materialId);
+            return ResponseEntity.ok(ApiResponse.success("Lấy dự báo tiêu thụ thành công", forecast));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy dự báo tiêu thụ: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Tạo yêu cầu bổ sung cho nguyên liệu dưới điểm đặt hàng
+     * POST /api/forecasts/draft-requests
+     */
+    @PostMapping("/draft-requests")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<String>>> draftRequests() {
+        try {
+            List<String> codes = forecastService.draftRequests().stream()
+                    .map(MaterialRequest::getRequestCode)
+                    .toList();
+            return ResponseEntity.ok(ApiResponse.success("Đã tạo " + codes.size() + " yêu cầu bổ sung", codes));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi tạo yêu cầu bổ sung: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Dựng lại dự báo từ bảng tổng hợp theo ngày
+     * POST /api/forecasts/rebuild
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuild() {
+        try {
+            int count = forecastService.rebuild();
+            return ResponseEntity.ok(ApiResponse.success("Đã dựng lại dự báo tiêu thụ", count));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi dựng lại dự báo tiêu thụ: " + e.getMessage()));
+        }
+    }
+}
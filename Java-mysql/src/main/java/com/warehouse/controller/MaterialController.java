@@ -1,9 +1,14 @@
 package com.warehouse.controller;
 
 import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.dto.response.CacheStatsDTO;
 import com.warehouse.dto.response.MaterialWarningDTO;
+import com.warehouse.dto.response.ReservationCheckDTO;
+import com.warehouse.dto.response.SearchPageDTO;
 import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
 import com.warehouse.service.MaterialService;
+import com.warehouse.service.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,6 +27,9 @@ public class MaterialController {
     @Autowired
     private MaterialService materialService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     /**
      * 5.2 Xem danh sách nguyên liệu tồn kho
      * GET /api/materials
@@ -55,34 +63,134 @@ public class MaterialController {
     }
 
     /**
-     * Tìm kiếm nguyên liệu theo tên
-     * GET /api/materials/search?name={name}
+     * Các lô còn hàng của nguyên liệu (thứ tự xuất kho FEFO)
+     * GET /api/materials/{id}/lots
+     */
+    @GetMapping("/{id}/lots")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<MaterialLot>>> getMaterialLots(@PathVariable Long id) {
+        try {
+            List<MaterialLot> lots = materialService.getMaterialLots(id);
+            return ResponseEntity.ok(ApiResponse.success("Lấy danh sách lô thành công", lots));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy danh sách lô: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Tìm kiếm nguyên liệu theo mã / tên / mô tả (không phân biệt dấu), kết quả xếp hạng theo độ khớp
+     * GET /api/materials/search?q={từ khóa}&page=0&size=20 (name là tên cũ của tham số q)
      */
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF', 'KITCHEN_STAFF')")
-    public ResponseEntity<ApiResponse<List<Material>>> searchMaterials(@RequestParam String name) {
+    public ResponseEntity<ApiResponse<SearchPageDTO<Material>>> searchMaterials(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Material> materials = materialService.searchMaterialsByName(name);
-            return ResponseEntity.ok(ApiResponse.success("Tìm kiếm thành công", materials));
+            SearchPageDTO<Material> result = materialService.searchMaterials(q != null ? q : name, page, size);
+            return ResponseEntity.ok(ApiResponse.success("Tìm kiếm thành công", result));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Lỗi khi tìm kiếm: " + e.getMessage()));
         }
     }
 
+    /**
+     * Nạp lại chỉ mục tìm kiếm từ DB (sau khi sửa dữ liệu trực tiếp trong DB)
+     * POST /api/materials/search/rebuild
+     */
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuildSearchIndex() {
+        try {
+            int count = materialService.rebuildSearchIndex();
+            return ResponseEntity.ok(ApiResponse.success("Đã nạp lại chỉ mục tìm kiếm", count));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi nạp lại chỉ mục tìm kiếm: " + e.getMessage()));
+        }
+    }
+
     /**
      * 5.5 Cảnh báo tồn kho thấp / hết hạn
-     * GET /api/materials/warning
+     * GET /api/materials/warning?days={số ngày sắp hết hạn}
      */
     @GetMapping("/warning")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
-    public ResponseEntity<ApiResponse<List<MaterialWarningDTO>>> getWarnings() {
+    public ResponseEntity<ApiResponse<List<MaterialWarningDTO>>> getWarnings(@RequestParam(required = false) Integer days) {
         try {
-            List<MaterialWarningDTO> warnings = materialService.getWarnings();
+            List<MaterialWarningDTO> warnings = materialService.getWarnings(days);
             return ResponseEntity.ok(ApiResponse.success("Lấy danh sách cảnh báo thành công", warnings));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Lỗi khi lấy cảnh báo: " + e.getMessage()));
         }
     }
+
+    /**
+     * Tính lại chỉ mục cảnh báo từ DB (sau khi sửa dữ liệu trực tiếp trong DB)
+     * POST /api/materials/warning/rebuild
+     */
+    @PostMapping("/warning/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> rebuildWarningIndex() {
+        try {
+            materialService.rebuildWarningIndex();
+            return ResponseEntity.ok(ApiResponse.success("Đã tính lại chỉ mục cảnh báo", null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi tính lại chỉ mục cảnh báo: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Thống kê cache danh mục nguyên liệu
+     * GET /api/materials/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CacheStatsDTO>> getCacheStats() {
+        try {
+            CacheStatsDTO stats = materialService.getCacheStats();
+            return ResponseEntity.ok(ApiResponse.success("Lấy thống kê cache thành công", stats));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy thống kê cache: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Đối chiếu hàng đang giữ cho các yêu cầu đã duyệt
+     * GET /api/materials/reservations
+     */
+    @GetMapping("/reservations")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<ReservationCheckDTO>>> checkReservations() {
+        try {
+            List<ReservationCheckDTO> rows = stockReservationService.check();
+            return ResponseEntity.ok(ApiResponse.success("Đối chiếu hàng đang giữ thành công", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi đối chiếu hàng đang giữ: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Tính lại bộ đếm hàng đang giữ từ các yêu cầu đã duyệt, trả về các nguyên liệu bị lệch
+     * POST /api/materials/reservations/reconcile
+     */
+    @PostMapping("/reservations/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<ReservationCheckDTO>>> reconcileReservations() {
+        try {
+            List<ReservationCheckDTO> drifted = stockReservationService.reconcile();
+            return ResponseEntity.ok(ApiResponse.success("Đã tính lại hàng đang giữ", drifted));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi tính lại hàng đang giữ: " + e.getMessage()));
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.warehouse.controller;
 
 import com.warehouse.dto.request.MaterialRequestDTO;
 import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.dto.response.MaterialRequestSummaryDTO;
 import com.warehouse.entity.MaterialRequest;
 import com.warehouse.service.MaterialRequestService;
 import jakarta.validation.Valid;
@@ -29,9 +30,9 @@ public class MaterialRequestController {
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF', 'KITCHEN_STAFF')")
-    public ResponseEntity<ApiResponse<List<MaterialRequest>>> getAllRequests() {
+    public ResponseEntity<ApiResponse<List<MaterialRequestSummaryDTO>>> getAllRequests() {
         try {
-            List<MaterialRequest> requests = requestService.getAllRequests();
+            List<MaterialRequestSummaryDTO> requests = requestService.getAllRequests();
             return ResponseEntity.ok(ApiResponse.success("Lấy danh sách yêu cầu thành công", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -45,9 +46,9 @@ public class MaterialRequestController {
      */
     @GetMapping("/pending")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
-    public ResponseEntity<ApiResponse<List<MaterialRequest>>> getPendingRequests() {
+    public ResponseEntity<ApiResponse<List<MaterialRequestSummaryDTO>>> getPendingRequests() {
         try {
-            List<MaterialRequest> requests = requestService.getPendingRequests();
+            List<MaterialRequestSummaryDTO> requests = requestService.getPendingRequests();
             return ResponseEntity.ok(ApiResponse.success("Lấy danh sách yêu cầu chờ xử lý thành công", requests));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -89,13 +90,15 @@ public class MaterialRequestController {
 
     /**
      * 5.6 Phê duyệt yêu cầu
-     * PUT /api/requests/{id}/approve
+     * PUT /api/requests/{id}/approve (header Idempotency-Key tùy chọn: gọi lại với cùng khóa không báo lỗi)
      */
     @PutMapping("/{id}/approve")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
-    public ResponseEntity<ApiResponse<MaterialRequest>> approveRequest(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<MaterialRequest>> approveRequest(
+            @PathVariable Long id,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            MaterialRequest request = requestService.approveRequest(id);
+            MaterialRequest request = requestService.approveRequest(id, idempotencyKey);
             return ResponseEntity.ok(ApiResponse.success("Phê duyệt yêu cầu thành công", request));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -105,15 +108,16 @@ public class MaterialRequestController {
 
     /**
      * 5.6 Từ chối yêu cầu
-     * PUT /api/requests/{id}/reject
+     * PUT /api/requests/{id}/reject (header Idempotency-Key tùy chọn)
      */
     @PutMapping("/{id}/reject")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
     public ResponseEntity<ApiResponse<MaterialRequest>> rejectRequest(
             @PathVariable Long id,
-            @RequestParam String reason) {
+            @RequestParam String reason,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            MaterialRequest request = requestService.rejectRequest(id, reason);
+            MaterialRequest request = requestService.rejectRequest(id, reason, idempotencyKey);
             return ResponseEntity.ok(ApiResponse.success("Từ chối yêu cầu thành công", request));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -0,0 +1,122 @@
+package com.warehouse.controller;
+
+import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.dto.response.ConsumptionReportRowDTO;
+import com.warehouse.dto.response.StockAsOfDTO;
+import com.warehouse.dto.response.SupplierImportReportDTO;
+import com.warehouse.service.ConsumptionReportService;
+import com.warehouse.service.StockSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST Controller cho báo cáo tiêu thụ nguyên liệu
+ */
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReportController {
+
+    @Autowired
+    private ConsumptionReportService consumptionReportService;
+
+    @Autowired
+    private StockSnapshotService stockSnapshotService;
+
+    /**
+     * Báo cáo tiêu thụ theo nguyên liệu
+     * GET /api/reports/consumption?startDate=&endDate=&materialId=&granularity=DAY|WEEK|MONTH
+     * Mặc định 30 ngày gần nhất, theo ngày
+     */
+    @GetMapping("/consumption")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<ConsumptionReportRowDTO>>> getConsumption(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long materialId,
+            @RequestParam(defaultValue = "DAY") ConsumptionReportService.Granularity granularity) {
+        try {
+            List<ConsumptionReportRowDTO> rows = consumptionReportService.getConsumption(
+                    startDate, endDate, materialId, granularity);
+            return ResponseEntity.ok(ApiResponse.success("Lấy báo cáo tiêu thụ thành công", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy báo cáo tiêu thụ: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Báo cáo giá trị nhập kho theo nhà cung cấp
+     * GET /api/reports/consumption/suppliers?startDate=&endDate=
+     */
+    @GetMapping("/consumption/suppliers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<SupplierImportReportDTO>>> getSupplierImports(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            List<SupplierImportReportDTO> rows = consumptionReportService.getSupplierImports(startDate, endDate);
+            return ResponseEntity.ok(ApiResponse.success("Lấy báo cáo nhập kho theo nhà cung cấp thành công", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy báo cáo nhập kho: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Tính lại bảng tổng hợp từ sổ giao dịch
+     * POST /api/reports/consumption/rebuild
+     */
+    @PostMapping("/consumption/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> rebuild() {
+        try {
+            int rows = consumptionReportService.rebuild();
+            return ResponseEntity.ok(ApiResponse.success("Đã tính lại bảng tổng hợp", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi tính lại bảng tổng hợp: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Tồn kho cuối ngày tại một thời điểm trong quá khứ
+     * GET /api/reports/stock?date=&materialId=
+     */
+    @GetMapping("/stock")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<List<StockAsOfDTO>>> getStockAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long materialId) {
+        try {
+            List<StockAsOfDTO> rows = stockSnapshotService.getStockAsOf(date, materialId);
+            return ResponseEntity.ok(ApiResponse.success("Lấy tồn kho theo ngày thành công", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi lấy tồn kho theo ngày: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Chụp lại tồn kho cuối ngày (mặc định hôm qua)
+     * POST /api/reports/stock/snapshot?date=
+     */
+    @PostMapping("/stock/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Integer>> takeSnapshot(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            int rows = stockSnapshotService.takeSnapshot(date != null ? date : LocalDate.now().minusDays(1));
+            return ResponseEntity.ok(ApiResponse.success("Đã chụp tồn kho", rows));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi chụp tồn kho: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.warehouse.controller;
+
+import com.warehouse.service.ChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller đẩy thay đổi theo thời gian thực (Server-Sent Events)
+ */
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class StreamController {
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    /**
+     * Theo dõi thay đổi nguyên liệu, yêu cầu bổ sung và giao dịch
+     * GET /api/stream
+     * Sự kiện: material (IMPORT/EXPORT), request (CREATED/APPROVED/REJECTED/COMPLETED),
+     * transaction (IMPORT/EXPORT), resync (client cần tải lại dữ liệu)
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF', 'KITCHEN_STAFF')")
+    public SseEmitter subscribe(Authentication authentication) {
+        return changeStreamService.subscribe(authentication.getName());
+    }
+}
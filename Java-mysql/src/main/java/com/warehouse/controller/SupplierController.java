@@ -2,6 +2,7 @@ package com.warehouse.controller;
 
 import com.warehouse.dto.request.SupplierDTO;
 import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.dto.response.SearchPageDTO;
 import com.warehouse.entity.Supplier;
 import com.warehouse.service.SupplierService;
 import jakarta.validation.Valid;
@@ -56,15 +57,19 @@ public class SupplierController {
     }
 
     /**
-     * Tìm kiếm nhà cung cấp theo tên
-     * GET /api/suppliers/search?name={name}
+     * Tìm kiếm nhà cung cấp theo mã / tên / người liên hệ / địa chỉ (không phân biệt dấu), kết quả xếp hạng
+     * GET /api/suppliers/search?q={từ khóa}&page=0&size=20 (name là tên cũ của tham số q)
      */
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
-    public ResponseEntity<ApiResponse<List<Supplier>>> searchSuppliers(@RequestParam String name) {
+    public ResponseEntity<ApiResponse<SearchPageDTO<Supplier>>> searchSuppliers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<Supplier> suppliers = supplierService.searchSuppliersByName(name);
-            return ResponseEntity.ok(ApiResponse.success("Tìm kiếm thành công", suppliers));
+            SearchPageDTO<Supplier> result = supplierService.searchSuppliers(q != null ? q : name, page, size);
+            return ResponseEntity.ok(ApiResponse.success("Tìm kiếm thành công", result));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Lỗi khi tìm kiếm: " + e.getMessage()));
@@ -1,17 +1,28 @@
 package com.warehouse.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.dto.request.BatchExportRequest;
+import com.warehouse.dto.request.BatchImportRequest;
 import com.warehouse.dto.request.ExportRequest;
 import com.warehouse.dto.request.ImportRequest;
 import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.dto.response.BatchResultDTO;
+import com.warehouse.dto.response.CursorPageDTO;
+import com.warehouse.dto.response.TransactionSummaryDTO;
 import com.warehouse.entity.Transaction;
+import com.warehouse.service.TransactionExportService;
 import com.warehouse.service.TransactionService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -26,6 +37,12 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 5.3 Cập nhật số lượng nhập kho
      * POST /api/materials/import
@@ -59,32 +76,101 @@ public class TransactionController {
     }
 
     /**
-     * 5.8 Xem lịch sử nhập – xuất kho
-     * GET /api/transactions
+     * Nhập kho hàng loạt
+     * POST /api/materials/import/batch
+     */
+    @PostMapping("/materials/import/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<BatchResultDTO>> importMaterials(@Valid @RequestBody BatchImportRequest request) {
+        try {
+            BatchResultDTO result = transactionService.importMaterials(request.getItems());
+            return ResponseEntity.ok(ApiResponse.success("Nhập kho hàng loạt hoàn tất", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi nhập kho hàng loạt: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Xuất kho hàng loạt
+     * POST /api/materials/export/batch
+     */
+    @PostMapping("/materials/export/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public ResponseEntity<ApiResponse<BatchResultDTO>> exportMaterials(@Valid @RequestBody BatchExportRequest request) {
+        try {
+            BatchResultDTO result = transactionService.exportMaterials(request.getItems());
+            return ResponseEntity.ok(ApiResponse.success("Xuất kho hàng loạt hoàn tất", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Lỗi khi xuất kho hàng loạt: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 5.8 Xem lịch sử nhập – xuất kho (phân trang theo cursor)
+     * GET /api/transactions?startDate=&endDate=&type=&materialId=&employeeId=&cursor=&size=
      */
     @GetMapping("/transactions")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
-    public ResponseEntity<ApiResponse<List<Transaction>>> getTransactionHistory(
+    public ResponseEntity<ApiResponse<CursorPageDTO<TransactionSummaryDTO>>> getTransactionHistory(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) Long materialId,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Transaction> transactions = transactionService.getTransactionHistory(startDate, endDate);
-            return ResponseEntity.ok(ApiResponse.success("Lấy lịch sử giao dịch thành công", transactions));
+            CursorPageDTO<TransactionSummaryDTO> page = transactionService.getTransactionHistory(
+                    startDate, endDate, type, materialId, employeeId, cursor, size);
+            return ResponseEntity.ok(ApiResponse.success("Lấy lịch sử giao dịch thành công", page));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Lỗi khi lấy lịch sử: " + e.getMessage()));
         }
     }
 
+    /**
+     * Xuất sổ giao dịch (ghi trực tiếp ra response, không dựng danh sách trong bộ nhớ)
+     * GET /api/transactions/export?format=csv|ndjson&startDate=&endDate=&type=&materialId=
+     */
+    @GetMapping("/transactions/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
+    public void exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestParam(required = false) Long materialId,
+            HttpServletResponse response) throws IOException {
+        String normalized;
+        try {
+            normalized = transactionExportService.normalizeFormat(format);
+        } catch (Exception e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Lỗi khi xuất sổ giao dịch: " + e.getMessage()));
+            return;
+        }
+
+        boolean csv = TransactionExportService.FORMAT_CSV.equals(normalized);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transactions." + normalized + "\"");
+        transactionExportService.export(normalized, type, materialId, startDate, endDate, response.getOutputStream());
+    }
+
     /**
      * Xem lịch sử giao dịch theo nguyên liệu
      * GET /api/transactions/material/{materialId}
      */
     @GetMapping("/transactions/material/{materialId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_STAFF')")
-    public ResponseEntity<ApiResponse<List<Transaction>>> getTransactionHistoryByMaterial(@PathVariable Long materialId) {
+    public ResponseEntity<ApiResponse<List<TransactionSummaryDTO>>> getTransactionHistoryByMaterial(@PathVariable Long materialId) {
         try {
-            List<Transaction> transactions = transactionService.getTransactionHistoryByMaterial(materialId);
+            List<TransactionSummaryDTO> transactions = transactionService.getTransactionHistoryByMaterial(materialId);
             return ResponseEntity.ok(ApiResponse.success("Lấy lịch sử giao dịch thành công", transactions));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
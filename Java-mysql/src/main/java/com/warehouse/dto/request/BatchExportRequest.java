@@ -0,0 +1,24 @@
+package com.warehouse.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho yêu cầu xuất kho hàng loạt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchExportRequest {
+
+    @NotEmpty(message = "Danh sách xuất kho không được để trống")
+    @Size(max = 1000, message = "Tối đa 1000 dòng mỗi lần xuất")
+    @Valid
+    private List<ExportRequest> items;
+}
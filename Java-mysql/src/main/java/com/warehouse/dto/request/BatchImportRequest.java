@@ -0,0 +1,24 @@
+package com.warehouse.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho yêu cầu nhập kho hàng loạt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchImportRequest {
+
+    @NotEmpty(message = "Danh sách nhập kho không được để trống")
+    @Size(max = 1000, message = "Tối đa 1000 dòng mỗi lần nhập")
+    @Valid
+    private List<ImportRequest> items;
+}
@@ -0,0 +1,28 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO cho kết quả xử lý từng dòng trong lô nhập / xuất kho
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLineResult {
+
+    private Integer line; // Vị trí dòng trong lô (bắt đầu từ 0)
+    private Long materialId;
+    private Boolean success;
+    private String transactionCode;
+    private String message;
+
+    public static BatchLineResult success(int line, Long materialId, String transactionCode) {
+        return new BatchLineResult(line, materialId, true, transactionCode, "Thành công");
+    }
+
+    public static BatchLineResult error(int line, Long materialId, String message) {
+        return new BatchLineResult(line, materialId, false, null, message);
+    }
+}
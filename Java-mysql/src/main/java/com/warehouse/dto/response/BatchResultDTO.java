@@ -0,0 +1,26 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho kết quả nhập / xuất kho hàng loạt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private List<BatchLineResult> lines;
+
+    public static BatchResultDTO of(List<BatchLineResult> lines) {
+        int succeeded = (int) lines.stream().filter(BatchLineResult::getSuccess).count();
+        return new BatchResultDTO(lines.size(), succeeded, lines.size() - succeeded, lines);
+    }
+}
@@ -0,0 +1,23 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO cho thống kê cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private Boolean enabled;
+    private Integer size;
+    private Integer maxSize;
+    private Long ttlSeconds;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRate;
+}
@@ -0,0 +1,23 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Thay đổi được đẩy tới client qua Server-Sent Events
+ * entity: material | request | transaction | resync
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    private String entity;
+    private String action;
+    private Long id;
+    private Map<String, Object> data;
+    private LocalDateTime timestamp;
+}
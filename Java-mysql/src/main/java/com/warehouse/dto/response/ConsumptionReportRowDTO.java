@@ -0,0 +1,29 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO cho một dòng báo cáo tiêu thụ: nhập / xuất của một nguyên liệu trong một kỳ
+ * period: ngày đầu kỳ (ngày, thứ Hai đầu tuần hoặc ngày 1 của tháng)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumptionReportRowDTO {
+    private LocalDate period;
+    private Long materialId;
+    private String materialCode;
+    private String materialName;
+    private String unit;
+    private BigDecimal importQuantity;
+    private BigDecimal importValue;
+    private Long importCount;
+    private BigDecimal exportQuantity;
+    private BigDecimal exportValue;
+    private Long exportCount;
+}
@@ -0,0 +1,22 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho một trang kết quả phân trang theo cursor
+ * nextCursor = null khi đã hết dữ liệu
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+    private Integer size;
+    private Boolean hasMore;
+    private String nextCursor;
+}
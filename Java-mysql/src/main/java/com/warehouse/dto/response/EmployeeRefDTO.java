@@ -0,0 +1,21 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thông tin rút gọn của nhân viên trong các DTO danh sách (không kèm mật khẩu, email)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeRefDTO {
+    private Long id;
+    private String username;
+    private String fullName;
+
+    static EmployeeRefDTO of(Long id, String username, String fullName) {
+        return id != null ? new EmployeeRefDTO(id, username, fullName) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO cho dự báo tiêu thụ và điểm đặt hàng lại của nguyên liệu
+ * daysOfCover: số ngày tồn kho hiện tại còn đáp ứng được (null = chưa có tiêu thụ)
+ * reorderPoint: max(minQuantity, tiêu thụ / ngày x (thời gian chờ hàng + ngày dự phòng))
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialForecastDTO {
+    private Long materialId;
+    private String materialCode;
+    private String materialName;
+    private String unit;
+    private BigDecimal quantity;
+    private BigDecimal minQuantity;
+    private BigDecimal dailyConsumption;
+    private BigDecimal daysOfCover;
+    private BigDecimal reorderPoint;
+    private boolean needsReorder;
+    private BigDecimal suggestedQuantity;
+}
@@ -0,0 +1,19 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Tổng thay đổi tồn kho (nhập - xuất) của một nguyên liệu trong một khoảng thời gian
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialNetChangeDTO {
+    private Long materialId;
+    private BigDecimal netQuantity;
+    private Long transactionCount;
+}
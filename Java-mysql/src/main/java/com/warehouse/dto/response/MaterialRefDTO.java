@@ -0,0 +1,18 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thông tin rút gọn của nguyên liệu trong các DTO danh sách
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialRefDTO {
+    private Long id;
+    private String code;
+    private String name;
+    private String unit;
+}
@@ -0,0 +1,53 @@
+package com.warehouse.dto.response;
+
+import com.warehouse.entity.MaterialRequest;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho danh sách yêu cầu bổ sung nguyên liệu
+ * Được tạo bằng constructor expression trong JPQL (một truy vấn JOIN cho cả danh sách),
+ * giữ cấu trúc JSON lồng nhau như entity: material, requester, approver.
+ */
+@Data
+@NoArgsConstructor
+public class MaterialRequestSummaryDTO {
+
+    private Long id;
+    private String requestCode;
+    private BigDecimal requestedQuantity;
+    private String unit;
+    private MaterialRequest.RequestStatus status;
+    private String reason;
+    private String note;
+    private LocalDateTime approvedAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private MaterialRefDTO material;
+    private EmployeeRefDTO requester;
+    private EmployeeRefDTO approver;
+
+    public MaterialRequestSummaryDTO(Long id, String requestCode, BigDecimal requestedQuantity, String unit,
+                                     MaterialRequest.RequestStatus status, String reason, String note,
+                                     LocalDateTime approvedAt, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                     Long materialId, String materialCode, String materialName, String materialUnit,
+                                     Long requesterId, String requesterUsername, String requesterFullName,
+                                     Long approverId, String approverUsername, String approverFullName) {
+        this.id = id;
+        this.requestCode = requestCode;
+        this.requestedQuantity = requestedQuantity;
+        this.unit = unit;
+        this.status = status;
+        this.reason = reason;
+        this.note = note;
+        this.approvedAt = approvedAt;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.material = new MaterialRefDTO(materialId, materialCode, materialName, materialUnit);
+        this.requester = EmployeeRefDTO.of(requesterId, requesterUsername, requesterFullName);
+        this.approver = EmployeeRefDTO.of(approverId, approverUsername, approverFullName);
+    }
+}
@@ -26,4 +26,7 @@ public class MaterialWarningDTO {
     private Material.Status status;
     private String warningType; // LOW_STOCK, EXPIRING_SOON, EXPIRED
     private String warningMessage;
+    private Long lotId; // Lô bị cảnh báo hạn dùng (null với LOW_STOCK hoặc nguyên liệu chưa quản lý theo lô)
+    private String lotCode;
+    private BigDecimal lotQuantity; // Số lượng còn lại của lô
 }
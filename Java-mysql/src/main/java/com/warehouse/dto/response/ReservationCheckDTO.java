@@ -0,0 +1,27 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Đối chiếu hàng đang giữ của một nguyên liệu
+ * reservedQuantity = bộ đếm trên nguyên liệu, heldByRequests = tổng phần giữ của các yêu cầu đã duyệt
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCheckDTO {
+    private Long materialId;
+    private String materialCode;
+    private String materialName;
+    private BigDecimal quantity;
+    private BigDecimal reservedQuantity;
+    private BigDecimal heldByRequests;
+
+    public boolean isConsistent() {
+        return reservedQuantity.compareTo(heldByRequests) == 0 && quantity.compareTo(reservedQuantity) >= 0;
+    }
+}
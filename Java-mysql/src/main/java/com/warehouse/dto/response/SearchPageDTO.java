@@ -0,0 +1,23 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO cho một trang kết quả tìm kiếm (đã xếp hạng)
+ * total = tổng số kết quả khớp, page bắt đầu từ 0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPageDTO<T> {
+
+    private List<T> items;
+    private Integer total;
+    private Integer page;
+    private Integer size;
+    private Boolean hasMore;
+}
@@ -0,0 +1,27 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO cho tồn kho của nguyên liệu tại cuối một ngày trong quá khứ
+ * baseSnapshotDate: ảnh chụp được dùng làm điểm xuất phát (null = tính ngược từ tồn kho hiện tại)
+ * replayedTransactions: số giao dịch đã áp dụng kể từ điểm xuất phát
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAsOfDTO {
+    private Long materialId;
+    private String materialCode;
+    private String materialName;
+    private String unit;
+    private LocalDate asOfDate;
+    private BigDecimal quantity;
+    private LocalDate baseSnapshotDate;
+    private Long replayedTransactions;
+}
@@ -0,0 +1,21 @@
+package com.warehouse.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO cho báo cáo giá trị nhập kho theo nhà cung cấp
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierImportReportDTO {
+    private Long supplierId;
+    private String supplierName;
+    private BigDecimal importQuantity;
+    private BigDecimal importValue;
+    private Long importCount;
+}
@@ -0,0 +1,34 @@
+package com.warehouse.dto.response;
+
+import com.warehouse.entity.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho một dòng xuất sổ giao dịch (CSV / NDJSON)
+ * Được tạo trực tiếp bằng constructor expression trong JPQL, không nạp entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionExportRow {
+
+    private Long id;
+    private String transactionCode;
+    private LocalDateTime transactionDate;
+    private Transaction.TransactionType type;
+    private String materialCode;
+    private String materialName;
+    private BigDecimal quantity;
+    private String unit;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private String supplierName;
+    private String employeeUsername;
+    private String requestCode;
+    private String note;
+}
@@ -0,0 +1,62 @@
+package com.warehouse.dto.response;
+
+import com.warehouse.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO cho danh sách giao dịch
+ * Được tạo bằng constructor expression trong JPQL (một truy vấn JOIN cho cả trang),
+ * giữ cấu trúc JSON lồng nhau như entity: material, supplier, employee, request.
+ */
+@Data
+@NoArgsConstructor
+public class TransactionSummaryDTO {
+
+    private Long id;
+    private String transactionCode;
+    private Transaction.TransactionType type;
+    private BigDecimal quantity;
+    private String unit;
+    private BigDecimal unitPrice;
+    private BigDecimal totalPrice;
+    private String note;
+    private LocalDateTime transactionDate;
+    private LocalDateTime createdAt;
+    private MaterialRefDTO material;
+    private SupplierRef supplier;
+    private EmployeeRefDTO employee;
+    private RequestRef request;
+
+    public TransactionSummaryDTO(Long id, String transactionCode, Transaction.TransactionType type,
+                                 BigDecimal quantity, String unit, BigDecimal unitPrice, BigDecimal totalPrice,
+                                 String note, LocalDateTime transactionDate, LocalDateTime createdAt,
+                                 Long materialId, String materialCode, String materialName, String materialUnit,
+                                 Long supplierId, String supplierName,
+                                 Long employeeId, String employeeUsername, String employeeFullName,
+                                 Long requestId, String requestCode) {
+        this.id = id;
+        this.transactionCode = transactionCode;
+        this.type = type;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.unitPrice = unitPrice;
+        this.totalPrice = totalPrice;
+        this.note = note;
+        this.transactionDate = transactionDate;
+        this.createdAt = createdAt;
+        this.material = new MaterialRefDTO(materialId, materialCode, materialName, materialUnit);
+        this.supplier = supplierId != null ? new SupplierRef(supplierId, supplierName) : null;
+        this.employee = EmployeeRefDTO.of(employeeId, employeeUsername, employeeFullName);
+        this.request = requestId != null ? new RequestRef(requestId, requestCode) : null;
+    }
+
+    public record SupplierRef(Long id, String name) {
+    }
+
+    public record RequestRef(Long id, String requestCode) {
+    }
+}
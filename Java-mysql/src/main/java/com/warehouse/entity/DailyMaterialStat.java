@@ -0,0 +1,59 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bảng tổng hợp nhập / xuất theo nguyên liệu và ngày
+ * Được cộng dồn trong cùng transaction với mỗi giao dịch nhập / xuất kho.
+ */
+@Entity
+@Table(name = "daily_material_stats", indexes = {
+        @Index(name = "idx_daily_material_stats_date", columnList = "stat_date")
+})
+@IdClass(DailyMaterialStat.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyMaterialStat {
+
+    @Id
+    @Column(name = "material_id")
+    private Long materialId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal importQuantity;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal importValue;
+
+    @Column(nullable = false)
+    private Integer importCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal exportQuantity;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal exportValue;
+
+    @Column(nullable = false)
+    private Integer exportCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long materialId;
+        private LocalDate statDate;
+    }
+}
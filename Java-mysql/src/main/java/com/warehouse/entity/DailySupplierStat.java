@@ -0,0 +1,50 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bảng tổng hợp giá trị nhập kho theo nhà cung cấp và ngày
+ * Được cộng dồn trong cùng transaction với mỗi giao dịch nhập kho.
+ */
+@Entity
+@Table(name = "daily_supplier_stats", indexes = {
+        @Index(name = "idx_daily_supplier_stats_date", columnList = "stat_date")
+})
+@IdClass(DailySupplierStat.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySupplierStat {
+
+    @Id
+    @Column(name = "supplier_id")
+    private Long supplierId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal importQuantity;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal importValue;
+
+    @Column(nullable = false)
+    private Integer importCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long supplierId;
+        private LocalDate statDate;
+    }
+}
@@ -1,5 +1,6 @@
 package com.warehouse.entity;
 
+import com.warehouse.security.EmployeeChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "employees")
+@EntityListeners(EmployeeChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
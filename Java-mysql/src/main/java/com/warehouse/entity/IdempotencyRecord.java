@@ -0,0 +1,45 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Phản hồi đã lưu của một request có header Idempotency-Key (bảng dùng khi app.idempotency.persistent = true)
+ * Dòng chưa có responseBody là request đang được xử lý.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // SHA-256 của người dùng + đường dẫn + Idempotency-Key
+    @Id
+    @Column(length = 64)
+    private String requestKey;
+
+    // SHA-256 của nội dung request, khóa dùng lại cho nội dung khác bị từ chối
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer statusCode;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -1,10 +1,12 @@
 package com.warehouse.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.warehouse.cache.SearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,7 +16,11 @@ import java.time.LocalDateTime;
  * Entity cho Nguyên liệu trong kho
  */
 @Entity
-@Table(name = "materials")
+@Table(name = "materials", indexes = {
+        @Index(name = "idx_materials_expiry_date", columnList = "expiry_date")
+})
+@EntityListeners(SearchIndexListener.class)
+@DynamicUpdate // Chỉ ghi các cột thay đổi, tránh ghi đè quantity đã được cập nhật nguyên tử
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +42,10 @@ public class Material {
     @Column(nullable = false)
     private BigDecimal quantity;
 
+    // Số lượng đang được giữ cho các yêu cầu đã phê duyệt (tồn kho khả dụng = quantity - reservedQuantity)
+    @Column(nullable = false, columnDefinition = "DECIMAL(10,2) DEFAULT 0")
+    private BigDecimal reservedQuantity = BigDecimal.ZERO;
+
     @Column(nullable = false)
     private String unit; // kg, lít, cái, hộp, etc.
 
@@ -73,6 +83,14 @@ public class Material {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Tồn kho có thể xuất cho yêu cầu mới (chưa bị giữ cho yêu cầu đã duyệt)
+     */
+    public BigDecimal getAvailableQuantity() {
+        BigDecimal reserved = reservedQuantity != null ? reservedQuantity : BigDecimal.ZERO;
+        return quantity != null ? quantity.subtract(reserved).max(BigDecimal.ZERO) : BigDecimal.ZERO;
+    }
+
     public enum Status {
         AVAILABLE,      // Còn hàng
         LOW_STOCK,      // Sắp hết
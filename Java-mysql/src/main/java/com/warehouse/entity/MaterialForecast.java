@@ -0,0 +1,45 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Trạng thái dự báo tiêu thụ của một nguyên liệu (làm trơn hàm mũ theo ngày)
+ * - smoothedRate: mức tiêu thụ trung bình / ngày tính đến hết ngày trước lastDate
+ * - lastDate, lastQuantity: ngày xuất kho gần nhất và tổng lượng xuất của ngày đó (chưa gộp vào smoothedRate)
+ * Mỗi giao dịch xuất kho chỉ cập nhật dòng này, không cần quét lại lịch sử.
+ */
+@Entity
+@Table(name = "material_forecasts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialForecast {
+
+    @Id
+    @Column(name = "material_id")
+    private Long materialId;
+
+    @Column(precision = 14, scale = 4)
+    private BigDecimal smoothedRate; // null = chưa có ngày nào hoàn tất
+
+    @Column(nullable = false)
+    private LocalDate lastDate;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal lastQuantity;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
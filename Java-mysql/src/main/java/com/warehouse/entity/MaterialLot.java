@@ -0,0 +1,55 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lô nguyên liệu: mỗi lần nhập kho tạo một lô với số lượng và hạn dùng riêng
+ * Xuất kho trừ dần vào các lô theo thứ tự hết hạn trước xuất trước (FEFO).
+ */
+@Entity
+@Table(name = "material_lots", indexes = {
+        @Index(name = "idx_material_lots_fefo", columnList = "material_id, expiry_date, id"),
+        @Index(name = "idx_material_lots_expiry_date", columnList = "expiry_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterialLot {
+
+    // Bảng sinh ID theo khối để các lô của một lần nhập hàng loạt được INSERT theo lô JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "material_lot_id_gen")
+    @TableGenerator(
+            name = "material_lot_id_gen",
+            table = "id_generators",
+            pkColumnName = "gen_name",
+            valueColumnName = "gen_value",
+            pkColumnValue = "material_lots",
+            allocationSize = 50
+    )
+    private Long id;
+
+    @Column(name = "material_id", nullable = false)
+    private Long materialId;
+
+    @Column(nullable = false)
+    private String lotCode; // Mã giao dịch nhập kho tạo ra lô
+
+    private LocalDate expiryDate; // null = không có hạn dùng, xuất sau cùng
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal receivedQuantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal remainingQuantity;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+}
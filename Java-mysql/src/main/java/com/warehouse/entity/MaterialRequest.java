@@ -1,5 +1,6 @@
 package com.warehouse.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -13,7 +14,11 @@ import java.time.LocalDateTime;
  * Entity cho Yêu cầu bổ sung nguyên liệu
  */
 @Entity
-@Table(name = "material_requests")
+@Table(name = "material_requests", indexes = {
+        @Index(name = "idx_material_requests_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_material_requests_status_approved", columnList = "status, approved_at"),
+        @Index(name = "idx_material_requests_material_status", columnList = "material_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,6 +33,7 @@ public class MaterialRequest {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "material_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Material material;
 
     @Column(nullable = false)
@@ -58,6 +64,12 @@ public class MaterialRequest {
 
     private LocalDateTime approvedAt;
 
+    private BigDecimal reservedQuantity; // Số lượng đã giữ trong kho khi phê duyệt (trả lại khi xuất kho)
+
+    @JsonIgnore
+    @Column(length = 100)
+    private String decisionKey; // Idempotency-Key của lần phê duyệt / từ chối
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
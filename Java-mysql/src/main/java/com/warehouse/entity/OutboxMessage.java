@@ -0,0 +1,82 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Việc cần làm tiếp sau một thay đổi (thông báo, xử lý hậu kỳ...), được ghi trong cùng
+ * transaction với thay đổi và được xử lý bất đồng bộ, có thử lại, sau khi commit.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_messages_due", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Khóa chống trùng: mỗi việc (loại + đối tượng) chỉ được ghi một lần
+    @Column(nullable = false, unique = true, length = 100)
+    private String messageKey;
+
+    @Column(nullable = false, length = 40)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // Thời điểm được xử lý tiếp (PENDING) hoặc hết hạn giữ việc (PROCESSING)
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (status == null) {
+            status = Status.PENDING;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    public enum Type {
+        REQUEST_APPROVED,   // Yêu cầu bổ sung được phê duyệt
+        REQUEST_REJECTED    // Yêu cầu bổ sung bị từ chối
+    }
+
+    public enum Status {
+        PENDING,     // Chờ xử lý / chờ thử lại
+        PROCESSING,  // Đang được xử lý
+        DONE,        // Đã xử lý xong
+        FAILED       // Hết số lần thử
+    }
+}
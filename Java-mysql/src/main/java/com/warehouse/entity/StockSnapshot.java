@@ -0,0 +1,44 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ảnh chụp tồn kho cuối ngày của một nguyên liệu
+ * Dùng làm điểm xuất phát khi tính tồn kho tại một ngày trong quá khứ.
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+        @Index(name = "idx_stock_snapshots_date", columnList = "snapshot_date")
+})
+@IdClass(StockSnapshot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @Column(name = "material_id")
+    private Long materialId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long materialId;
+        private LocalDate snapshotDate;
+    }
+}
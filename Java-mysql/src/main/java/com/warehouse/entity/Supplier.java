@@ -1,6 +1,8 @@
 package com.warehouse.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.warehouse.cache.SearchIndexListener;
+import com.warehouse.cache.SupplierChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "suppliers")
+@EntityListeners({SearchIndexListener.class, SupplierChangeListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
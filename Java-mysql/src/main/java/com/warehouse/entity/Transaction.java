@@ -13,14 +13,28 @@ import java.time.LocalDateTime;
  * Entity cho Giao dịch nhập - xuất kho
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date_id", columnList = "transaction_date, id"),
+        @Index(name = "idx_transactions_type_date", columnList = "type, transaction_date, id"),
+        @Index(name = "idx_transactions_material_date", columnList = "material_id, transaction_date, id"),
+        @Index(name = "idx_transactions_employee_date", columnList = "employee_id, transaction_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    // Dùng bảng sinh ID (cấp phát theo khối) thay cho IDENTITY để Hibernate gom lệnh INSERT theo lô
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id_gen")
+    @TableGenerator(
+            name = "transaction_id_gen",
+            table = "id_generators",
+            pkColumnName = "gen_name",
+            valueColumnName = "gen_value",
+            pkColumnValue = "transactions",
+            allocationSize = 50
+    )
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -28,6 +42,7 @@ public class Transaction {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "material_id", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Material material;
 
     @Column(nullable = false)
@@ -0,0 +1,34 @@
+package com.warehouse.event;
+
+import com.warehouse.entity.MaterialRequest;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Sự kiện thay đổi yêu cầu bổ sung nguyên liệu (tạo mới, duyệt, từ chối, hoàn thành)
+ * Được xử lý sau khi transaction commit.
+ */
+@Getter
+public class MaterialRequestEvent {
+
+    public enum Type {
+        CREATED, APPROVED, REJECTED, COMPLETED
+    }
+
+    private final Type type;
+    private final Long requestId;
+    private final String requestCode;
+    private final Long materialId;
+    private final BigDecimal requestedQuantity;
+    private final MaterialRequest.RequestStatus status;
+
+    public MaterialRequestEvent(Type type, MaterialRequest request) {
+        this.type = type;
+        this.requestId = request.getId();
+        this.requestCode = request.getRequestCode();
+        this.materialId = request.getMaterial() != null ? request.getMaterial().getId() : null;
+        this.requestedQuantity = request.getRequestedQuantity();
+        this.status = request.getStatus();
+    }
+}
@@ -0,0 +1,17 @@
+package com.warehouse.event;
+
+import lombok.Getter;
+
+/**
+ * Sự kiện một việc vừa được ghi vào outbox
+ * Được xử lý sau khi commit để đưa việc vào hàng đợi xử lý ngay, không chờ lần quét định kỳ.
+ */
+@Getter
+public class OutboxEnqueuedEvent {
+
+    private final Long messageId;
+
+    public OutboxEnqueuedEvent(Long messageId) {
+        this.messageId = messageId;
+    }
+}
@@ -0,0 +1,59 @@
+package com.warehouse.event;
+
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sự kiện thay đổi tồn kho (nhập / xuất kho, trả lại hàng đang giữ)
+ * Được phát trong transaction và chỉ được xử lý sau khi commit (@TransactionalEventListener).
+ * Mang ảnh chụp nguyên liệu và các lô còn hàng có hạn dùng tại thời điểm phát (đang giữ khóa dòng), cùng số thứ tự tăng dần
+ * để bên nhận bỏ qua sự kiện đến muộn của cùng một nguyên liệu.
+ */
+@Getter
+public class StockEvent {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    public enum Type {
+        IMPORT, EXPORT,
+        RELEASE // Trả lại phần hàng giữ cho yêu cầu (tồn kho khả dụng tăng)
+    }
+
+    private final Type type;
+    private final Long materialId;
+    private final Material material;
+    private final List<MaterialLot> lots;
+    private final long sequence;
+
+    public StockEvent(Type type, Material material, List<MaterialLot> openLots) {
+        this.type = type;
+        this.materialId = material.getId();
+        this.material = snapshot(material);
+        this.lots = openLots.stream()
+                .filter(lot -> lot.getExpiryDate() != null)
+                .map(lot -> new MaterialLot(lot.getId(), lot.getMaterialId(), lot.getLotCode(), lot.getExpiryDate(),
+                        lot.getReceivedQuantity(), lot.getRemainingQuantity(), lot.getReceivedAt()))
+                .toList();
+        this.sequence = SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * Bản sao các trường dùng cho cảnh báo (không kèm nhà cung cấp)
+     */
+    private static Material snapshot(Material material) {
+        Material copy = new Material();
+        copy.setId(material.getId());
+        copy.setCode(material.getCode());
+        copy.setName(material.getName());
+        copy.setQuantity(material.getQuantity());
+        copy.setUnit(material.getUnit());
+        copy.setMinQuantity(material.getMinQuantity());
+        copy.setExpiryDate(material.getExpiryDate());
+        copy.setStatus(material.getStatus());
+        return copy;
+    }
+}
@@ -0,0 +1,31 @@
+package com.warehouse.event;
+
+import com.warehouse.entity.Transaction;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sự kiện giao dịch nhập / xuất kho mới
+ * Được xử lý sau khi transaction commit.
+ */
+@Getter
+public class TransactionEvent {
+
+    private final Long transactionId;
+    private final String transactionCode;
+    private final Transaction.TransactionType type;
+    private final Long materialId;
+    private final BigDecimal quantity;
+    private final LocalDateTime transactionDate;
+
+    public TransactionEvent(Transaction transaction) {
+        this.transactionId = transaction.getId();
+        this.transactionCode = transaction.getTransactionCode();
+        this.type = transaction.getType();
+        this.materialId = transaction.getMaterial().getId();
+        this.quantity = transaction.getQuantity();
+        this.transactionDate = transaction.getTransactionDate();
+    }
+}
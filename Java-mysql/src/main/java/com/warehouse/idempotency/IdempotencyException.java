@@ -0,0 +1,20 @@
+package com.warehouse.idempotency;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Request có Idempotency-Key không được xử lý: khóa dùng cho nội dung khác hoặc lần chạy trước chưa xong
+ */
+public class IdempotencyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,191 @@
+package com.warehouse.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.dto.response.ApiResponse;
+import com.warehouse.security.EmployeePrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Chống xử lý lặp cho các POST nhập / xuất kho (từng dòng và hàng loạt) có header Idempotency-Key
+ * Khóa được tính theo người dùng + đường dẫn; gửi lại cùng khóa và cùng nội dung nhận lại phản hồi
+ * thành công đầu tiên (header Idempotent-Replayed: true) thay vì tạo giao dịch mới.
+ * Phản hồi lỗi không được lưu, nên có thể gửi lại sau khi sửa lỗi.
+ * Filter chạy sau Spring Security (đã có người dùng) và trước controller.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.paths:/api/materials/import,/api/materials/export,/api/materials/import/batch,/api/materials/export/batch}")
+    private Set<String> paths;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key không hợp lệ (1-100 ký tự)");
+            return;
+        }
+        // Chưa xác thực: để Spring Security / controller từ chối như bình thường
+        Optional<EmployeePrincipal> principal = EmployeePrincipal.current();
+        if (principal.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String key = sha256((principal.get().getId() + "|" + request.getRequestURI() + "|" + idempotencyKey)
+                .getBytes(StandardCharsets.UTF_8));
+        String fingerprint = sha256(cachedRequest.body);
+
+        StoredResponse stored;
+        try {
+            stored = store.begin(key, fingerprint);
+        } catch (IdempotencyException e) {
+            writeError(response, e.getStatus(), e.getMessage());
+            return;
+        }
+        if (stored != null) {
+            response.setStatus(stored.status());
+            response.setContentType(stored.contentType());
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.getOutputStream().write(stored.body());
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+            int status = cachedResponse.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(key, new StoredResponse(status, cachedResponse.getContentType(),
+                        cachedResponse.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.abandon(key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request đọc trước toàn bộ nội dung để tính fingerprint, controller vẫn đọc lại được
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // Nội dung đã nằm sẵn trong bộ nhớ: báo có dữ liệu và đã đọc hết ngay
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
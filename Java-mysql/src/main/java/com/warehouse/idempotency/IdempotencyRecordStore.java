@@ -0,0 +1,71 @@
+package com.warehouse.idempotency;
+
+import com.warehouse.entity.IdempotencyRecord;
+import com.warehouse.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Lưu khóa Idempotency-Key trong DB để request trùng được nhận ra sau khi khởi động lại
+ * hoặc khi chạy nhiều instance. Mỗi thao tác là một transaction ngắn riêng.
+ */
+@Service
+@Transactional
+public class IdempotencyRecordStore {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    /**
+     * Nhận quyền xử lý khóa
+     *
+     * @return phản hồi đã lưu nếu khóa đã được xử lý; null nếu request này được chạy
+     * @throws IdempotencyException khóa dùng cho nội dung khác hoặc đang được xử lý ở nơi khác
+     */
+    public StoredResponse claim(String requestKey, String fingerprint, long ttlSeconds, long inFlightSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.deleteStale(requestKey, now, now.minusSeconds(inFlightSeconds));
+        if (repository.insertIfAbsent(requestKey, fingerprint, now, now.plusSeconds(ttlSeconds)) > 0) {
+            return null;
+        }
+
+        IdempotencyRecord record = repository.findById(requestKey)
+                .orElseThrow(() -> new IdempotencyException(HttpStatus.CONFLICT, "Yêu cầu với Idempotency-Key này đang được xử lý"));
+        if (!record.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key đã được dùng cho một yêu cầu khác");
+        }
+        if (record.getResponseBody() == null) {
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Yêu cầu với Idempotency-Key này đang được xử lý");
+        }
+        return new StoredResponse(record.getStatusCode(), record.getContentType(),
+                record.getResponseBody().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lưu phản hồi thành công của khóa đã nhận
+     */
+    public void complete(String requestKey, StoredResponse response, long ttlSeconds) {
+        repository.findById(requestKey).ifPresent(record -> {
+            record.setStatusCode(response.status());
+            record.setContentType(response.contentType());
+            record.setResponseBody(new String(response.body(), StandardCharsets.UTF_8));
+            record.setExpiresAt(LocalDateTime.now().plusSeconds(ttlSeconds));
+        });
+    }
+
+    /**
+     * Bỏ khóa đã nhận (request thất bại) để lần gửi lại được chạy
+     */
+    public void release(String requestKey) {
+        repository.deleteById(requestKey);
+    }
+
+    public int deleteExpired() {
+        return repository.deleteExpired(LocalDateTime.now());
+    }
+}
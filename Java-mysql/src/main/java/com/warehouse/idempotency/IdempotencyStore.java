@@ -0,0 +1,209 @@
+package com.warehouse.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kho phản hồi theo Idempotency-Key
+ * - Khóa -> phản hồi thành công trong ConcurrentHashMap, hết hạn sau app.idempotency.ttl-seconds
+ *   và giới hạn app.idempotency.max-entries (bỏ các khóa sắp hết hạn nhất khi đầy)
+ * - Request đầu tiên của một khóa được chạy; các request trùng đến trong lúc đó chờ kết quả của nó
+ *   (tối đa wait-seconds) thay vì chạy lần hai. Lần chạy thất bại không được lưu, request trùng đang chờ
+ *   sẽ nhận quyền chạy lại.
+ * - app.idempotency.persistent = true: khóa được ghi thêm vào bảng idempotency_keys (giữ qua khởi động lại,
+ *   dùng chung giữa các instance). Nếu không ghi được phản hồi vào DB, khóa vẫn được giữ trong bộ nhớ đến hết hạn
+ *   (không bị bỏ khi đầy) và được đếm trong getPersistFailures().
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    @Autowired
+    private IdempotencyRecordStore recordStore;
+
+    @Value("${app.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    @Value("${app.idempotency.persistent:false}")
+    private boolean persistent;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong persistFailures = new AtomicLong();
+
+    /**
+     * Bắt đầu xử lý request có khóa
+     *
+     * @return phản hồi đã lưu nếu khóa đã được xử lý thành công; null nếu request này được chạy
+     *         (sau đó phải gọi complete hoặc abandon)
+     * @throws IdempotencyException khóa dùng cho nội dung khác, hoặc lần chạy trước chưa xong sau thời gian chờ
+     */
+    public StoredResponse begin(String key, String fingerprint) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(waitSeconds);
+        while (true) {
+            Entry entry = new Entry(fingerprint);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                return claim(key, entry);
+            }
+            if (existing.expiresAt < System.currentTimeMillis()) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key đã được dùng cho một yêu cầu khác");
+            }
+            StoredResponse stored = await(existing, deadline);
+            if (stored != null) {
+                return stored;
+            }
+        }
+    }
+
+    /**
+     * Lưu phản hồi thành công và trả cho các request trùng đang chờ
+     */
+    public void complete(String key, StoredResponse response) {
+        boolean durable = true;
+        if (persistent) {
+            try {
+                recordStore.complete(key, response, ttlSeconds);
+            } catch (RuntimeException e) {
+                durable = false;
+                persistFailures.incrementAndGet();
+                log.error("Không lưu được phản hồi theo Idempotency-Key {} vào DB, chỉ giữ trong bộ nhớ: {}",
+                        key, e.getMessage());
+            }
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            // Bản trong bộ nhớ là bản duy nhất của phản hồi: không bỏ khi đầy
+            entry.pinned = !durable;
+            entry.expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+            entry.result.complete(response);
+        }
+        if (entries.size() > maxEntries) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Bỏ khóa sau khi request thất bại: lần gửi lại (hoặc request trùng đang chờ) được chạy lại
+     */
+    public void abandon(String key) {
+        Entry entry = entries.remove(key);
+        if (persistent) {
+            try {
+                recordStore.release(key);
+            } catch (RuntimeException e) {
+                log.warn("Không xóa được Idempotency-Key trong DB: {}", e.getMessage());
+            }
+        }
+        if (entry != null) {
+            entry.result.complete(null);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Số lần không ghi được phản hồi vào DB (app.idempotency.persistent = true)
+     */
+    public long getPersistFailures() {
+        return persistFailures.get();
+    }
+
+    /**
+     * Dọn các khóa đã hết hạn
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt < now);
+        if (persistent) {
+            recordStore.deleteExpired();
+        }
+    }
+
+    private StoredResponse claim(String key, Entry entry) {
+        if (!persistent) {
+            return null;
+        }
+        try {
+            StoredResponse stored = recordStore.claim(key, entry.fingerprint, ttlSeconds, waitSeconds);
+            if (stored != null) {
+                entry.expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+                entry.result.complete(stored);
+            }
+            return stored;
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.result.complete(null);
+            throw e;
+        }
+    }
+
+    private StoredResponse await(Entry entry, long deadline) {
+        try {
+            return entry.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Yêu cầu với Idempotency-Key này đang được xử lý");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyException(HttpStatus.CONFLICT, "Yêu cầu với Idempotency-Key này đang được xử lý");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bỏ 1/10 số khóa đã xong sắp hết hạn nhất (khóa đang chạy và khóa chưa ghi được vào DB không bị bỏ)
+     */
+    private synchronized void evictOldest() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        int target = maxEntries - maxEntries / 10;
+        entries.entrySet().stream()
+                .filter(e -> e.getValue().result.isDone() && !e.getValue().pinned)
+                .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt))
+                .limit(Math.max(0, entries.size() - target))
+                .toList()
+                .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        // Đang chạy: không hết hạn
+        private volatile long expiresAt = Long.MAX_VALUE;
+        // Phản hồi chưa ghi được vào DB
+        private volatile boolean pinned;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.warehouse.idempotency;
+
+/**
+ * Phản hồi thành công đã lưu, trả lại nguyên văn cho các request trùng khóa
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,101 @@
+package com.warehouse.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đo thời gian và số lần gọi các phương thức service / repository
+ * - warehouse.service: tag class, method, exception
+ * - warehouse.repository: tag repository, method, exception (số truy vấn = count)
+ * Chỉ tính lời gọi qua proxy (gọi nội bộ trong cùng class không được đo).
+ * Tắt bằng app.metrics.timing.enabled = false.
+ */
+@Aspect
+@Component
+public class TimingAspect {
+
+    static final String SERVICE_TIMER = "warehouse.service";
+    static final String REPOSITORY_TIMER = "warehouse.repository";
+    private static final String NONE = "none";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.metrics.timing.enabled:true}")
+    private boolean enabled;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    // Lớp proxy của repository -> tên interface
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("within(com.warehouse.service..*) && execution(public * *(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return time(joinPoint, SERVICE_TIMER, method.getDeclaringClass().getSimpleName(), method.getName());
+    }
+
+    @Around("this(org.springframework.data.repository.Repository) && execution(public * *(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), TimingAspect::repositoryName);
+        return time(joinPoint, REPOSITORY_TIMER, repository, joinPoint.getSignature().getName());
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String name, String owner, String method) throws Throwable {
+        long start = System.nanoTime();
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(new TimerKey(name, owner, method, exception)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> Timer.builder(k.name())
+                    .tag(SERVICE_TIMER.equals(k.name()) ? "class" : "repository", k.owner())
+                    .tag("method", k.method())
+                    .tag("exception", k.exception())
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    /**
+     * Interface repository của ứng dụng mà proxy cài đặt (vd. MaterialRepository)
+     */
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && type.getName().startsWith("com.warehouse.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+
+    private record TimerKey(String name, String owner, String method, String exception) {
+    }
+}
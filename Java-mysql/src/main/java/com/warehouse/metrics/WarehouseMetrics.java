@@ -0,0 +1,113 @@
+package com.warehouse.metrics;
+
+import com.warehouse.cache.MaterialCache;
+import com.warehouse.entity.Material;
+import com.warehouse.event.MaterialRequestEvent;
+import com.warehouse.event.StockEvent;
+import com.warehouse.event.TransactionEvent;
+import com.warehouse.idempotency.IdempotencyStore;
+import com.warehouse.security.PrincipalCache;
+import com.warehouse.service.ChangeStreamService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics nghiệp vụ và cache
+ * - warehouse.transactions / warehouse.transactions.quantity (tag type): số giao dịch và số lượng nhập / xuất
+ * - warehouse.stockouts: số lần xuất kho làm nguyên liệu hết hàng
+ * - warehouse.requests (tag type): yêu cầu bổ sung tạo / duyệt / từ chối / hoàn thành
+ * - cache.gets (tag cache, result), cache.size, cache.evictions: cache nguyên liệu và cache người dùng
+ * - warehouse.idempotency.entries, warehouse.idempotency.persist.failures, warehouse.stream.clients
+ * Bộ đếm chỉ tăng sau khi transaction commit.
+ */
+@Component
+public class WarehouseMetrics implements MeterBinder {
+
+    @Autowired
+    private MaterialCache materialCache;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheGets(registry, "material", "hit", materialCache, cache -> cache.getStats().getHits());
+        cacheGets(registry, "material", "miss", materialCache, cache -> cache.getStats().getMisses());
+        FunctionCounter.builder("cache.evictions", materialCache, cache -> cache.getStats().getEvictions())
+                .tag("cache", "material")
+                .register(registry);
+        Gauge.builder("cache.size", materialCache, cache -> cache.getStats().getSize())
+                .tag("cache", "material")
+                .register(registry);
+
+        cacheGets(registry, "principal", "hit", principalCache, PrincipalCache::getHits);
+        cacheGets(registry, "principal", "miss", principalCache, PrincipalCache::getMisses);
+        Gauge.builder("cache.size", principalCache, PrincipalCache::size)
+                .tag("cache", "principal")
+                .register(registry);
+
+        Gauge.builder("warehouse.idempotency.entries", idempotencyStore, IdempotencyStore::size)
+                .description("Số Idempotency-Key đang giữ trong bộ nhớ")
+                .register(registry);
+        FunctionCounter.builder("warehouse.idempotency.persist.failures", idempotencyStore,
+                        IdempotencyStore::getPersistFailures)
+                .description("Số phản hồi theo Idempotency-Key không ghi được vào DB")
+                .register(registry);
+        Gauge.builder("warehouse.stream.clients", changeStreamService, ChangeStreamService::getClientCount)
+                .description("Số client SSE đang kết nối")
+                .register(registry);
+        this.registry = registry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionEvent(TransactionEvent event) {
+        MeterRegistry meters = registry;
+        if (meters == null) {
+            return;
+        }
+        String type = event.getType().name();
+        meters.counter("warehouse.transactions", "type", type).increment();
+        meters.counter("warehouse.transactions.quantity", "type", type).increment(event.getQuantity().doubleValue());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockEvent(StockEvent event) {
+        MeterRegistry meters = registry;
+        if (meters != null && event.getType() == StockEvent.Type.EXPORT
+                && event.getMaterial().getStatus() == Material.Status.OUT_OF_STOCK) {
+            meters.counter("warehouse.stockouts").increment();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMaterialRequestEvent(MaterialRequestEvent event) {
+        MeterRegistry meters = registry;
+        if (meters != null) {
+            meters.counter("warehouse.requests", "type", event.getType().name()).increment();
+        }
+    }
+
+    private static <T> void cacheGets(MeterRegistry registry, String cache, String result, T source,
+                                      ToDoubleFunction<T> count) {
+        FunctionCounter.builder("cache.gets", source, count)
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.warehouse.outbox;
+
+import com.warehouse.entity.OutboxMessage;
+
+/**
+ * Bộ xử lý một loại việc trong outbox
+ * Việc được giao ít nhất một lần (có thể lặp lại sau lỗi hoặc khi ứng dụng dừng giữa chừng),
+ * nên bộ xử lý phải cho cùng kết quả khi chạy lại. Ném exception để việc được thử lại.
+ */
+public interface OutboxHandler {
+
+    boolean supports(OutboxMessage.Type type);
+
+    void handle(OutboxMessage message);
+}
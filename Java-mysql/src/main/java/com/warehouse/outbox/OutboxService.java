@@ -0,0 +1,92 @@
+package com.warehouse.outbox;
+
+import com.warehouse.entity.OutboxMessage;
+import com.warehouse.event.OutboxEnqueuedEvent;
+import com.warehouse.repository.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lưu trữ hàng đợi outbox
+ * Việc được ghi trong transaction của thay đổi gốc, nên chỉ tồn tại khi thay đổi đã commit
+ * và không bị mất khi ứng dụng dừng trước khi xử lý. Mọi chuyển trạng thái đều là UPDATE có điều kiện.
+ */
+@Service
+@Transactional
+public class OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Ghi một việc vào outbox (bỏ qua nếu việc cùng loại cho cùng đối tượng đã được ghi)
+     */
+    public void enqueue(OutboxMessage.Type type, Long aggregateId) {
+        String messageKey = type.name() + ":" + aggregateId;
+        // Một câu INSERT IGNORE thay cho kiểm tra rồi ghi: hai transaction cùng khóa không thể cùng qua bước kiểm tra
+        if (outboxRepository.insertIfAbsent(messageKey, type.name(), aggregateId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        eventPublisher.publishEvent(new OutboxEnqueuedEvent(outboxRepository.lastInsertId()));
+    }
+
+    /**
+     * Nhận việc để xử lý
+     *
+     * @return rỗng nếu việc đã được luồng khác nhận, đã xong hoặc chưa đến hạn
+     */
+    public Optional<OutboxMessage> claim(Long id, long leaseSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepository.claim(id, now, now.plusSeconds(leaseSeconds)) == 0) {
+            return Optional.empty();
+        }
+        return outboxRepository.findById(id);
+    }
+
+    public void complete(Long id) {
+        outboxRepository.markDone(id, LocalDateTime.now());
+    }
+
+    /**
+     * Ghi nhận lần xử lý lỗi: hẹn thử lại sau backoffMs * 2^(attempts - 1), hoặc FAILED khi hết số lần thử
+     *
+     * @return true nếu việc sẽ được thử lại
+     */
+    public boolean fail(OutboxMessage message, String error, long backoffMs, int maxAttempts) {
+        boolean retry = message.getAttempts() < maxAttempts;
+        long delayMs = backoffMs << Math.min(message.getAttempts() - 1, 20);
+        String trimmed = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        outboxRepository.markAttemptFailed(message.getId(),
+                retry ? OutboxMessage.Status.PENDING : OutboxMessage.Status.FAILED,
+                LocalDateTime.now().plusNanos(delayMs * 1_000_000), trimmed);
+        return retry;
+    }
+
+    /**
+     * Trả lại việc bị giữ quá hạn rồi lấy các việc đến hạn
+     */
+    public List<Long> findDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.releaseExpiredLeases(now);
+        return outboxRepository.findDueIds(now, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Xóa các việc đã xong trước một thời điểm
+     */
+    public int deleteDoneBefore(LocalDateTime before) {
+        return outboxRepository.deleteDoneBefore(before);
+    }
+}
@@ -0,0 +1,132 @@
+package com.warehouse.outbox;
+
+import com.warehouse.entity.OutboxMessage;
+import com.warehouse.event.OutboxEnqueuedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Xử lý bất đồng bộ hàng đợi outbox trên một pool luồng riêng
+ * - Việc vừa commit được đưa vào pool ngay; lần quét định kỳ (app.outbox.poll-ms) nhặt các việc
+ *   đến hạn thử lại, việc bị giữ quá hạn và việc còn lại từ lần chạy trước
+ * - Mỗi việc được nhận bằng UPDATE có điều kiện nên không bao giờ chạy song song hai lần
+ * - Lỗi được thử lại với thời gian chờ tăng gấp đôi, tối đa app.outbox.max-attempts lần
+ */
+@Component
+public class OutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxWorker.class);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private List<OutboxHandler> handlers;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.backoff-ms:1000}")
+    private long backoffMs;
+
+    @Value("${app.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    // Các việc đang nằm trong pool, tránh đưa cùng một việc vào nhiều lần
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService workers = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "outbox-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEnqueued(OutboxEnqueuedEvent event) {
+        submit(event.getMessageId());
+    }
+
+    /**
+     * Quét các việc đến hạn
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-ms:5000}")
+    public void poll() {
+        outboxService.findDue(batchSize).forEach(this::submit);
+    }
+
+    /**
+     * Dọn các việc đã xong quá thời gian lưu
+     */
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 40 0 * * *}")
+    public void cleanup() {
+        int deleted = outboxService.deleteDoneBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Đã xóa {} việc outbox đã xử lý", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void submit(Long id) {
+        if (!queued.add(id)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    queued.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(id);
+        }
+    }
+
+    private void process(Long id) {
+        OutboxMessage message = outboxService.claim(id, leaseSeconds).orElse(null);
+        if (message == null) {
+            return;
+        }
+        try {
+            for (OutboxHandler handler : handlers) {
+                if (handler.supports(message.getType())) {
+                    handler.handle(message);
+                }
+            }
+            outboxService.complete(id);
+        } catch (RuntimeException e) {
+            boolean retry = outboxService.fail(message, e.getMessage(), backoffMs, maxAttempts);
+            if (retry) {
+                log.warn("Xử lý outbox {} lỗi (lần {}), sẽ thử lại: {}", message.getMessageKey(), message.getAttempts(), e.getMessage());
+            } else {
+                log.error("Xử lý outbox {} lỗi sau {} lần thử, dừng thử lại: {}", message.getMessageKey(), message.getAttempts(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.warehouse.outbox;
+
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.entity.OutboxMessage;
+import com.warehouse.event.MaterialRequestEvent;
+import com.warehouse.repository.MaterialRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thông báo kết quả phê duyệt / từ chối yêu cầu bổ sung tới client (qua kênh thay đổi SSE)
+ */
+@Component
+public class RequestNotificationHandler implements OutboxHandler {
+
+    @Autowired
+    private MaterialRequestRepository requestRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public boolean supports(OutboxMessage.Type type) {
+        return type == OutboxMessage.Type.REQUEST_APPROVED || type == OutboxMessage.Type.REQUEST_REJECTED;
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        MaterialRequest request = requestRepository.findById(message.getAggregateId())
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy yêu cầu với ID: " + message.getAggregateId()));
+        MaterialRequestEvent.Type type = message.getType() == OutboxMessage.Type.REQUEST_APPROVED
+                ? MaterialRequestEvent.Type.APPROVED : MaterialRequestEvent.Type.REJECTED;
+        eventPublisher.publishEvent(new MaterialRequestEvent(type, request));
+    }
+}
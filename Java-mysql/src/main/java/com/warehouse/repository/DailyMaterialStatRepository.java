@@ -0,0 +1,67 @@
+package com.warehouse.repository;
+
+import com.warehouse.dto.response.ConsumptionReportRowDTO;
+import com.warehouse.entity.DailyMaterialStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository cho bảng tổng hợp nhập / xuất theo nguyên liệu và ngày
+ */
+@Repository
+public interface DailyMaterialStatRepository extends JpaRepository<DailyMaterialStat, DailyMaterialStat.Key> {
+
+    // Cộng dồn vào dòng (nguyên liệu, ngày), tạo mới nếu chưa có
+    @Modifying
+    @Query(value = "INSERT INTO daily_material_stats (material_id, stat_date, import_quantity, import_value, import_count, " +
+                   "export_quantity, export_value, export_count) " +
+                   "VALUES (:materialId, :statDate, :importQuantity, :importValue, :importCount, " +
+                   ":exportQuantity, :exportValue, :exportCount) " +
+                   "ON DUPLICATE KEY UPDATE import_quantity = import_quantity + :importQuantity, " +
+                   "import_value = import_value + :importValue, import_count = import_count + :importCount, " +
+                   "export_quantity = export_quantity + :exportQuantity, " +
+                   "export_value = export_value + :exportValue, export_count = export_count + :exportCount",
+           nativeQuery = true)
+    void add(Long materialId, LocalDate statDate,
+             BigDecimal importQuantity, BigDecimal importValue, int importCount,
+             BigDecimal exportQuantity, BigDecimal exportValue, int exportCount);
+
+    // Số liệu theo ngày trong khoảng [startDate, endDate]
+    @Query("SELECT new com.warehouse.dto.response.ConsumptionReportRowDTO(" +
+           "s.statDate, m.id, m.code, m.name, m.unit, s.importQuantity, s.importValue, CAST(s.importCount AS Long), " +
+           "s.exportQuantity, s.exportValue, CAST(s.exportCount AS Long)) " +
+           "FROM DailyMaterialStat s JOIN Material m ON m.id = s.materialId " +
+           "WHERE s.statDate BETWEEN :startDate AND :endDate " +
+           "AND (:materialId IS NULL OR s.materialId = :materialId) " +
+           "ORDER BY s.statDate, m.id")
+    List<ConsumptionReportRowDTO> findDaily(LocalDate startDate, LocalDate endDate, Long materialId);
+
+    // Các ngày có xuất kho, theo nguyên liệu rồi theo ngày (dựng lại dự báo tiêu thụ)
+    @Query("SELECT s FROM DailyMaterialStat s WHERE s.exportQuantity > 0 ORDER BY s.materialId, s.statDate")
+    List<DailyMaterialStat> findExportDays();
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_material_stats", nativeQuery = true)
+    void deleteAllRows();
+
+    // Tính lại toàn bộ bảng tổng hợp từ sổ giao dịch
+    @Modifying
+    @Query(value = "INSERT INTO daily_material_stats (material_id, stat_date, import_quantity, import_value, import_count, " +
+                   "export_quantity, export_value, export_count) " +
+                   "SELECT material_id, CAST(transaction_date AS DATE), " +
+                   "SUM(CASE WHEN type = 'IMPORT' THEN quantity ELSE 0 END), " +
+                   "SUM(CASE WHEN type = 'IMPORT' THEN COALESCE(total_price, 0) ELSE 0 END), " +
+                   "SUM(CASE WHEN type = 'IMPORT' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN type = 'EXPORT' THEN quantity ELSE 0 END), " +
+                   "SUM(CASE WHEN type = 'EXPORT' THEN COALESCE(total_price, 0) ELSE 0 END), " +
+                   "SUM(CASE WHEN type = 'EXPORT' THEN 1 ELSE 0 END) " +
+                   "FROM transactions GROUP BY material_id, CAST(transaction_date AS DATE)",
+           nativeQuery = true)
+    int rebuildFromTransactions();
+}
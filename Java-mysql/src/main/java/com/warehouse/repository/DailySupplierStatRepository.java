@@ -0,0 +1,49 @@
+package com.warehouse.repository;
+
+import com.warehouse.dto.response.SupplierImportReportDTO;
+import com.warehouse.entity.DailySupplierStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository cho bảng tổng hợp nhập kho theo nhà cung cấp và ngày
+ */
+@Repository
+public interface DailySupplierStatRepository extends JpaRepository<DailySupplierStat, DailySupplierStat.Key> {
+
+    // Cộng dồn vào dòng (nhà cung cấp, ngày), tạo mới nếu chưa có
+    @Modifying
+    @Query(value = "INSERT INTO daily_supplier_stats (supplier_id, stat_date, import_quantity, import_value, import_count) " +
+                   "VALUES (:supplierId, :statDate, :importQuantity, :importValue, :importCount) " +
+                   "ON DUPLICATE KEY UPDATE import_quantity = import_quantity + :importQuantity, " +
+                   "import_value = import_value + :importValue, import_count = import_count + :importCount",
+           nativeQuery = true)
+    void add(Long supplierId, LocalDate statDate, BigDecimal importQuantity, BigDecimal importValue, int importCount);
+
+    // Tổng giá trị nhập theo nhà cung cấp trong khoảng [startDate, endDate]
+    @Query("SELECT new com.warehouse.dto.response.SupplierImportReportDTO(" +
+           "sp.id, sp.name, SUM(s.importQuantity), SUM(s.importValue), SUM(s.importCount)) " +
+           "FROM DailySupplierStat s JOIN Supplier sp ON sp.id = s.supplierId " +
+           "WHERE s.statDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY sp.id, sp.name ORDER BY SUM(s.importValue) DESC")
+    List<SupplierImportReportDTO> sumBySupplier(LocalDate startDate, LocalDate endDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_supplier_stats", nativeQuery = true)
+    void deleteAllRows();
+
+    // Tính lại toàn bộ bảng tổng hợp từ sổ giao dịch
+    @Modifying
+    @Query(value = "INSERT INTO daily_supplier_stats (supplier_id, stat_date, import_quantity, import_value, import_count) " +
+                   "SELECT supplier_id, CAST(transaction_date AS DATE), SUM(quantity), SUM(COALESCE(total_price, 0)), COUNT(*) " +
+                   "FROM transactions WHERE type = 'IMPORT' AND supplier_id IS NOT NULL " +
+                   "GROUP BY supplier_id, CAST(transaction_date AS DATE)",
+           nativeQuery = true)
+    int rebuildFromTransactions();
+}
@@ -0,0 +1,32 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository cho bảng phản hồi theo Idempotency-Key
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Nhận khóa: chỉ một request chèn được dòng, request khác nhận 0
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO idempotency_keys (request_key, fingerprint, created_at, expires_at) " +
+                   "VALUES (:requestKey, :fingerprint, :now, :expiresAt)", nativeQuery = true)
+    int insertIfAbsent(String requestKey, String fingerprint, LocalDateTime now, LocalDateTime expiresAt);
+
+    // Xóa dòng hết hạn hoặc dòng đang xử lý bị bỏ dở (máy chủ dừng giữa chừng)
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.requestKey = :requestKey " +
+           "AND (r.expiresAt < :now OR (r.responseBody IS NULL AND r.createdAt < :abandonedBefore))")
+    int deleteStale(String requestKey, LocalDateTime now, LocalDateTime abandonedBefore);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,28 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.MaterialForecast;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository cho trạng thái dự báo tiêu thụ
+ */
+@Repository
+public interface MaterialForecastRepository extends JpaRepository<MaterialForecast, Long> {
+
+    // Đọc có khóa (SELECT ... FOR UPDATE): đọc bản đã commit mới nhất thay vì ảnh chụp của transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM MaterialForecast f WHERE f.materialId IN :materialIds ORDER BY f.materialId")
+    List<MaterialForecast> findAllByIdForUpdate(Collection<Long> materialIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM material_forecasts", nativeQuery = true)
+    void deleteAllRows();
+}
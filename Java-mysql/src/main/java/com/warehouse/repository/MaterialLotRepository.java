@@ -0,0 +1,37 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.MaterialLot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository cho lô nguyên liệu
+ */
+@Repository
+public interface MaterialLotRepository extends JpaRepository<MaterialLot, Long> {
+
+    // Các lô còn hàng theo thứ tự FEFO (hạn dùng sớm nhất trước, lô không có hạn dùng sau cùng),
+    // đọc theo chỉ mục (material_id, expiry_date, id)
+    String OPEN_LOTS = "SELECT l FROM MaterialLot l WHERE l.materialId IN :materialIds AND l.remainingQuantity > 0 " +
+            "ORDER BY l.materialId, CASE WHEN l.expiryDate IS NULL THEN 1 ELSE 0 END, l.expiryDate, l.id";
+
+    @Query(OPEN_LOTS)
+    List<MaterialLot> findOpenLots(Collection<Long> materialIds);
+
+    // Như trên nhưng khóa các lô để phân bổ xuất kho
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(OPEN_LOTS)
+    List<MaterialLot> findOpenLotsForUpdate(Collection<Long> materialIds);
+
+    // Các lô còn hàng có hạn dùng <= horizon (cảnh báo theo lô)
+    @Query("SELECT l FROM MaterialLot l WHERE l.expiryDate <= :horizon AND l.remainingQuantity > 0 " +
+           "ORDER BY l.materialId, l.expiryDate, l.id")
+    List<MaterialLot> findExpiringLots(LocalDate horizon);
+}
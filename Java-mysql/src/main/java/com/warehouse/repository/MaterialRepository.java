@@ -1,11 +1,19 @@
 package com.warehouse.repository;
 
+import com.warehouse.dto.response.ReservationCheckDTO;
 import com.warehouse.entity.Material;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +25,21 @@ public interface MaterialRepository extends JpaRepository<Material, Long> {
     
     Optional<Material> findByCode(String code);
     
+    // Nạp kèm nhà cung cấp trong cùng một truy vấn (dùng cho cache)
+    @EntityGraph(attributePaths = "supplier")
+    @Query("SELECT m FROM Material m ORDER BY m.id")
+    List<Material> findAllWithSupplier();
+    
+    @EntityGraph(attributePaths = "supplier")
+    @Query("SELECT m FROM Material m WHERE m.id = :id")
+    Optional<Material> findWithSupplierById(Long id);
+    
+    // Khóa các nguyên liệu theo thứ tự id tăng dần (SELECT ... FOR UPDATE):
+    // các lô nhập / xuất đồng thời luôn khóa theo cùng một thứ tự nên không deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Material m WHERE m.id IN :ids ORDER BY m.id")
+    List<Material> findAllByIdForUpdate(Collection<Long> ids);
+    
     Boolean existsByCode(String code);
     
     List<Material> findByNameContainingIgnoreCase(String name);
@@ -34,4 +57,55 @@ public interface MaterialRepository extends JpaRepository<Material, Long> {
     List<Material> findExpiredMaterials();
     
     List<Material> findByStatus(Material.Status status);
+    
+    // Tất cả nguyên liệu cần cảnh báo (tồn kho thấp hoặc hạn dùng <= horizon) trong một truy vấn.
+    // Quét toàn bộ bảng materials (mỗi nguyên liệu một dòng): nhánh tồn kho thấp so sánh hai cột nên không dùng được
+    // chỉ mục nào, và vì có OR nên idx_materials_expiry_date cũng không được dùng cho nhánh hạn dùng.
+    @Query("SELECT m FROM Material m WHERE m.quantity <= m.minQuantity " +
+           "OR (m.expiryDate IS NOT NULL AND m.expiryDate <= :horizon) ORDER BY m.id")
+    List<Material> findWarningCandidates(LocalDate horizon);
+    
+    // Cộng tồn kho nguyên tử (không đọc - sửa - ghi trong Java)
+    @Modifying
+    @Query(value = "UPDATE materials SET quantity = quantity + :quantity, updated_at = :now WHERE id = :id",
+           nativeQuery = true)
+    int increaseQuantity(Long id, BigDecimal quantity, LocalDateTime now);
+    
+    // Trừ tồn kho nguyên tử, chỉ thành công khi còn đủ số lượng khả dụng (không tính phần đang giữ cho yêu cầu khác).
+    // released = phần đang giữ cho chính yêu cầu được xuất, được trả lại trong cùng câu lệnh.
+    @Modifying
+    @Query(value = "UPDATE materials SET quantity = quantity - :quantity, " +
+                   "reserved_quantity = reserved_quantity - LEAST(:released, reserved_quantity), updated_at = :now " +
+                   "WHERE id = :id AND quantity - reserved_quantity + LEAST(:released, reserved_quantity) >= :quantity",
+           nativeQuery = true)
+    int decreaseQuantity(Long id, BigDecimal quantity, BigDecimal released, LocalDateTime now);
+
+    // Giữ hàng cho yêu cầu được duyệt, chỉ thành công khi tồn kho khả dụng còn đủ
+    @Modifying
+    @Query(value = "UPDATE materials SET reserved_quantity = reserved_quantity + :quantity, updated_at = :now " +
+                   "WHERE id = :id AND quantity - reserved_quantity >= :quantity",
+           nativeQuery = true)
+    int reserveQuantity(Long id, BigDecimal quantity, LocalDateTime now);
+
+    // Trả lại số lượng đang giữ (không xuống dưới 0)
+    @Modifying
+    @Query(value = "UPDATE materials SET reserved_quantity = GREATEST(reserved_quantity - :quantity, 0), updated_at = :now " +
+                   "WHERE id = :id",
+           nativeQuery = true)
+    int releaseReservedQuantity(Long id, BigDecimal quantity, LocalDateTime now);
+
+    // Đối chiếu bộ đếm giữ hàng với tổng phần giữ của các yêu cầu đã duyệt
+    @Query("SELECT new com.warehouse.dto.response.ReservationCheckDTO(m.id, m.code, m.name, m.quantity, m.reservedQuantity, " +
+           "(SELECT COALESCE(SUM(r.reservedQuantity), 0) FROM MaterialRequest r " +
+           " WHERE r.material.id = m.id AND r.status = 'APPROVED')) " +
+           "FROM Material m WHERE m.reservedQuantity > 0 OR EXISTS (SELECT 1 FROM MaterialRequest r2 " +
+           " WHERE r2.material.id = m.id AND r2.status = 'APPROVED' AND r2.reservedQuantity > 0) ORDER BY m.id")
+    List<ReservationCheckDTO> checkReservations();
+
+    // Tính lại bộ đếm giữ hàng từ các yêu cầu đã duyệt
+    @Modifying
+    @Query(value = "UPDATE materials m SET reserved_quantity = COALESCE((SELECT SUM(r.reserved_quantity) " +
+                   "FROM material_requests r WHERE r.material_id = m.id AND r.status = 'APPROVED'), 0)",
+           nativeQuery = true)
+    int reconcileReservedQuantities();
 }
@@ -1,10 +1,14 @@
 package com.warehouse.repository;
 
+import com.warehouse.dto.response.MaterialRequestSummaryDTO;
+import com.warehouse.entity.Employee;
 import com.warehouse.entity.MaterialRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +17,13 @@ import java.util.Optional;
  */
 @Repository
 public interface MaterialRequestRepository extends JpaRepository<MaterialRequest, Long> {
+
+    // Projection cho danh sách yêu cầu: một truy vấn JOIN, không nạp entity liên kết
+    String SUMMARY_SELECT = "SELECT new com.warehouse.dto.response.MaterialRequestSummaryDTO(" +
+            "mr.id, mr.requestCode, mr.requestedQuantity, mr.unit, mr.status, mr.reason, mr.note, " +
+            "mr.approvedAt, mr.createdAt, mr.updatedAt, m.id, m.code, m.name, m.unit, " +
+            "rq.id, rq.username, rq.fullName, ap.id, ap.username, ap.fullName) " +
+            "FROM MaterialRequest mr JOIN mr.material m JOIN mr.requester rq LEFT JOIN mr.approver ap ";
     
     Optional<MaterialRequest> findByRequestCode(String requestCode);
     
@@ -22,10 +33,36 @@ public interface MaterialRequestRepository extends JpaRepository<MaterialRequest
     
     List<MaterialRequest> findByMaterialId(Long materialId);
     
+    // Tất cả yêu cầu (projection)
+    @Query(SUMMARY_SELECT + "ORDER BY mr.id")
+    List<MaterialRequestSummaryDTO> findAllSummaries();
+    
     // Tìm yêu cầu chờ xử lý
-    @Query("SELECT mr FROM MaterialRequest mr WHERE mr.status = 'PENDING' ORDER BY mr.createdAt ASC")
-    List<MaterialRequest> findPendingRequests();
+    @Query(SUMMARY_SELECT + "WHERE mr.status = 'PENDING' ORDER BY mr.createdAt ASC")
+    List<MaterialRequestSummaryDTO> findPendingRequests();
+    
+    // Nguyên liệu đang có yêu cầu chưa hoàn tất (chờ xử lý hoặc đã duyệt)
+    @Query("SELECT DISTINCT mr.material.id FROM MaterialRequest mr WHERE mr.status IN ('PENDING', 'APPROVED')")
+    List<Long> findMaterialIdsWithOpenRequests();
     
     // Tìm yêu cầu theo người phê duyệt
     List<MaterialRequest> findByApproverId(Long approverId);
+
+    // Phê duyệt có điều kiện: chỉ thành công khi yêu cầu còn PENDING (hai người duyệt cùng lúc chỉ một người thắng)
+    @Modifying
+    @Query("UPDATE MaterialRequest mr SET mr.status = 'APPROVED', mr.approver = :approver, mr.approvedAt = :now, " +
+           "mr.updatedAt = :now, mr.decisionKey = :decisionKey WHERE mr.id = :id AND mr.status = 'PENDING'")
+    int approvePending(Long id, Employee approver, LocalDateTime now, String decisionKey);
+
+    // Từ chối có điều kiện: chỉ thành công khi yêu cầu còn PENDING hoặc đã duyệt nhưng chưa xuất kho
+    @Modifying
+    @Query("UPDATE MaterialRequest mr SET mr.status = 'REJECTED', mr.approver = :approver, mr.approvedAt = :now, " +
+           "mr.updatedAt = :now, mr.decisionKey = :decisionKey, " +
+           "mr.note = CONCAT(COALESCE(mr.note, ''), :rejectNote) WHERE mr.id = :id AND mr.status IN ('PENDING', 'APPROVED')")
+    int rejectOpen(Long id, Employee approver, LocalDateTime now, String decisionKey, String rejectNote);
+
+    // Yêu cầu đã duyệt còn giữ hàng quá hạn, theo thứ tự nguyên liệu để khóa dòng theo cùng một thứ tự
+    @Query("SELECT mr FROM MaterialRequest mr WHERE mr.status = 'APPROVED' AND mr.reservedQuantity > 0 " +
+           "AND mr.approvedAt < :cutoff ORDER BY mr.material.id, mr.id")
+    List<MaterialRequest> findExpiredHolds(LocalDateTime cutoff);
 }
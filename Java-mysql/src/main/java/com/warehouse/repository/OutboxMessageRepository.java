@@ -0,0 +1,59 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository cho hàng đợi outbox
+ */
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Ghi việc nếu khóa chưa có (chỉ mục unique message_key): 1 = đã ghi, 0 = việc đã tồn tại
+    // Không dùng ON DUPLICATE KEY UPDATE id = id: Connector/J mặc định trả số dòng khớp, dòng trùng vẫn nhận 1
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO outbox_messages (message_key, type, aggregate_id, status, attempts, " +
+                   "next_attempt_at, created_at) VALUES (:messageKey, :type, :aggregateId, 'PENDING', 0, :now, :now)",
+           nativeQuery = true)
+    int insertIfAbsent(String messageKey, String type, Long aggregateId, LocalDateTime now);
+
+    // Id vừa sinh trên cùng kết nối, không đọc bảng
+    @Query(value = "SELECT LAST_INSERT_ID()", nativeQuery = true)
+    Long lastInsertId();
+
+    // Các việc đến hạn xử lý, đọc theo chỉ mục (status, next_attempt_at)
+    @Query("SELECT o.id FROM OutboxMessage o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt, o.id")
+    List<Long> findDueIds(LocalDateTime now, Pageable pageable);
+
+    // Nhận việc có điều kiện: chỉ một luồng nhận được, giữ việc đến leaseUntil
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = 'PROCESSING', o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id = :id AND o.status = 'PENDING' AND o.nextAttemptAt <= :now")
+    int claim(Long id, LocalDateTime now, LocalDateTime leaseUntil);
+
+    // Trả lại các việc bị giữ quá hạn (luồng xử lý bị dừng giữa chừng)
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = 'PENDING' WHERE o.status = 'PROCESSING' AND o.nextAttemptAt < :now")
+    int releaseExpiredLeases(LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = 'DONE', o.processedAt = :now, o.lastError = NULL " +
+           "WHERE o.id = :id AND o.status = 'PROCESSING'")
+    int markDone(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage o SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, o.lastError = :error " +
+           "WHERE o.id = :id AND o.status = 'PROCESSING'")
+    int markAttemptFailed(Long id, OutboxMessage.Status status, LocalDateTime nextAttemptAt, String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage o WHERE o.status = 'DONE' AND o.processedAt < :before")
+    int deleteDoneBefore(LocalDateTime before);
+}
@@ -0,0 +1,48 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository cho ảnh chụp tồn kho
+ */
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, StockSnapshot.Key> {
+
+    // Ngày chụp gần nhất không sau ngày cho trước
+    @Query("SELECT MAX(s.snapshotDate) FROM StockSnapshot s WHERE s.snapshotDate <= :date")
+    LocalDate findLatestSnapshotDate(LocalDate date);
+
+    @Query("SELECT s FROM StockSnapshot s WHERE s.snapshotDate = :snapshotDate " +
+           "AND (:materialId IS NULL OR s.materialId = :materialId)")
+    List<StockSnapshot> findBySnapshotDate(LocalDate snapshotDate, Long materialId);
+
+    @Modifying
+    @Query(value = "DELETE FROM stock_snapshots WHERE snapshot_date = :snapshotDate", nativeQuery = true)
+    int deleteBySnapshotDate(LocalDate snapshotDate);
+
+    // Chụp tồn kho cuối ngày snapshotDate của mọi nguyên liệu:
+    // tồn kho hiện tại trừ các giao dịch từ dayEnd (đầu ngày hôm sau) trở đi, trong một câu lệnh
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (material_id, snapshot_date, quantity) " +
+                   "SELECT m.id, :snapshotDate, m.quantity - COALESCE((" +
+                   "    SELECT SUM(CASE WHEN t.type = 'IMPORT' THEN t.quantity ELSE -t.quantity END) " +
+                   "    FROM transactions t WHERE t.material_id = m.id AND t.transaction_date >= :dayEnd), 0) " +
+                   "FROM materials m",
+           nativeQuery = true)
+    int insertSnapshot(LocalDate snapshotDate, LocalDateTime dayEnd);
+
+    // Giữ ảnh chụp hằng ngày trong khoảng lưu trữ, sau đó chỉ giữ ảnh chụp ngày cuối tháng
+    @Modifying
+    @Query(value = "DELETE FROM stock_snapshots WHERE snapshot_date < :before " +
+                   "AND snapshot_date <> LAST_DAY(snapshot_date)",
+           nativeQuery = true)
+    int pruneDailySnapshots(LocalDate before);
+}
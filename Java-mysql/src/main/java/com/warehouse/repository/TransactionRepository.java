@@ -1,5 +1,7 @@
 package com.warehouse.repository;
 
+import com.warehouse.dto.response.MaterialNetChangeDTO;
+import com.warehouse.dto.response.TransactionSummaryDTO;
 import com.warehouse.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,7 +15,18 @@ import java.util.Optional;
  * Repository cho Transaction
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
+
+    // Projection cho danh sách giao dịch: một truy vấn JOIN, không nạp entity liên kết
+    // LEFT JOIN cả material / employee (luôn có, kết quả như JOIN): giữ transactions làm bảng dẫn,
+    // để MySQL đọc theo chỉ mục (..., transaction_date, id) và dừng ở LIMIT thay vì
+    // bắt đầu từ bảng nhỏ (materials / employees) rồi filesort toàn bộ
+    String SUMMARY_SELECT = "SELECT new com.warehouse.dto.response.TransactionSummaryDTO(" +
+            "t.id, t.transactionCode, t.type, t.quantity, t.unit, t.unitPrice, t.totalPrice, t.note, " +
+            "t.transactionDate, t.createdAt, m.id, m.code, m.name, m.unit, s.id, s.name, " +
+            "e.id, e.username, e.fullName, r.id, r.requestCode) " +
+            "FROM Transaction t LEFT JOIN t.material m LEFT JOIN t.employee e " +
+            "LEFT JOIN t.supplier s LEFT JOIN t.request r ";
     
     Optional<Transaction> findByTransactionCode(String transactionCode);
     
@@ -26,9 +39,19 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByTransactionDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     // Lấy lịch sử giao dịch theo nguyên liệu
-    @Query("SELECT t FROM Transaction t WHERE t.material.id = :materialId ORDER BY t.transactionDate DESC")
-    List<Transaction> findTransactionHistoryByMaterial(Long materialId);
+    @Query(SUMMARY_SELECT + "WHERE t.material.id = :materialId ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionSummaryDTO> findTransactionHistoryByMaterial(Long materialId);
     
     // Lấy giao dịch theo nhân viên
     List<Transaction> findByEmployeeIdOrderByTransactionDateDesc(Long employeeId);
+    
+    // Tổng nhập - xuất theo nguyên liệu trong khoảng [from, to) (to = null: không giới hạn)
+    // Dùng chỉ mục (material_id, transaction_date, id): chỉ đọc các giao dịch trong khoảng
+    @Query("SELECT new com.warehouse.dto.response.MaterialNetChangeDTO(t.material.id, " +
+           "SUM(CASE WHEN t.type = 'IMPORT' THEN t.quantity ELSE -t.quantity END), COUNT(t)) " +
+           "FROM Transaction t WHERE t.transactionDate >= :from " +
+           "AND (:to IS NULL OR t.transactionDate < :to) " +
+           "AND (:materialId IS NULL OR t.material.id = :materialId) " +
+           "GROUP BY t.material.id")
+    List<MaterialNetChangeDTO> sumNetChanges(LocalDateTime from, LocalDateTime to, Long materialId);
 }
@@ -0,0 +1,40 @@
+package com.warehouse.repository;
+
+import com.warehouse.dto.response.TransactionExportRow;
+import com.warehouse.dto.response.TransactionSummaryDTO;
+import com.warehouse.entity.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Truy vấn giao dịch có điều kiện tạo động (cài đặt trong TransactionRepositoryImpl)
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Phân trang keyset theo (transactionDate, id) giảm dần, lọc tùy chọn
+     * Chỉ các bộ lọc khác null được đưa vào câu truy vấn, nên mỗi tổ hợp bộ lọc là một câu lệnh riêng
+     * và MySQL chọn được chỉ mục tương ứng (type / material_id / employee_id, transaction_date, id).
+     * Không kèm truy vấn COUNT; đọc tối đa limit dòng.
+     */
+    List<TransactionSummaryDTO> findPage(Transaction.TransactionType type,
+                                         Long materialId,
+                                         Long employeeId,
+                                         LocalDateTime startDate,
+                                         LocalDateTime endDate,
+                                         LocalDateTime cursorDate,
+                                         Long cursorId,
+                                         int limit);
+
+    /**
+     * Đọc tuần tự sổ giao dịch để xuất file (projection, không nạp entity), theo (transactionDate, id) tăng dần
+     * Trên MySQL các dòng được đọc dần từ server trong lúc duyệt stream, không nạp toàn bộ kết quả vào heap.
+     * Stream phải được đóng, và chỉ dùng trong transaction đang mở.
+     */
+    Stream<TransactionExportRow> streamForExport(Transaction.TransactionType type,
+                                                 Long materialId,
+                                                 LocalDateTime startDate,
+                                                 LocalDateTime endDate);
+}
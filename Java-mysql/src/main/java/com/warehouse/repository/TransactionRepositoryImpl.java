@@ -0,0 +1,135 @@
+package com.warehouse.repository;
+
+import com.warehouse.dto.response.TransactionExportRow;
+import com.warehouse.dto.response.TransactionSummaryDTO;
+import com.warehouse.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Cài đặt các truy vấn tạo động của TransactionRepository
+ * Không dùng dạng (:x IS NULL OR cột = :x): với dạng đó MySQL lập một kế hoạch chung cho mọi
+ * tổ hợp tham số và thường quét theo ngày / khóa chính rồi lọc từng dòng.
+ */
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final String EXPORT_SELECT = "SELECT new com.warehouse.dto.response.TransactionExportRow(" +
+            "t.id, t.transactionCode, t.transactionDate, t.type, m.code, m.name, t.quantity, t.unit, " +
+            "t.unitPrice, t.totalPrice, s.name, e.username, r.requestCode, t.note) " +
+            "FROM Transaction t LEFT JOIN t.material m LEFT JOIN t.employee e " +
+            "LEFT JOIN t.supplier s LEFT JOIN t.request r ";
+
+    // Fetch size khi xuất file với driver khác MySQL (vd. H2)
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Integer exportFetchSize;
+
+    @Override
+    public List<TransactionSummaryDTO> findPage(Transaction.TransactionType type,
+                                                Long materialId,
+                                                Long employeeId,
+                                                LocalDateTime startDate,
+                                                LocalDateTime endDate,
+                                                LocalDateTime cursorDate,
+                                                Long cursorId,
+                                                int limit) {
+        Conditions conditions = new Conditions(type, materialId, startDate, endDate);
+        if (employeeId != null) {
+            conditions.add("t.employee.id = :employeeId", "employeeId", employeeId);
+        }
+        if (cursorDate != null) {
+            conditions.add("(t.transactionDate < :cursorDate OR (t.transactionDate = :cursorDate AND t.id < :cursorId))",
+                    "cursorDate", cursorDate);
+            conditions.parameters.put("cursorId", cursorId);
+        }
+
+        TypedQuery<TransactionSummaryDTO> query = conditions.createQuery(TransactionRepository.SUMMARY_SELECT,
+                "ORDER BY t.transactionDate DESC, t.id DESC", TransactionSummaryDTO.class);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<TransactionExportRow> streamForExport(Transaction.TransactionType type,
+                                                        Long materialId,
+                                                        LocalDateTime startDate,
+                                                        LocalDateTime endDate) {
+        Conditions conditions = new Conditions(type, materialId, startDate, endDate);
+        TypedQuery<TransactionExportRow> query = conditions.createQuery(EXPORT_SELECT,
+                "ORDER BY t.transactionDate ASC, t.id ASC", TransactionExportRow.class);
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Fetch size cho riêng câu lệnh xuất file
+     * MySQL Connector/J: Integer.MIN_VALUE = server gửi kết quả từng dòng (streaming result set) cho câu lệnh này,
+     * không cần useCursorFetch trên URL (tham số đó mở cursor phía server cho mọi truy vấn có fetch size).
+     * Trong lúc stream chưa đóng, kết nối không chạy được câu lệnh khác.
+     */
+    private int exportFetchSize() {
+        Integer fetchSize = exportFetchSize;
+        if (fetchSize == null) {
+            SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class);
+            fetchSize = sessionFactory.getJdbcServices().getDialect() instanceof MySQLDialect
+                    ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE;
+            exportFetchSize = fetchSize;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Các điều kiện WHERE có giá trị và tham số tương ứng
+     */
+    private class Conditions {
+
+        private final List<String> clauses = new ArrayList<>();
+        private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+        Conditions(Transaction.TransactionType type, Long materialId, LocalDateTime startDate, LocalDateTime endDate) {
+            if (type != null) {
+                add("t.type = :type", "type", type);
+            }
+            if (materialId != null) {
+                add("t.material.id = :materialId", "materialId", materialId);
+            }
+            if (startDate != null) {
+                add("t.transactionDate >= :startDate", "startDate", startDate);
+            }
+            if (endDate != null) {
+                add("t.transactionDate <= :endDate", "endDate", endDate);
+            }
+        }
+
+        void add(String clause, String name, Object value) {
+            clauses.add(clause);
+            parameters.put(name, value);
+        }
+
+        <T> TypedQuery<T> createQuery(String select, String orderBy, Class<T> resultType) {
+            StringBuilder jpql = new StringBuilder(select);
+            if (!clauses.isEmpty()) {
+                jpql.append("WHERE ").append(String.join(" AND ", clauses)).append(' ');
+            }
+            jpql.append(orderBy);
+            TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+            parameters.forEach(query::setParameter);
+            return query;
+        }
+    }
+}
@@ -3,18 +3,12 @@ package com.warehouse.security;
 import com.warehouse.entity.Employee;
 import com.warehouse.repository.EmployeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.Collections;
-
 /**
  * Service để load user details cho Spring Security
  */
@@ -34,14 +28,6 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("User is inactive: " + username);
         }
 
-        return new User(
-                employee.getUsername(),
-                employee.getPassword(),
-                getAuthorities(employee)
-        );
-    }
-
-    private Collection<? extends GrantedAuthority> getAuthorities(Employee employee) {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + employee.getRole().name()));
+        return new EmployeePrincipal(employee, true);
     }
 }
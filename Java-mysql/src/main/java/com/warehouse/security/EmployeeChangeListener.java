@@ -0,0 +1,26 @@
+package com.warehouse.security;
+
+import com.warehouse.entity.Employee;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loại thông tin người dùng khỏi PrincipalCache khi nhân viên bị sửa / xóa
+ * (đổi vai trò, khóa tài khoản, đổi username). Thay đổi nhân viên hiếm nên xóa toàn bộ cache.
+ */
+@Component
+public class EmployeeChangeListener {
+
+    @Autowired
+    @Lazy
+    private PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Employee employee) {
+        principalCache.clear();
+    }
+}
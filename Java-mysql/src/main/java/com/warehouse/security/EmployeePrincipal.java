@@ -0,0 +1,72 @@
+package com.warehouse.security;
+
+import com.warehouse.entity.Employee;
+import lombok.Getter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Thông tin người dùng đã xác thực (mang ID nhân viên và vai trò)
+ */
+@Getter
+public class EmployeePrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final Employee.Role role;
+    private final boolean active;
+    private final List<GrantedAuthority> authorities;
+
+    public EmployeePrincipal(Employee employee, boolean withPassword) {
+        this.id = employee.getId();
+        this.username = employee.getUsername();
+        this.password = withPassword ? employee.getPassword() : null;
+        this.role = employee.getRole();
+        this.active = Boolean.TRUE.equals(employee.getActive());
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + employee.getRole().name()));
+    }
+
+    /**
+     * Người dùng đã xác thực của request hiện tại
+     */
+    public static Optional<EmployeePrincipal> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof EmployeePrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
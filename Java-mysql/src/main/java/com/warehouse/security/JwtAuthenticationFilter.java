@@ -1,65 +1,71 @@
 package com.warehouse.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Filter để xác thực JWT token
+ * Token được parse một lần; thông tin người dùng lấy từ PrincipalCache (không truy vấn DB ở mỗi request).
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, PrincipalCache principalCache) {
         this.tokenProvider = tokenProvider;
-        this.customUserDetailsService = customUserDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        try {
-            String jwt = getJwtFromRequest(request);
-            
-            System.out.println("JWT Filter - Request URI: " + request.getRequestURI());
-            System.out.println("JWT Filter - JWT Token: " + (jwt != null ? "Present (length: " + jwt.length() + ")" : "NULL"));
-
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                System.out.println("JWT Filter - Username from token: " + username);
-
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                System.out.println("JWT Filter - User authorities: " + userDetails.getAuthorities());
-                
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("JWT Filter - Authentication set successfully!");
+        String jwt = getJwtFromRequest(request);
+        if (jwt != null) {
+            Optional<Claims> claims = tokenProvider.parseClaims(jwt);
+            if (claims.isPresent()) {
+                authenticate(request, claims.get().getSubject());
             } else {
-                System.out.println("JWT Filter - Token validation failed or empty");
+                log.debug("JWT rejected for {}", request.getRequestURI());
             }
-        } catch (Exception ex) {
-            System.err.println("JWT Filter - Exception: " + ex.getMessage());
-            ex.printStackTrace();
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, String username) {
+        try {
+            EmployeePrincipal principal = principalCache.get(username);
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (log.isDebugEnabled()) {
+                log.debug("Authenticated {} {} for {}", username, principal.getAuthorities(), request.getRequestURI());
+            }
+        } catch (UsernameNotFoundException ex) {
+            log.debug("JWT user rejected: {}", ex.getMessage());
+        }
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,144 @@
+package com.warehouse.security;
+
+import com.warehouse.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache thông tin người dùng cho JWT filter (tránh truy vấn employees ở mỗi request)
+ * - Giới hạn kích thước (app.security.principal-cache.max-size) và thời gian sống (ttl-seconds)
+ * - Bị loại khi nhân viên thay đổi (EmployeeChangeListener), sau khi transaction commit
+ * Chỉ lưu nhân viên đang hoạt động, không lưu mật khẩu.
+ */
+@Component
+public class PrincipalCache {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> byUsername = new ConcurrentHashMap<>();
+
+    // Thứ tự nạp để loại bản ghi cũ nhất khi đầy (có thể còn phần tử đã bị thay thế, bỏ qua khi lấy ra)
+    private final ConcurrentLinkedQueue<Entry> loadOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ReentrantLock compactLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Lấy thông tin người dùng theo username
+     *
+     * @throws UsernameNotFoundException nếu không tồn tại hoặc đã ngừng hoạt động
+     */
+    public EmployeePrincipal get(String username) {
+        Entry entry = byUsername.get(username);
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.loadedAt < ttlSeconds * 1000) {
+            hits.increment();
+            return entry.principal;
+        }
+        misses.increment();
+
+        EmployeePrincipal principal = employeeRepository.findByUsername(username)
+                .map(employee -> new EmployeePrincipal(employee, false))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        if (!principal.isActive()) {
+            byUsername.remove(username);
+            throw new UsernameNotFoundException("User is inactive: " + username);
+        }
+
+        Entry stored = new Entry(principal, now);
+        byUsername.put(username, stored);
+        loadOrder.add(stored);
+        if (queued.incrementAndGet() > 2 * Math.max(maxSize, byUsername.size())) {
+            compactLoadOrder();
+        }
+        if (byUsername.size() > maxSize) {
+            evictOldest();
+        }
+        return principal;
+    }
+
+    /**
+     * Xóa toàn bộ cache, lặp lại sau khi transaction hiện tại kết thúc (nếu có)
+     * để bản ghi được nạp lại trước commit không còn sót.
+     */
+    public void clear() {
+        byUsername.clear();
+        loadOrder.clear();
+        queued.set(0);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    byUsername.clear();
+                }
+            });
+        }
+    }
+
+    public int size() {
+        return byUsername.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Loại các bản ghi được nạp lâu nhất khi vượt quá kích thước tối đa
+     * Lấy từ đầu hàng đợi thứ tự nạp: mỗi lần loại O(1) (không tính phần tử đã cũ bị bỏ qua).
+     */
+    private void evictOldest() {
+        while (byUsername.size() > maxSize) {
+            Entry oldest = loadOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            byUsername.computeIfPresent(oldest.principal.getUsername(),
+                    (username, current) -> current == oldest ? null : current);
+        }
+    }
+
+    /**
+     * Bỏ các phần tử đã cũ khỏi hàng đợi thứ tự nạp (người dùng được nạp lại sau khi hết hạn)
+     * Chạy khi hàng đợi dài gấp đôi cache, nên chi phí chia đều cho các lần nạp là O(1).
+     */
+    private void compactLoadOrder() {
+        if (!compactLock.tryLock()) {
+            return;
+        }
+        try {
+            loadOrder.removeIf(entry -> byUsername.get(entry.principal.getUsername()) != entry);
+            queued.set(loadOrder.size());
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    private record Entry(EmployeePrincipal principal, long loadedAt) {
+    }
+}
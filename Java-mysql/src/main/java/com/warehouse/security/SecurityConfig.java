@@ -1,5 +1,6 @@
 package com.warehouse.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +33,9 @@ public class SecurityConfig {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         // Không mã hóa password - dùng NoOpPasswordEncoder
@@ -53,7 +57,7 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(tokenProvider, customUserDetailsService);
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(tokenProvider, principalCache);
         
         http
                 .csrf(csrf -> csrf.disable())
@@ -61,6 +65,11 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Metrics (kể cả /actuator/prometheus) chỉ dành cho ADMIN: Prometheus gửi JWT của tài khoản ADMIN
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        // Dispatch bất đồng bộ của SSE đã được xác thực ở request gốc
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -0,0 +1,216 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.response.ChangeEventDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.event.MaterialRequestEvent;
+import com.warehouse.event.StockEvent;
+import com.warehouse.event.TransactionEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kênh đẩy thay đổi tới client bằng Server-Sent Events
+ * - Sự kiện được nhận sau khi transaction commit (nhập / xuất kho, yêu cầu bổ sung)
+ * - Mỗi client có hàng đợi giới hạn (app.stream.buffer-size); luồng phát sự kiện không bao giờ
+ *   bị chặn bởi client chậm. Khi hàng đợi đầy, các thay đổi đang chờ bị bỏ và thay bằng một
+ *   sự kiện "resync" để client tải lại dữ liệu qua REST.
+ * - Việc ghi ra từng kết nối chạy trên một pool riêng, mỗi client tối đa một luồng ghi tại một thời điểm.
+ */
+@Service
+public class ChangeStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    @Value("${app.stream.max-clients:500}")
+    private int maxClients;
+
+    @Value("${app.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Đăng ký một client mới
+     */
+    public SseEmitter subscribe(String username) {
+        if (clients.size() >= maxClients) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Quá nhiều kết nối theo dõi thay đổi");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Client client = new Client(username, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> {
+            clients.remove(client);
+            emitter.complete();
+        });
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+
+        enqueue(client, new Outgoing(eventSequence.get(), "connected", null));
+        return emitter;
+    }
+
+    /**
+     * Số client đang kết nối
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockEvent(StockEvent event) {
+        Material material = event.getMaterial();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("code", material.getCode());
+        data.put("name", material.getName());
+        data.put("quantity", material.getQuantity());
+        data.put("unit", material.getUnit());
+        data.put("status", material.getStatus());
+        data.put("expiryDate", material.getExpiryDate());
+        broadcast("material", event.getType().name(), event.getMaterialId(), data);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMaterialRequestEvent(MaterialRequestEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("requestCode", event.getRequestCode());
+        data.put("materialId", event.getMaterialId());
+        data.put("requestedQuantity", event.getRequestedQuantity());
+        data.put("status", event.getStatus());
+        broadcast("request", event.getType().name(), event.getRequestId(), data);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionEvent(TransactionEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("transactionCode", event.getTransactionCode());
+        data.put("materialId", event.getMaterialId());
+        data.put("quantity", event.getQuantity());
+        data.put("transactionDate", event.getTransactionDate());
+        broadcast("transaction", event.getType().name(), event.getTransactionId(), data);
+    }
+
+    /**
+     * Gửi comment định kỳ để giữ kết nối qua proxy và phát hiện client đã ngắt
+     */
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            enqueue(client, Outgoing.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        clients.forEach(client -> client.emitter.complete());
+        clients.clear();
+    }
+
+    private void broadcast(String entity, String action, Long id, Map<String, Object> data) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        long seq = eventSequence.incrementAndGet();
+        Outgoing outgoing = new Outgoing(seq, entity,
+                new ChangeEventDTO(entity, action, id, data, LocalDateTime.now()));
+        for (Client client : clients) {
+            enqueue(client, outgoing);
+        }
+    }
+
+    /**
+     * Đưa sự kiện vào hàng đợi của client (không chặn) và lên lịch ghi
+     */
+    private void enqueue(Client client, Outgoing outgoing) {
+        if (!client.queue.offer(outgoing)) {
+            if (outgoing == Outgoing.HEARTBEAT) {
+                return;
+            }
+            client.queue.clear();
+            client.queue.offer(new Outgoing(outgoing.id, "resync",
+                    new ChangeEventDTO("resync", "OVERFLOW", null, null, LocalDateTime.now())));
+            log.debug("Hàng đợi SSE của {} bị đầy, yêu cầu client tải lại", client.username);
+        }
+        if (client.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(client));
+        }
+    }
+
+    private void drain(Client client) {
+        do {
+            Outgoing outgoing;
+            while ((outgoing = client.queue.poll()) != null) {
+                try {
+                    if (outgoing == Outgoing.HEARTBEAT) {
+                        client.emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        client.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(outgoing.id))
+                                .name(outgoing.name)
+                                .data(outgoing.data != null ? outgoing.data : "", MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    clients.remove(client);
+                    client.queue.clear();
+                    client.emitter.completeWithError(e);
+                    return;
+                }
+            }
+            client.sending.set(false);
+        } while (!client.queue.isEmpty() && client.sending.compareAndSet(false, true));
+    }
+
+    private record Outgoing(long id, String name, ChangeEventDTO data) {
+        static final Outgoing HEARTBEAT = new Outgoing(0, "ping", null);
+    }
+
+    private static final class Client {
+        private final String username;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outgoing> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Client(String username, SseEmitter emitter, BlockingQueue<Outgoing> queue) {
+            this.username = username;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.warehouse.service;
+
+/**
+ * Bộ sinh mã nghiệp vụ (mã giao dịch, mã yêu cầu, mã nhà cung cấp)
+ * Mã sinh ra phải duy nhất và tăng dần, không cần truy vấn DB cho mỗi mã.
+ */
+public interface CodeGenerator {
+
+    /**
+     * Sinh mã mới với tiền tố cho trước, ví dụ "IMP", "EXP", "REQ", "SUP"
+     */
+    String nextCode(String prefix);
+}
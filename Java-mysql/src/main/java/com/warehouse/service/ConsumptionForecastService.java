@@ -0,0 +1,314 @@
+package com.warehouse.service;
+
+import com.warehouse.cache.MaterialCache;
+import com.warehouse.dto.request.MaterialRequestDTO;
+import com.warehouse.dto.response.MaterialForecastDTO;
+import com.warehouse.entity.DailyMaterialStat;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialForecast;
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.entity.Transaction;
+import com.warehouse.repository.DailyMaterialStatRepository;
+import com.warehouse.repository.EmployeeRepository;
+import com.warehouse.repository.MaterialForecastRepository;
+import com.warehouse.repository.MaterialRequestRepository;
+import com.warehouse.security.EmployeePrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service dự báo tiêu thụ nguyên liệu và điểm đặt hàng lại
+ * - Tiêu thụ / ngày được làm trơn hàm mũ (EMA) trên lượng xuất kho theo ngày,
+ *   hệ số alpha = 2 / (app.forecast.smoothing-days + 1); ngày không xuất kho tính là 0
+ * - Mỗi giao dịch xuất kho cập nhật trạng thái dự báo của nguyên liệu trong O(1), cùng transaction.
+ *   Dòng nguyên liệu đã bị khóa bởi UPDATE tồn kho nên các lần xuất trên cùng nguyên liệu chạy lần lượt;
+ *   dòng dự báo được đọc có khóa để thấy bản lần xuất trước vừa commit (REPEATABLE READ của MySQL
+ *   đọc thường theo ảnh chụp từ đầu transaction, có thể đã cũ hoặc chưa có dòng vừa được tạo).
+ * - Tính điểm đặt hàng và dựng lại từ bảng tổng hợp theo ngày chạy song song theo nguyên liệu
+ * - Có thể tự tạo yêu cầu bổ sung cho nguyên liệu xuống dưới điểm đặt hàng
+ */
+@Service
+@Transactional
+public class ConsumptionForecastService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumptionForecastService.class);
+
+    private static final int FLUSH_SIZE = 500;
+
+    @Autowired
+    private MaterialForecastRepository forecastRepository;
+
+    @Autowired
+    private DailyMaterialStatRepository materialStatRepository;
+
+    @Autowired
+    private MaterialRequestRepository requestRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MaterialRequestService materialRequestService;
+
+    @Autowired
+    private MaterialCache materialCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.forecast.smoothing-days:14}")
+    private int smoothingDays;
+
+    @Value("${app.forecast.lead-time-days:3}")
+    private int leadTimeDays;
+
+    @Value("${app.forecast.safety-days:2}")
+    private int safetyDays;
+
+    @Value("${app.forecast.cover-days:7}")
+    private int coverDays;
+
+    @Value("${app.forecast.auto-draft.enabled:false}")
+    private boolean autoDraftEnabled;
+
+    @Value("${app.forecast.auto-draft.requester:admin}")
+    private String autoDraftRequester;
+
+    /**
+     * Cập nhật dự báo theo các giao dịch vừa lưu (chỉ giao dịch xuất kho)
+     */
+    public void record(List<Transaction> transactions) {
+        Map<Long, Map<LocalDate, BigDecimal>> exports = new TreeMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getType() != Transaction.TransactionType.EXPORT) {
+                continue;
+            }
+            exports.computeIfAbsent(transaction.getMaterial().getId(), k -> new TreeMap<>())
+                    .merge(transaction.getTransactionDate().toLocalDate(), transaction.getQuantity(), BigDecimal::add);
+        }
+        if (exports.isEmpty()) {
+            return;
+        }
+
+        Map<Long, MaterialForecast> existing = forecastRepository.findAllByIdForUpdate(exports.keySet()).stream()
+                .collect(Collectors.toMap(MaterialForecast::getMaterialId, Function.identity()));
+        double alpha = alpha();
+        exports.forEach((materialId, days) -> {
+            MaterialForecast forecast = existing.get(materialId);
+            boolean isNew = forecast == null;
+            for (Map.Entry<LocalDate, BigDecimal> day : days.entrySet()) {
+                forecast = apply(forecast, materialId, day.getKey(), day.getValue(), alpha);
+            }
+            if (isNew) {
+                entityManager.persist(forecast);
+            }
+        });
+    }
+
+    /**
+     * Dự báo của tất cả nguyên liệu, nguyên liệu cần đặt hàng và sắp hết trước
+     */
+    @Transactional(readOnly = true)
+    public List<MaterialForecastDTO> getForecasts(boolean reorderOnly) {
+        Map<Long, MaterialForecast> forecasts = forecastRepository.findAll().stream()
+                .collect(Collectors.toMap(MaterialForecast::getMaterialId, Function.identity()));
+        LocalDate today = LocalDate.now();
+        double alpha = alpha();
+
+        return materialCache.getAll().parallelStream()
+                .map(material -> toDTO(material, forecasts.get(material.getId()), today, alpha))
+                .filter(dto -> !reorderOnly || dto.isNeedsReorder())
+                .sorted(Comparator.comparing(MaterialForecastDTO::isNeedsReorder).reversed()
+                        .thenComparing(MaterialForecastDTO::getDaysOfCover,
+                                Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(MaterialForecastDTO::getMaterialId))
+                .toList();
+    }
+
+    /**
+     * Dự báo của một nguyên liệu
+     */
+    @Transactional(readOnly = true)
+    public MaterialForecastDTO getForecast(Long materialId) {
+        Material material = materialCache.getById(materialId)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu với ID: " + materialId));
+        MaterialForecast forecast = forecastRepository.findById(materialId).orElse(null);
+        return toDTO(material, forecast, LocalDate.now(), alpha());
+    }
+
+    /**
+     * Dựng lại toàn bộ trạng thái dự báo từ bảng tổng hợp theo ngày
+     * (sau khi đổi smoothing-days hoặc sửa dữ liệu trực tiếp trong DB)
+     *
+     * @return số nguyên liệu có dự báo
+     */
+    public int rebuild() {
+        Map<Long, List<DailyMaterialStat>> byMaterial = new LinkedHashMap<>();
+        for (DailyMaterialStat stat : materialStatRepository.findExportDays()) {
+            byMaterial.computeIfAbsent(stat.getMaterialId(), k -> new ArrayList<>()).add(stat);
+        }
+        double alpha = alpha();
+        List<MaterialForecast> forecasts = byMaterial.entrySet().parallelStream()
+                .map(entry -> {
+                    MaterialForecast forecast = null;
+                    for (DailyMaterialStat stat : entry.getValue()) {
+                        forecast = apply(forecast, entry.getKey(), stat.getStatDate(), stat.getExportQuantity(), alpha);
+                    }
+                    return forecast;
+                })
+                .toList();
+
+        forecastRepository.deleteAllRows();
+        for (int i = 0; i < forecasts.size(); i++) {
+            entityManager.persist(forecasts.get(i));
+            if ((i + 1) % FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return forecasts.size();
+    }
+
+    /**
+     * Dựng trạng thái dự báo lần đầu khi bảng còn trống (cơ sở dữ liệu mới, dữ liệu mẫu)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (forecastRepository.count() == 0) {
+            log.info("Đã dựng dự báo tiêu thụ cho {} nguyên liệu", rebuild());
+        }
+    }
+
+    /**
+     * Tạo yêu cầu bổ sung cho các nguyên liệu dưới điểm đặt hàng chưa có yêu cầu đang mở
+     *
+     * @return các yêu cầu vừa tạo
+     */
+    public List<MaterialRequest> draftRequests() {
+        Employee requester = EmployeePrincipal.current()
+                .map(principal -> employeeRepository.getReferenceById(principal.getId()))
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy thông tin nhân viên"));
+        return draftRequests(requester);
+    }
+
+    /**
+     * Tự động đề xuất yêu cầu bổ sung theo lịch (app.forecast.auto-draft)
+     */
+    @Scheduled(cron = "${app.forecast.auto-draft.cron:0 30 0 * * *}")
+    public void scheduledDraft() {
+        if (!autoDraftEnabled) {
+            return;
+        }
+        Employee requester = employeeRepository.findByUsername(autoDraftRequester)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy nhân viên: " + autoDraftRequester));
+        List<MaterialRequest> drafted = draftRequests(requester);
+        log.info("Đã tự động tạo {} yêu cầu bổ sung theo dự báo", drafted.size());
+    }
+
+    private List<MaterialRequest> draftRequests(Employee requester) {
+        Set<Long> open = new HashSet<>(requestRepository.findMaterialIdsWithOpenRequests());
+        List<MaterialRequest> drafted = new ArrayList<>();
+        for (MaterialForecastDTO forecast : getForecasts(true)) {
+            if (open.contains(forecast.getMaterialId()) || forecast.getSuggestedQuantity().signum() <= 0) {
+                continue;
+            }
+            String reason = "Tự động đề xuất theo dự báo: tiêu thụ " + forecast.getDailyConsumption().stripTrailingZeros()
+                    .toPlainString() + " " + forecast.getUnit() + "/ngày, điểm đặt hàng "
+                    + forecast.getReorderPoint().toPlainString() + " " + forecast.getUnit();
+            MaterialRequestDTO dto = new MaterialRequestDTO(forecast.getMaterialId(), forecast.getSuggestedQuantity(),
+                    forecast.getUnit(), reason, null);
+            drafted.add(materialRequestService.createRequest(dto, requester));
+        }
+        return drafted;
+    }
+
+    private MaterialForecastDTO toDTO(Material material, MaterialForecast forecast, LocalDate today, double alpha) {
+        BigDecimal rate = BigDecimal.valueOf(forecast != null ? rateBefore(forecast, today, alpha) : 0)
+                .setScale(4, RoundingMode.HALF_UP);
+        BigDecimal quantity = material.getQuantity();
+        BigDecimal minQuantity = material.getMinQuantity();
+
+        BigDecimal reorderPoint = rate.multiply(BigDecimal.valueOf(leadTimeDays + safetyDays))
+                .max(minQuantity).setScale(2, RoundingMode.CEILING);
+        boolean needsReorder = quantity.compareTo(reorderPoint) <= 0;
+        BigDecimal daysOfCover = rate.signum() > 0 ? quantity.divide(rate, 1, RoundingMode.HALF_UP) : null;
+        BigDecimal suggested = BigDecimal.ZERO;
+        if (needsReorder) {
+            // Đặt đủ để về lại trên điểm đặt hàng thêm cover-days ngày tiêu thụ
+            suggested = reorderPoint.add(rate.multiply(BigDecimal.valueOf(coverDays)))
+                    .subtract(quantity).max(BigDecimal.ZERO).setScale(2, RoundingMode.CEILING);
+        }
+        return new MaterialForecastDTO(material.getId(), material.getCode(), material.getName(), material.getUnit(),
+                quantity, minQuantity, rate, daysOfCover, reorderPoint, needsReorder, suggested);
+    }
+
+    private double alpha() {
+        return 2.0 / (Math.max(1, smoothingDays) + 1);
+    }
+
+    /**
+     * Gộp lượng xuất kho của một ngày vào trạng thái dự báo (O(1) bất kể độ dài lịch sử)
+     */
+    static MaterialForecast apply(MaterialForecast forecast, Long materialId, LocalDate date,
+                                  BigDecimal quantity, double alpha) {
+        if (forecast == null) {
+            return new MaterialForecast(materialId, null, date, quantity, null);
+        }
+        if (date.equals(forecast.getLastDate())) {
+            forecast.setLastQuantity(forecast.getLastQuantity().add(quantity));
+        } else if (date.isAfter(forecast.getLastDate())) {
+            forecast.setSmoothedRate(BigDecimal.valueOf(rateBefore(forecast, date, alpha))
+                    .setScale(4, RoundingMode.HALF_UP));
+            forecast.setLastDate(date);
+            forecast.setLastQuantity(quantity);
+        } else {
+            // Giao dịch của ngày đã gộp: cộng phần đóng góp đã suy giảm theo số ngày
+            long age = ChronoUnit.DAYS.between(date, forecast.getLastDate()) - 1;
+            double current = forecast.getSmoothedRate() != null ? forecast.getSmoothedRate().doubleValue() : 0;
+            double contribution = alpha * quantity.doubleValue() * Math.pow(1 - alpha, age);
+            forecast.setSmoothedRate(BigDecimal.valueOf(current + contribution).setScale(4, RoundingMode.HALF_UP));
+        }
+        return forecast;
+    }
+
+    /**
+     * Tiêu thụ / ngày tính trên các ngày đã kết thúc trước ngày day
+     * Ngày lastDate được gộp vào EMA, các ngày sau đó không có xuất kho tính là 0.
+     */
+    static double rateBefore(MaterialForecast forecast, LocalDate day, double alpha) {
+        if (!day.isAfter(forecast.getLastDate())) {
+            return forecast.getSmoothedRate() != null ? forecast.getSmoothedRate().doubleValue() : 0;
+        }
+        double last = forecast.getLastQuantity().doubleValue();
+        double rate = forecast.getSmoothedRate() != null
+                ? alpha * last + (1 - alpha) * forecast.getSmoothedRate().doubleValue()
+                : last;
+        long idleDays = ChronoUnit.DAYS.between(forecast.getLastDate(), day) - 1;
+        return rate * Math.pow(1 - alpha, idleDays);
+    }
+}
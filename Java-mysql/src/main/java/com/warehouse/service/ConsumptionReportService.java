@@ -0,0 +1,178 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.response.ConsumptionReportRowDTO;
+import com.warehouse.dto.response.SupplierImportReportDTO;
+import com.warehouse.entity.Transaction;
+import com.warehouse.repository.DailyMaterialStatRepository;
+import com.warehouse.repository.DailySupplierStatRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service cho báo cáo tiêu thụ nguyên liệu và giá trị nhập theo nhà cung cấp
+ * Báo cáo đọc từ các bảng tổng hợp theo ngày (daily_material_stats, daily_supplier_stats)
+ * thay vì quét bảng transactions; mỗi giao dịch cộng dồn vào bảng tổng hợp trong cùng transaction.
+ */
+@Service
+@Transactional
+public class ConsumptionReportService {
+
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    @Autowired
+    private DailyMaterialStatRepository materialStatRepository;
+
+    @Autowired
+    private DailySupplierStatRepository supplierStatRepository;
+
+    /**
+     * Cộng dồn các giao dịch vừa lưu vào bảng tổng hợp
+     * Các dòng được gộp theo khóa trước, rồi ghi theo thứ tự khóa để hai lô chạy song song
+     * luôn khóa các dòng tổng hợp theo cùng một thứ tự.
+     */
+    public void record(List<Transaction> transactions) {
+        Map<String, Delta> byMaterial = new TreeMap<>();
+        Map<String, Delta> bySupplier = new TreeMap<>();
+
+        for (Transaction transaction : transactions) {
+            LocalDate date = transaction.getTransactionDate().toLocalDate();
+            Long materialId = transaction.getMaterial().getId();
+            boolean isImport = transaction.getType() == Transaction.TransactionType.IMPORT;
+            BigDecimal value = transaction.getTotalPrice() != null ? transaction.getTotalPrice() : BigDecimal.ZERO;
+
+            byMaterial.computeIfAbsent(materialId + "|" + date, k -> new Delta(materialId, date))
+                    .add(isImport, transaction.getQuantity(), value);
+            if (isImport && transaction.getSupplier() != null) {
+                Long supplierId = transaction.getSupplier().getId();
+                bySupplier.computeIfAbsent(supplierId + "|" + date, k -> new Delta(supplierId, date))
+                        .add(true, transaction.getQuantity(), value);
+            }
+        }
+
+        for (Delta delta : byMaterial.values()) {
+            materialStatRepository.add(delta.id, delta.date,
+                    delta.importQuantity, delta.importValue, delta.importCount,
+                    delta.exportQuantity, delta.exportValue, delta.exportCount);
+        }
+        for (Delta delta : bySupplier.values()) {
+            supplierStatRepository.add(delta.id, delta.date,
+                    delta.importQuantity, delta.importValue, delta.importCount);
+        }
+    }
+
+    /**
+     * Báo cáo tiêu thụ theo nguyên liệu và kỳ (ngày / tuần / tháng)
+     */
+    @Transactional(readOnly = true)
+    public List<ConsumptionReportRowDTO> getConsumption(LocalDate startDate, LocalDate endDate,
+                                                        Long materialId, Granularity granularity) {
+        LocalDate[] range = normalizeRange(startDate, endDate);
+        List<ConsumptionReportRowDTO> daily = materialStatRepository.findDaily(range[0], range[1], materialId);
+        if (granularity == null || granularity == Granularity.DAY) {
+            return daily;
+        }
+
+        Map<String, ConsumptionReportRowDTO> grouped = new LinkedHashMap<>();
+        for (ConsumptionReportRowDTO row : daily) {
+            LocalDate period = granularity == Granularity.WEEK
+                    ? row.getPeriod().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                    : row.getPeriod().withDayOfMonth(1);
+            ConsumptionReportRowDTO total = grouped.computeIfAbsent(period + "|" + row.getMaterialId(),
+                    k -> new ConsumptionReportRowDTO(period, row.getMaterialId(), row.getMaterialCode(),
+                            row.getMaterialName(), row.getUnit(), BigDecimal.ZERO, BigDecimal.ZERO, 0L,
+                            BigDecimal.ZERO, BigDecimal.ZERO, 0L));
+            total.setImportQuantity(total.getImportQuantity().add(row.getImportQuantity()));
+            total.setImportValue(total.getImportValue().add(row.getImportValue()));
+            total.setImportCount(total.getImportCount() + row.getImportCount());
+            total.setExportQuantity(total.getExportQuantity().add(row.getExportQuantity()));
+            total.setExportValue(total.getExportValue().add(row.getExportValue()));
+            total.setExportCount(total.getExportCount() + row.getExportCount());
+        }
+
+        List<ConsumptionReportRowDTO> result = new ArrayList<>(grouped.values());
+        result.sort(Comparator.comparing(ConsumptionReportRowDTO::getPeriod)
+                .thenComparing(ConsumptionReportRowDTO::getMaterialId));
+        return result;
+    }
+
+    /**
+     * Báo cáo giá trị nhập kho theo nhà cung cấp
+     */
+    @Transactional(readOnly = true)
+    public List<SupplierImportReportDTO> getSupplierImports(LocalDate startDate, LocalDate endDate) {
+        LocalDate[] range = normalizeRange(startDate, endDate);
+        return supplierStatRepository.sumBySupplier(range[0], range[1]);
+    }
+
+    /**
+     * Tính lại toàn bộ bảng tổng hợp từ sổ giao dịch (sau khi sửa dữ liệu trực tiếp trong DB)
+     *
+     * @return số dòng tổng hợp theo nguyên liệu
+     */
+    public int rebuild() {
+        materialStatRepository.deleteAllRows();
+        supplierStatRepository.deleteAllRows();
+        supplierStatRepository.rebuildFromTransactions();
+        return materialStatRepository.rebuildFromTransactions();
+    }
+
+    /**
+     * Mặc định 30 ngày gần nhất; giới hạn độ dài khoảng thời gian
+     */
+    private LocalDate[] normalizeRange(LocalDate startDate, LocalDate endDate) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Ngày bắt đầu phải trước ngày kết thúc");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            throw new RuntimeException("Khoảng thời gian báo cáo tối đa " + MAX_RANGE_DAYS + " ngày");
+        }
+        return new LocalDate[]{start, end};
+    }
+
+    private static final class Delta {
+        private final Long id;
+        private final LocalDate date;
+        private BigDecimal importQuantity = BigDecimal.ZERO;
+        private BigDecimal importValue = BigDecimal.ZERO;
+        private int importCount;
+        private BigDecimal exportQuantity = BigDecimal.ZERO;
+        private BigDecimal exportValue = BigDecimal.ZERO;
+        private int exportCount;
+
+        private Delta(Long id, LocalDate date) {
+            this.id = id;
+            this.date = date;
+        }
+
+        private void add(boolean isImport, BigDecimal quantity, BigDecimal value) {
+            if (isImport) {
+                importQuantity = importQuantity.add(quantity);
+                importValue = importValue.add(value);
+                importCount++;
+            } else {
+                exportQuantity = exportQuantity.add(quantity);
+                exportValue = exportValue.add(value);
+                exportCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.warehouse.service;
+
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
+import com.warehouse.repository.MaterialLotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service quản lý lô nguyên liệu và phân bổ xuất kho theo FEFO
+ * Các lô còn hàng của những nguyên liệu trong một lần nhập / xuất được nạp bằng một truy vấn
+ * khóa (SELECT ... FOR UPDATE, đọc bản mới nhất thay vì snapshot của transaction), đã sắp theo FEFO.
+ * Việc phân bổ chạy trong bộ nhớ trên danh sách đó và các lô bị thay đổi được Hibernate ghi
+ * theo lô JDBC khi flush.
+ */
+@Service
+@Transactional
+public class MaterialLotService {
+
+    @Autowired
+    private MaterialLotRepository lotRepository;
+
+    /**
+     * Các lô còn hàng của một nguyên liệu theo thứ tự FEFO
+     */
+    @Transactional(readOnly = true)
+    public List<MaterialLot> getOpenLots(Long materialId) {
+        return lotRepository.findOpenLots(List.of(materialId));
+    }
+
+    /**
+     * Nạp và khóa các lô còn hàng của nhiều nguyên liệu bằng một truy vấn, mỗi danh sách theo thứ tự FEFO
+     * Phải gọi sau khi đã khóa các dòng nguyên liệu (UPDATE tồn kho) để mọi giao dịch khóa theo cùng thứ tự.
+     */
+    public Map<Long, List<MaterialLot>> loadOpenLots(Collection<Long> materialIds) {
+        Map<Long, List<MaterialLot>> lots = new HashMap<>();
+        materialIds.forEach(id -> lots.put(id, new ArrayList<>()));
+        if (!materialIds.isEmpty()) {
+            for (MaterialLot lot : lotRepository.findOpenLotsForUpdate(materialIds)) {
+                lots.get(lot.getMaterialId()).add(lot);
+            }
+        }
+        return lots;
+    }
+
+    /**
+     * Các lô còn hàng có hạn dùng <= horizon, theo nguyên liệu
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<MaterialLot>> findExpiringLots(LocalDate horizon) {
+        Map<Long, List<MaterialLot>> lots = new HashMap<>();
+        for (MaterialLot lot : lotRepository.findExpiringLots(horizon)) {
+            lots.computeIfAbsent(lot.getMaterialId(), k -> new ArrayList<>()).add(lot);
+        }
+        return lots;
+    }
+
+    /**
+     * Tạo lô mới khi nhập kho (được INSERT theo lô JDBC khi flush)
+     */
+    public MaterialLot receive(Material material, BigDecimal quantity, LocalDate expiryDate,
+                               String lotCode, LocalDateTime receivedAt) {
+        return lotRepository.save(new MaterialLot(null, material.getId(), lotCode, expiryDate,
+                quantity, quantity, receivedAt));
+    }
+
+    /**
+     * Trừ lượng xuất kho vào các lô theo FEFO; lô hết hàng bị bỏ khỏi danh sách
+     *
+     * @return phần không có lô tương ứng (tồn kho cũ chưa được ghi nhận theo lô)
+     */
+    public BigDecimal allocate(List<MaterialLot> openLots, BigDecimal quantity) {
+        BigDecimal remaining = quantity;
+        int depleted = 0;
+        for (MaterialLot lot : openLots) {
+            if (remaining.signum() <= 0) {
+                break;
+            }
+            BigDecimal taken = lot.getRemainingQuantity().min(remaining);
+            lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(taken));
+            remaining = remaining.subtract(taken);
+            if (lot.getRemainingQuantity().signum() == 0) {
+                depleted++;
+            }
+        }
+        openLots.subList(0, depleted).clear();
+        return remaining;
+    }
+
+    /**
+     * Hạn dùng sớm nhất trong các lô còn hàng (null nếu không lô nào có hạn dùng)
+     */
+    public static LocalDate earliestExpiry(List<MaterialLot> openLots) {
+        return openLots.isEmpty() ? null : openLots.get(0).getExpiryDate();
+    }
+}
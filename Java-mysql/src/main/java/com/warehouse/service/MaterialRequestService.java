@@ -1,23 +1,35 @@
 package com.warehouse.service;
 
+import com.warehouse.cache.MaterialCache;
 import com.warehouse.dto.request.MaterialRequestDTO;
+import com.warehouse.dto.response.MaterialRequestSummaryDTO;
 import com.warehouse.entity.Employee;
 import com.warehouse.entity.Material;
 import com.warehouse.entity.MaterialRequest;
+import com.warehouse.entity.OutboxMessage;
+import com.warehouse.event.MaterialRequestEvent;
+import com.warehouse.outbox.OutboxService;
 import com.warehouse.repository.EmployeeRepository;
 import com.warehouse.repository.MaterialRepository;
 import com.warehouse.repository.MaterialRequestRepository;
+import com.warehouse.security.EmployeePrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 /**
  * Service cho quản lý yêu cầu bổ sung nguyên liệu
+ * Phê duyệt / từ chối là UPDATE có điều kiện trên trạng thái yêu cầu: khi nhiều người xử lý
+ * cùng lúc chỉ một người thành công. Phê duyệt giữ hàng cho yêu cầu (reservedQuantity),
+ * phần giữ được dùng khi xuất kho theo yêu cầu hoặc trả lại khi từ chối / hết hạn giữ;
+ * thông báo kết quả được gửi qua outbox sau khi commit.
  */
 @Service
 @Transactional
@@ -32,37 +44,64 @@ public class MaterialRequestService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private CodeGenerator codeGenerator;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private MaterialCache materialCache;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Tạo yêu cầu bổ sung
      */
     public MaterialRequest createRequest(MaterialRequestDTO dto) {
+        return createRequest(dto, getCurrentEmployee());
+    }
+
+    /**
+     * Tạo yêu cầu bổ sung thay mặt một nhân viên (dùng cho yêu cầu tự động đề xuất)
+     */
+    public MaterialRequest createRequest(MaterialRequestDTO dto, Employee requester) {
         Material material = materialRepository.findById(dto.getMaterialId())
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu"));
 
         MaterialRequest request = new MaterialRequest();
-        request.setRequestCode(generateRequestCode());
+        request.setRequestCode(codeGenerator.nextCode("REQ"));
         request.setMaterial(material);
         request.setRequestedQuantity(dto.getRequestedQuantity());
         request.setUnit(dto.getUnit());
-        request.setRequester(getCurrentEmployee());
+        request.setRequester(requester);
         request.setStatus(MaterialRequest.RequestStatus.PENDING);
         request.setReason(dto.getReason());
         request.setNote(dto.getNote());
 
-        return requestRepository.save(request);
+        MaterialRequest saved = requestRepository.save(request);
+        eventPublisher.publishEvent(new MaterialRequestEvent(MaterialRequestEvent.Type.CREATED, saved));
+        return saved;
     }
 
     /**
      * Lấy tất cả yêu cầu
      */
-    public List<MaterialRequest> getAllRequests() {
-        return requestRepository.findAll();
+    public List<MaterialRequestSummaryDTO> getAllRequests() {
+        return requestRepository.findAllSummaries();
     }
 
     /**
      * Lấy yêu cầu chờ xử lý
      */
-    public List<MaterialRequest> getPendingRequests() {
+    public List<MaterialRequestSummaryDTO> getPendingRequests() {
         return requestRepository.findPendingRequests();
     }
 
@@ -75,54 +114,83 @@ public class MaterialRequestService {
     }
 
     /**
-     * Phê duyệt yêu cầu
+     * Phê duyệt yêu cầu và giữ hàng (tối đa phần tồn kho còn khả dụng)
+     * Dòng nguyên liệu được khóa trước dòng yêu cầu, cùng thứ tự với xuất kho.
+     *
+     * @param idempotencyKey khóa của lần gọi; gọi lại với cùng khóa trả về kết quả cũ thay vì báo lỗi
      */
-    public MaterialRequest approveRequest(Long id) {
+    public MaterialRequest approveRequest(Long id, String idempotencyKey) {
+        validateIdempotencyKey(idempotencyKey);
         MaterialRequest request = getRequestById(id);
-        
-        if (request.getStatus() != MaterialRequest.RequestStatus.PENDING) {
-            throw new RuntimeException("Yêu cầu đã được xử lý");
-        }
+        Material material = request.getMaterial();
+        stockLedgerService.lock(material);
 
-        request.setStatus(MaterialRequest.RequestStatus.APPROVED);
-        request.setApprover(getCurrentEmployee());
-        request.setApprovedAt(LocalDateTime.now());
+        if (requestRepository.approvePending(id, getCurrentEmployee(), LocalDateTime.now(), idempotencyKey) == 0) {
+            return replayOrThrow(request, MaterialRequest.RequestStatus.APPROVED, idempotencyKey);
+        }
+        entityManager.refresh(request);
 
-        return requestRepository.save(request);
+        BigDecimal reserved = stockLedgerService.reserve(material, request.getRequestedQuantity());
+        request.setReservedQuantity(reserved);
+        materialCache.putAfterCommit(material);
+        outboxService.enqueue(OutboxMessage.Type.REQUEST_APPROVED, id);
+        return request;
     }
 
     /**
-     * Từ chối yêu cầu
+     * Từ chối yêu cầu đang chờ hoặc đã duyệt nhưng chưa xuất kho; phần hàng đang giữ được trả lại
+     * Dòng nguyên liệu được khóa trước dòng yêu cầu, cùng thứ tự với phê duyệt và xuất kho.
+     *
+     * @param idempotencyKey khóa của lần gọi; gọi lại với cùng khóa trả về kết quả cũ thay vì báo lỗi
      */
-    public MaterialRequest rejectRequest(Long id, String reason) {
+    public MaterialRequest rejectRequest(Long id, String reason, String idempotencyKey) {
+        validateIdempotencyKey(idempotencyKey);
         MaterialRequest request = getRequestById(id);
-        
-        if (request.getStatus() != MaterialRequest.RequestStatus.PENDING) {
-            throw new RuntimeException("Yêu cầu đã được xử lý");
-        }
+        Material material = request.getMaterial();
+        stockLedgerService.lock(material);
 
-        request.setStatus(MaterialRequest.RequestStatus.REJECTED);
-        request.setApprover(getCurrentEmployee());
-        request.setApprovedAt(LocalDateTime.now());
-        request.setNote(request.getNote() + "\nLý do từ chối: " + reason);
+        if (requestRepository.rejectOpen(id, getCurrentEmployee(), LocalDateTime.now(), idempotencyKey,
+                "\nLý do từ chối: " + reason) == 0) {
+            return replayOrThrow(request, MaterialRequest.RequestStatus.REJECTED, idempotencyKey);
+        }
+        entityManager.refresh(request);
 
-        return requestRepository.save(request);
+        BigDecimal held = request.getReservedQuantity();
+        if (held != null && held.signum() > 0) {
+            request.setReservedQuantity(BigDecimal.ZERO);
+            stockLedgerService.release(material, held);
+            materialCache.putAfterCommit(material);
+        }
+        outboxService.enqueue(OutboxMessage.Type.REQUEST_REJECTED, id);
+        return request;
     }
 
     /**
-     * Sinh mã yêu cầu tự động
+     * Lấy nhân viên hiện tại
+     * Trả về tham chiếu (proxy) theo ID trong principal, không truy vấn DB
      */
-    private String generateRequestCode() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "REQ-" + timestamp;
+    private Employee getCurrentEmployee() {
+        return EmployeePrincipal.current()
+                .map(principal -> employeeRepository.getReferenceById(principal.getId()))
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy thông tin nhân viên"));
     }
 
     /**
-     * Lấy thông tin nhân viên hiện tại
+     * Yêu cầu đã được xử lý: trả về yêu cầu nếu đây là lần gọi lại của chính thao tác đó (cùng khóa)
      */
-    private Employee getCurrentEmployee() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return employeeRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy thông tin nhân viên"));
+    private MaterialRequest replayOrThrow(MaterialRequest request, MaterialRequest.RequestStatus status,
+                                          String idempotencyKey) {
+        entityManager.refresh(request);
+        if (idempotencyKey != null && request.getStatus() == status
+                && idempotencyKey.equals(request.getDecisionKey())) {
+            return request;
+        }
+        throw new RuntimeException("Yêu cầu đã được xử lý");
+    }
+
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
+            throw new RuntimeException("Idempotency-Key không hợp lệ (1-100 ký tự)");
+        }
     }
 }
@@ -1,15 +1,26 @@
 package com.warehouse.service;
 
+import com.warehouse.cache.MaterialCache;
+import com.warehouse.cache.MaterialSearchIndex;
+import com.warehouse.cache.SearchIndex;
+import com.warehouse.cache.MaterialWarningIndex;
+import com.warehouse.dto.response.CacheStatsDTO;
 import com.warehouse.dto.response.MaterialWarningDTO;
+import com.warehouse.dto.response.SearchPageDTO;
 import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
 import com.warehouse.repository.MaterialRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service cho quản lý nguyên liệu
@@ -18,89 +29,129 @@ import java.util.List;
 @Transactional
 public class MaterialService {
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
     @Autowired
     private MaterialRepository materialRepository;
 
+    @Autowired
+    private MaterialCache materialCache;
+
+    @Autowired
+    private MaterialWarningClassifier warningClassifier;
+
+    @Autowired
+    private MaterialWarningIndex warningIndex;
+
+    @Autowired
+    private MaterialSearchIndex searchIndex;
+
+    @Autowired
+    private MaterialLotService lotService;
+
+    @Value("${app.warning.expiring-days:7}")
+    private int expiringDays;
+
     /**
      * Lấy danh sách tất cả nguyên liệu
      */
     public List<Material> getAllMaterials() {
-        return materialRepository.findAll();
+        return materialCache.getAll();
     }
 
     /**
      * Lấy nguyên liệu theo ID
      */
     public Material getMaterialById(Long id) {
-        return materialRepository.findById(id)
+        return materialCache.getById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu với ID: " + id));
     }
 
     /**
-     * Tìm kiếm nguyên liệu theo tên
+     * Tìm kiếm nguyên liệu theo mã / tên / mô tả, xếp hạng và phân trang
+     * Dùng chỉ mục tìm kiếm trong bộ nhớ; khi chỉ mục chưa sẵn sàng thì lọc theo tên như trước.
+     *
+     * @param page trang (bắt đầu từ 0)
+     * @param size số kết quả mỗi trang (1..MAX_SEARCH_SIZE)
      */
-    public List<Material> searchMaterialsByName(String name) {
-        return materialRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SearchPageDTO<Material> searchMaterials(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Từ khóa tìm kiếm không được để trống");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+
+        Optional<SearchIndex.Page> ranked = searchIndex.search(query, offset, pageSize);
+        if (ranked.isPresent()) {
+            List<Material> items = new ArrayList<>(ranked.get().ids().size());
+            for (Long id : ranked.get().ids()) {
+                materialCache.getById(id).ifPresent(items::add);
+            }
+            int total = ranked.get().total();
+            return new SearchPageDTO<>(items, total, Math.max(0, page), pageSize, offset + pageSize < total);
+        }
+
+        List<Material> matches = materialCache.searchByName(query);
+        List<Material> items = matches.subList(Math.min(offset, matches.size()), Math.min(offset + pageSize, matches.size()));
+        return new SearchPageDTO<>(new ArrayList<>(items), matches.size(), Math.max(0, page), pageSize,
+                offset + pageSize < matches.size());
+    }
+
+    /**
+     * Lấy các lô còn hàng của nguyên liệu (thứ tự xuất kho FEFO)
+     */
+    public List<MaterialLot> getMaterialLots(Long materialId) {
+        getMaterialById(materialId);
+        return lotService.getOpenLots(materialId);
     }
 
     /**
      * Lấy cảnh báo tồn kho thấp / hết hạn
+     * Một truy vấn (quét toàn bộ bảng materials) lấy mọi nguyên liệu cần cảnh báo, phân loại trong một lượt duyệt.
+     * Cảnh báo hạn dùng tính theo lô (lô sắp hết hạn được nạp bằng một truy vấn thứ hai);
+     * lô đã hết hạn chỉ xuất hiện ở nhóm EXPIRED (không lặp lại ở EXPIRING_SOON).
+     *
+     * Với khoảng mặc định, kết quả được lấy từ chỉ mục cảnh báo trong bộ nhớ (không truy cập DB).
+     *
+     * @param days số ngày tới được coi là sắp hết hạn (null = app.warning.expiring-days)
      */
-    public List<MaterialWarningDTO> getWarnings() {
-        List<MaterialWarningDTO> warnings = new ArrayList<>();
-
-        // Nguyên liệu tồn kho thấp
-        List<Material> lowStockMaterials = materialRepository.findLowStockMaterials();
-        for (Material material : lowStockMaterials) {
-            MaterialWarningDTO warning = new MaterialWarningDTO();
-            warning.setId(material.getId());
-            warning.setCode(material.getCode());
-            warning.setName(material.getName());
-            warning.setQuantity(material.getQuantity());
-            warning.setMinQuantity(material.getMinQuantity());
-            warning.setUnit(material.getUnit());
-            warning.setExpiryDate(material.getExpiryDate());
-            warning.setStatus(material.getStatus());
-            warning.setWarningType("LOW_STOCK");
-            warning.setWarningMessage("Tồn kho thấp! Số lượng hiện tại: " + material.getQuantity() + " " + material.getUnit());
-            warnings.add(warning);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<MaterialWarningDTO> getWarnings(Integer days) {
+        int horizonDays = days != null ? days : expiringDays;
+        if (horizonDays < 0) {
+            throw new RuntimeException("Số ngày cảnh báo không hợp lệ: " + horizonDays);
         }
-
-        // Nguyên liệu sắp hết hạn (trong vòng 7 ngày)
-        LocalDate sevenDaysLater = LocalDate.now().plusDays(7);
-        List<Material> expiringSoon = materialRepository.findExpiringSoonMaterials(sevenDaysLater);
-        for (Material material : expiringSoon) {
-            MaterialWarningDTO warning = new MaterialWarningDTO();
-            warning.setId(material.getId());
-            warning.setCode(material.getCode());
-            warning.setName(material.getName());
-            warning.setQuantity(material.getQuantity());
-            warning.setMinQuantity(material.getMinQuantity());
-            warning.setUnit(material.getUnit());
-            warning.setExpiryDate(material.getExpiryDate());
-            warning.setStatus(material.getStatus());
-            warning.setWarningType("EXPIRING_SOON");
-            warning.setWarningMessage("Sắp hết hạn sử dụng! Hạn dùng: " + material.getExpiryDate());
-            warnings.add(warning);
+        if (horizonDays == expiringDays) {
+            Optional<List<MaterialWarningDTO>> indexed = warningIndex.getWarnings();
+            if (indexed.isPresent()) {
+                return indexed.get();
+            }
         }
+        LocalDate today = LocalDate.now();
+        LocalDate horizon = today.plusDays(horizonDays);
+
+        // Giữ thứ tự cũ: tồn kho thấp, sắp hết hạn, đã hết hạn
+        List<MaterialWarningDTO> lowStock = new ArrayList<>();
+        List<MaterialWarningDTO> expiringSoon = new ArrayList<>();
+        List<MaterialWarningDTO> expired = new ArrayList<>();
 
-        // Nguyên liệu đã hết hạn
-        List<Material> expired = materialRepository.findExpiredMaterials();
-        for (Material material : expired) {
-            MaterialWarningDTO warning = new MaterialWarningDTO();
-            warning.setId(material.getId());
-            warning.setCode(material.getCode());
-            warning.setName(material.getName());
-            warning.setQuantity(material.getQuantity());
-            warning.setMinQuantity(material.getMinQuantity());
-            warning.setUnit(material.getUnit());
-            warning.setExpiryDate(material.getExpiryDate());
-            warning.setStatus(Material.Status.EXPIRED);
-            warning.setWarningType("EXPIRED");
-            warning.setWarningMessage("ĐÃ HẾT HẠN! Hạn dùng: " + material.getExpiryDate());
-            warnings.add(warning);
+        Map<Long, List<MaterialLot>> lots = lotService.findExpiringLots(horizon);
+        for (Material material : materialRepository.findWarningCandidates(horizon)) {
+            for (MaterialWarningDTO warning : warningClassifier.classify(material,
+                    lots.getOrDefault(material.getId(), List.of()), today, horizon)) {
+                switch (warning.getWarningType()) {
+                    case MaterialWarningClassifier.LOW_STOCK -> lowStock.add(warning);
+                    case MaterialWarningClassifier.EXPIRING_SOON -> expiringSoon.add(warning);
+                    default -> expired.add(warning);
+                }
+            }
         }
 
+        List<MaterialWarningDTO> warnings = new ArrayList<>(lowStock.size() + expiringSoon.size() + expired.size());
+        warnings.addAll(lowStock);
+        warnings.addAll(expiringSoon);
+        warnings.addAll(expired);
         return warnings;
     }
 
@@ -108,6 +159,40 @@ public class MaterialService {
      * Cập nhật trạng thái nguyên liệu
      */
     public void updateMaterialStatus(Material material) {
+        applyStatus(material);
+        materialRepository.save(material);
+        materialCache.putAfterCommit(material);
+    }
+
+    /**
+     * Tính lại toàn bộ chỉ mục cảnh báo từ DB
+     */
+    @Transactional(readOnly = true)
+    public void rebuildWarningIndex() {
+        warningIndex.rebuild();
+    }
+
+    /**
+     * Nạp lại chỉ mục tìm kiếm nguyên liệu từ DB
+     *
+     * @return số nguyên liệu trong chỉ mục
+     */
+    @Transactional(readOnly = true)
+    public int rebuildSearchIndex() {
+        return searchIndex.rebuild();
+    }
+
+    /**
+     * Thống kê cache danh mục nguyên liệu
+     */
+    public CacheStatsDTO getCacheStats() {
+        return materialCache.getStats();
+    }
+
+    /**
+     * Tính lại trạng thái nguyên liệu (không lưu xuống DB)
+     */
+    public void applyStatus(Material material) {
         // Kiểm tra hết hạn
         if (material.getExpiryDate() != null && material.getExpiryDate().isBefore(LocalDate.now())) {
             material.setStatus(Material.Status.EXPIRED);
@@ -124,6 +209,5 @@ public class MaterialService {
         else {
             material.setStatus(Material.Status.AVAILABLE);
         }
-        materialRepository.save(material);
     }
 }
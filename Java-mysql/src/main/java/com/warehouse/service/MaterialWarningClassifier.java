@@ -0,0 +1,98 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.response.MaterialWarningDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phân loại cảnh báo cho một nguyên liệu
+ * Mỗi nguyên liệu có tối đa một cảnh báo tồn kho (LOW_STOCK); cảnh báo hạn dùng được tính theo lô,
+ * mỗi lô còn hàng có tối đa một cảnh báo (EXPIRED hoặc EXPIRING_SOON, không bao giờ cả hai).
+ * Nguyên liệu chưa có lô nào có hạn dùng dùng hạn dùng của nguyên liệu (dữ liệu trước khi quản lý theo lô).
+ */
+@Component
+public class MaterialWarningClassifier {
+
+    public static final String LOW_STOCK = "LOW_STOCK";
+    public static final String EXPIRING_SOON = "EXPIRING_SOON";
+    public static final String EXPIRED = "EXPIRED";
+
+    /**
+     * Tính các cảnh báo của nguyên liệu
+     *
+     * @param lots    các lô còn hàng của nguyên liệu (chỉ các lô có hạn dùng <= horizon được xét)
+     * @param today   ngày hiện tại
+     * @param horizon lô có hạn dùng trong khoảng [today, horizon] được coi là sắp hết hạn
+     */
+    public List<MaterialWarningDTO> classify(Material material, List<MaterialLot> lots,
+                                             LocalDate today, LocalDate horizon) {
+        List<MaterialWarningDTO> warnings = new ArrayList<>(2);
+
+        if (isLowStock(material)) {
+            MaterialWarningDTO warning = toWarning(material);
+            warning.setWarningType(LOW_STOCK);
+            warning.setWarningMessage("Tồn kho thấp! Số lượng hiện tại: " + material.getQuantity() + " " + material.getUnit());
+            warnings.add(warning);
+        }
+
+        boolean hasLots = false;
+        for (MaterialLot lot : lots) {
+            if (lot.getExpiryDate() != null) {
+                hasLots = true;
+                addExpiryWarning(warnings, material, lot, lot.getExpiryDate(), today, horizon);
+            }
+        }
+        if (!hasLots && material.getExpiryDate() != null) {
+            addExpiryWarning(warnings, material, null, material.getExpiryDate(), today, horizon);
+        }
+        return warnings;
+    }
+
+    private void addExpiryWarning(List<MaterialWarningDTO> warnings, Material material, MaterialLot lot,
+                                  LocalDate expiryDate, LocalDate today, LocalDate horizon) {
+        if (expiryDate.isAfter(horizon)) {
+            return;
+        }
+        MaterialWarningDTO warning = toWarning(material);
+        warning.setExpiryDate(expiryDate);
+        String lotInfo = "";
+        if (lot != null) {
+            warning.setLotId(lot.getId());
+            warning.setLotCode(lot.getLotCode());
+            warning.setLotQuantity(lot.getRemainingQuantity());
+            lotInfo = " Lô " + lot.getLotCode() + " còn " + lot.getRemainingQuantity() + " " + material.getUnit() + ".";
+        }
+        if (expiryDate.isBefore(today)) {
+            warning.setStatus(Material.Status.EXPIRED);
+            warning.setWarningType(EXPIRED);
+            warning.setWarningMessage("ĐÃ HẾT HẠN! Hạn dùng: " + expiryDate + "." + lotInfo);
+        } else {
+            warning.setWarningType(EXPIRING_SOON);
+            warning.setWarningMessage("Sắp hết hạn sử dụng! Hạn dùng: " + expiryDate + "." + lotInfo);
+        }
+        warnings.add(warning);
+    }
+
+    private boolean isLowStock(Material material) {
+        return material.getQuantity() != null && material.getMinQuantity() != null
+                && material.getQuantity().compareTo(material.getMinQuantity()) <= 0;
+    }
+
+    private MaterialWarningDTO toWarning(Material material) {
+        MaterialWarningDTO warning = new MaterialWarningDTO();
+        warning.setId(material.getId());
+        warning.setCode(material.getCode());
+        warning.setName(material.getName());
+        warning.setQuantity(material.getQuantity());
+        warning.setMinQuantity(material.getMinQuantity());
+        warning.setUnit(material.getUnit());
+        warning.setExpiryDate(material.getExpiryDate());
+        warning.setStatus(material.getStatus());
+        return warning;
+    }
+}
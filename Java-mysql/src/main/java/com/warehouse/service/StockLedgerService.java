@@ -0,0 +1,128 @@
+package com.warehouse.service;
+
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.repository.MaterialRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Service ghi sổ tồn kho: cộng / trừ số lượng bằng câu lệnh UPDATE có điều kiện
+ * để nhiều giao dịch đồng thời không ghi đè lẫn nhau và tồn kho không bị âm.
+ * Câu lệnh UPDATE giữ khóa dòng đến khi transaction kết thúc, nên sau khi
+ * nạp lại entity, các thay đổi khác trên nguyên liệu (đơn giá, trạng thái...)
+ * được ghi an toàn trong cùng transaction.
+ */
+@Service
+@Transactional
+public class StockLedgerService {
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Cộng tồn kho và nạp lại số lượng mới nhất vào entity
+     */
+    public void increase(Material material, BigDecimal quantity) {
+        int updated = materialRepository.increaseQuantity(material.getId(), quantity, LocalDateTime.now());
+        if (updated == 0) {
+            throw new RuntimeException("Không tìm thấy nguyên liệu");
+        }
+        entityManager.refresh(material);
+    }
+
+    /**
+     * Trừ tồn kho nếu còn đủ số lượng khả dụng và nạp lại số lượng mới nhất vào entity
+     *
+     * @return false nếu không đủ số lượng (tồn kho không thay đổi)
+     */
+    public boolean tryDecrease(Material material, BigDecimal quantity) {
+        return tryDecrease(material, quantity, BigDecimal.ZERO);
+    }
+
+    /**
+     * Trừ tồn kho cho yêu cầu đã được giữ hàng: phần đang giữ (released) được tính vào số lượng
+     * có thể xuất và được trả lại trong cùng câu lệnh UPDATE
+     *
+     * @return false nếu không đủ số lượng (tồn kho và phần giữ không thay đổi)
+     */
+    public boolean tryDecrease(Material material, BigDecimal quantity, BigDecimal released) {
+        int updated = materialRepository.decreaseQuantity(material.getId(), quantity, released, LocalDateTime.now());
+        entityManager.refresh(material);
+        return updated > 0;
+    }
+
+    /**
+     * Giữ hàng cho yêu cầu đã phê duyệt: giữ tối đa phần tồn kho còn khả dụng
+     * Nguyên liệu phải đã được khóa bằng lock() trong transaction hiện tại, nên số lượng trên entity là mới nhất
+     * và các lần giữ hàng / xuất kho đồng thời trên cùng nguyên liệu được thực hiện lần lượt.
+     *
+     * @return số lượng thực sự được giữ (0 nếu không còn hàng khả dụng)
+     */
+    public BigDecimal reserve(Material material, BigDecimal quantity) {
+        BigDecimal reserved = quantity.min(material.getAvailableQuantity());
+        if (reserved.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        if (materialRepository.reserveQuantity(material.getId(), reserved, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Không giữ được hàng cho nguyên liệu: " + material.getCode());
+        }
+        entityManager.refresh(material);
+        return reserved;
+    }
+
+    /**
+     * Khóa nguyên liệu rồi khóa yêu cầu (cùng thứ tự với phê duyệt / từ chối) và đọc lại phần hàng yêu cầu đang giữ
+     * Các thay đổi chưa ghi được flush trước để không bị refresh ghi đè.
+     *
+     * @return số lượng đang giữ (0 nếu yêu cầu không còn ở trạng thái APPROVED)
+     */
+    public BigDecimal lockHold(Material material, MaterialRequest request) {
+        entityManager.flush();
+        lock(material);
+        lock(request);
+        if (request.getStatus() != MaterialRequest.RequestStatus.APPROVED || request.getReservedQuantity() == null) {
+            return BigDecimal.ZERO;
+        }
+        return request.getReservedQuantity().max(BigDecimal.ZERO);
+    }
+
+    /**
+     * Khóa dòng của entity (SELECT ... FOR UPDATE) và nạp lại trạng thái mới nhất đã commit
+     * Nguyên liệu lấy qua quan hệ của yêu cầu là proxy chưa nạp: refresh trên proxy chưa nạp không chạy
+     * câu lệnh nào (không khóa), nên proxy được nạp bằng find có khóa.
+     */
+    public void lock(Object entity) {
+        LazyInitializer proxy = HibernateProxy.extractLazyInitializer(entity);
+        if (proxy != null && proxy.isUninitialized()) {
+            entityManager.find(proxy.getPersistentClass(), proxy.getInternalIdentifier(), LockModeType.PESSIMISTIC_WRITE);
+        } else {
+            entityManager.refresh(entity, LockModeType.PESSIMISTIC_WRITE);
+        }
+    }
+
+    /**
+     * Trả lại số lượng đang giữ và nạp lại entity
+     * Các thay đổi chưa ghi của entity (trạng thái, hạn dùng...) được flush trước để không bị refresh ghi đè.
+     */
+    public void release(Material material, BigDecimal quantity) {
+        if (quantity == null || quantity.signum() <= 0) {
+            return;
+        }
+        entityManager.flush();
+        materialRepository.releaseReservedQuantity(material.getId(), quantity, LocalDateTime.now());
+        entityManager.refresh(material);
+    }
+}
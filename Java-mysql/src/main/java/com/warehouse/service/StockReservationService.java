@@ -0,0 +1,106 @@
+package com.warehouse.service;
+
+import com.warehouse.cache.MaterialCache;
+import com.warehouse.dto.response.ReservationCheckDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.repository.MaterialRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service quản lý hàng đang giữ cho các yêu cầu đã phê duyệt
+ * - Sổ giữ hàng là cột reserved_quantity của từng yêu cầu APPROVED; cột reserved_quantity của nguyên liệu
+ *   là bộ đếm tổng để kiểm tra tồn kho khả dụng trong một câu lệnh UPDATE
+ * - Phần giữ quá app.reservation.hold-hours kể từ lúc duyệt được trả lại theo lịch (yêu cầu vẫn APPROVED,
+ *   xuất kho sau đó chỉ dùng tồn kho khả dụng)
+ * - Đối chiếu / tính lại bộ đếm từ sổ giữ hàng khi dữ liệu bị sửa trực tiếp trong DB
+ */
+@Service
+@Transactional
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    @Autowired
+    private MaterialRequestRepository requestRepository;
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private MaterialCache materialCache;
+
+    @Value("${app.reservation.hold-hours:48}")
+    private long holdHours;
+
+    /**
+     * Trả lại phần giữ của các yêu cầu đã duyệt quá thời hạn giữ hàng
+     * Các yêu cầu được xử lý theo thứ tự nguyên liệu, mỗi nguyên liệu khóa trước yêu cầu (cùng thứ tự với xuất kho).
+     *
+     * @return số yêu cầu được trả lại phần giữ
+     */
+    public int releaseExpiredHolds() {
+        List<MaterialRequest> expired = requestRepository.findExpiredHolds(LocalDateTime.now().minusHours(holdHours));
+        int released = 0;
+        for (MaterialRequest request : expired) {
+            Material material = request.getMaterial();
+            // Đọc lại phần giữ sau khi khóa: yêu cầu có thể vừa được xuất kho hoặc từ chối
+            BigDecimal held = stockLedgerService.lockHold(material, request);
+            if (held.signum() <= 0) {
+                continue;
+            }
+            request.setReservedQuantity(BigDecimal.ZERO);
+            stockLedgerService.release(material, held);
+            materialCache.putAfterCommit(material);
+            released++;
+        }
+        return released;
+    }
+
+    @Scheduled(cron = "${app.reservation.expiry-cron:0 */15 * * * *}")
+    public void scheduledRelease() {
+        int released = releaseExpiredHolds();
+        if (released > 0) {
+            log.info("Đã trả lại hàng giữ quá hạn của {} yêu cầu", released);
+        }
+    }
+
+    /**
+     * Đối chiếu bộ đếm giữ hàng của nguyên liệu với tổng phần giữ của các yêu cầu đã duyệt
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationCheckDTO> check() {
+        return materialRepository.checkReservations();
+    }
+
+    /**
+     * Tính lại bộ đếm giữ hàng của mọi nguyên liệu từ các yêu cầu đã duyệt
+     *
+     * @return các nguyên liệu bị lệch trước khi tính lại
+     */
+    public List<ReservationCheckDTO> reconcile() {
+        List<ReservationCheckDTO> drifted = materialRepository.checkReservations().stream()
+                .filter(row -> !row.isConsistent())
+                .toList();
+        materialRepository.reconcileReservedQuantities();
+        materialCache.clear();
+        if (!drifted.isEmpty()) {
+            log.warn("Đã tính lại bộ đếm giữ hàng cho {} nguyên liệu bị lệch", drifted.size());
+        }
+        return drifted;
+    }
+}
@@ -0,0 +1,129 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.response.MaterialNetChangeDTO;
+import com.warehouse.dto.response.StockAsOfDTO;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.StockSnapshot;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.repository.StockSnapshotRepository;
+import com.warehouse.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service tính tồn kho tại một thời điểm trong quá khứ
+ * - Mỗi ngày chụp tồn kho cuối ngày hôm trước của mọi nguyên liệu (stock_snapshots)
+ * - Tồn kho cuối ngày D = ảnh chụp gần nhất không sau D + các giao dịch sau ảnh chụp đến hết ngày D
+ * - Chưa có ảnh chụp nào trước D: tính ngược từ tồn kho hiện tại trừ các giao dịch sau ngày D
+ * Ảnh chụp hằng ngày được giữ trong app.stock-snapshot.retention-days, sau đó chỉ giữ ngày cuối tháng.
+ */
+@Service
+@Transactional
+public class StockSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockSnapshotService.class);
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Value("${app.stock-snapshot.retention-days:90}")
+    private int retentionDays;
+
+    /**
+     * Tồn kho cuối ngày asOfDate (một nguyên liệu hoặc tất cả nếu materialId = null)
+     */
+    @Transactional(readOnly = true)
+    public List<StockAsOfDTO> getStockAsOf(LocalDate asOfDate, Long materialId) {
+        if (asOfDate == null) {
+            throw new RuntimeException("Ngày không được để trống");
+        }
+        List<Material> materials = materialId != null
+                ? List.of(materialRepository.findById(materialId)
+                        .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu với ID: " + materialId)))
+                : materialRepository.findAll();
+        LocalDateTime dayEnd = asOfDate.plusDays(1).atStartOfDay();
+
+        Map<Long, StockSnapshot> snapshots = Map.of();
+        Map<Long, MaterialNetChangeDTO> forward = Map.of();
+        LocalDate snapshotDate = snapshotRepository.findLatestSnapshotDate(asOfDate);
+        if (snapshotDate != null) {
+            snapshots = snapshotRepository.findBySnapshotDate(snapshotDate, materialId).stream()
+                    .collect(Collectors.toMap(StockSnapshot::getMaterialId, Function.identity()));
+            forward = toMap(transactionRepository.sumNetChanges(
+                    snapshotDate.plusDays(1).atStartOfDay(), dayEnd, materialId));
+        }
+
+        // Nguyên liệu chưa có trong ảnh chụp: tính ngược từ tồn kho hiện tại
+        Map<Long, MaterialNetChangeDTO> backward = Map.of();
+        if (snapshots.size() < materials.size()) {
+            backward = toMap(transactionRepository.sumNetChanges(dayEnd, null, materialId));
+        }
+
+        List<StockAsOfDTO> result = new ArrayList<>(materials.size());
+        for (Material material : materials) {
+            StockSnapshot snapshot = snapshots.get(material.getId());
+            BigDecimal quantity;
+            long replayed;
+            if (snapshot != null) {
+                MaterialNetChangeDTO change = forward.get(material.getId());
+                quantity = snapshot.getQuantity().add(change != null ? change.getNetQuantity() : BigDecimal.ZERO);
+                replayed = change != null ? change.getTransactionCount() : 0;
+            } else {
+                MaterialNetChangeDTO change = backward.get(material.getId());
+                quantity = material.getQuantity().subtract(change != null ? change.getNetQuantity() : BigDecimal.ZERO);
+                replayed = change != null ? change.getTransactionCount() : 0;
+            }
+            result.add(new StockAsOfDTO(material.getId(), material.getCode(), material.getName(), material.getUnit(),
+                    asOfDate, quantity, snapshot != null ? snapshotDate : null, replayed));
+        }
+        return result;
+    }
+
+    /**
+     * Chụp tồn kho cuối ngày cho mọi nguyên liệu (ghi đè ảnh chụp cùng ngày nếu có)
+     *
+     * @return số nguyên liệu được chụp
+     */
+    public int takeSnapshot(LocalDate snapshotDate) {
+        if (snapshotDate == null || !snapshotDate.isBefore(LocalDate.now())) {
+            throw new RuntimeException("Chỉ chụp được tồn kho của ngày đã kết thúc");
+        }
+        snapshotRepository.deleteBySnapshotDate(snapshotDate);
+        return snapshotRepository.insertSnapshot(snapshotDate, snapshotDate.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Chụp tồn kho cuối ngày hôm qua và dọn ảnh chụp hằng ngày quá hạn lưu trữ
+     */
+    @Scheduled(cron = "${app.stock-snapshot.cron:0 10 0 * * *}")
+    public void dailySnapshot() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        int count = takeSnapshot(yesterday);
+        int pruned = snapshotRepository.pruneDailySnapshots(LocalDate.now().minusDays(retentionDays));
+        log.info("Đã chụp tồn kho ngày {}: {} nguyên liệu, xóa {} ảnh chụp cũ", yesterday, count, pruned);
+    }
+
+    private static Map<Long, MaterialNetChangeDTO> toMap(List<MaterialNetChangeDTO> changes) {
+        return changes.stream().collect(Collectors.toMap(MaterialNetChangeDTO::getMaterialId, Function.identity()));
+    }
+}
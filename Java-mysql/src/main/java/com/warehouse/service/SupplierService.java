@@ -1,15 +1,21 @@
 package com.warehouse.service;
 
+import com.warehouse.cache.SearchIndex;
+import com.warehouse.cache.SupplierSearchIndex;
 import com.warehouse.dto.request.SupplierDTO;
+import com.warehouse.dto.response.SearchPageDTO;
 import com.warehouse.entity.Supplier;
 import com.warehouse.repository.SupplierRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service cho quản lý nhà cung cấp
@@ -18,9 +24,17 @@ import java.util.List;
 @Transactional
 public class SupplierService {
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
     @Autowired
     private SupplierRepository supplierRepository;
 
+    @Autowired
+    private CodeGenerator codeGenerator;
+
+    @Autowired
+    private SupplierSearchIndex searchIndex;
+
     /**
      * Lấy tất cả nhà cung cấp
      */
@@ -37,10 +51,39 @@ public class SupplierService {
     }
 
     /**
-     * Tìm kiếm nhà cung cấp theo tên
+     * Tìm kiếm nhà cung cấp theo mã / tên / người liên hệ / địa chỉ, xếp hạng và phân trang
+     * Dùng chỉ mục tìm kiếm trong bộ nhớ; khi chỉ mục chưa sẵn sàng thì tìm theo tên trong DB.
+     *
+     * @param page trang (bắt đầu từ 0)
+     * @param size số kết quả mỗi trang (1..MAX_SEARCH_SIZE)
      */
-    public List<Supplier> searchSuppliersByName(String name) {
-        return supplierRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(readOnly = true)
+    public SearchPageDTO<Supplier> searchSuppliers(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Từ khóa tìm kiếm không được để trống");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+
+        Optional<SearchIndex.Page> ranked = searchIndex.search(query, offset, pageSize);
+        if (ranked.isPresent()) {
+            Map<Long, Supplier> byId = supplierRepository.findAllById(ranked.get().ids()).stream()
+                    .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+            List<Supplier> items = new ArrayList<>(byId.size());
+            for (Long id : ranked.get().ids()) {
+                Supplier supplier = byId.get(id);
+                if (supplier != null) {
+                    items.add(supplier);
+                }
+            }
+            int total = ranked.get().total();
+            return new SearchPageDTO<>(items, total, Math.max(0, page), pageSize, offset + pageSize < total);
+        }
+
+        List<Supplier> matches = supplierRepository.findByNameContainingIgnoreCase(query);
+        List<Supplier> items = matches.subList(Math.min(offset, matches.size()), Math.min(offset + pageSize, matches.size()));
+        return new SearchPageDTO<>(new ArrayList<>(items), matches.size(), Math.max(0, page), pageSize,
+                offset + pageSize < matches.size());
     }
 
     /**
@@ -48,7 +91,7 @@ public class SupplierService {
      */
     public Supplier createSupplier(SupplierDTO dto) {
         Supplier supplier = new Supplier();
-        supplier.setCode(generateSupplierCode());
+        supplier.setCode(codeGenerator.nextCode("SUP"));
         supplier.setName(dto.getName());
         supplier.setContactPerson(dto.getContactPerson());
         supplier.setPhone(dto.getPhone());
@@ -90,13 +133,4 @@ public class SupplierService {
         supplier.setActive(false);
         supplierRepository.save(supplier);
     }
-
-    /**
-     * Sinh mã nhà cung cấp tự động
-     */
-    private String generateSupplierCode() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = supplierRepository.count() + 1;
-        return "SUP-" + timestamp + "-" + String.format("%04d", count);
-    }
 }
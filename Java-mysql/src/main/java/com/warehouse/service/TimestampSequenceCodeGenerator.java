@@ -0,0 +1,176 @@
+package com.warehouse.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sinh mã dạng PREFIX-yyyyMMddHHmmss-NN-SSSSSS (kiểu Snowflake: thời gian + node + bộ đếm)
+ * - NN: mã node, tránh trùng khi chạy nhiều instance. app.code-generator.node-id = 0-99 cố định,
+ *   -1 (mặc định): mỗi lần khởi động lấy số kế tiếp từ bộ đếm code_nodes trong bảng id_generators
+ * - SSSSSS: bộ đếm trong giây, tối đa 1.000.000 mã / giây / node
+ * Trạng thái (giây, bộ đếm) được gộp trong một AtomicLong nên không cần khóa.
+ * Khi bộ đếm đầy hoặc đồng hồ lùi, mã "mượn" giây kế tiếp để vẫn tăng dần.
+ * Khi khởi động, trạng thái bắt đầu sau mã lớn nhất đã lưu trong DB, nên khởi động lại
+ * trong cùng giây với mã cuối cùng không sinh lại mã cũ.
+ */
+@Service
+public class TimestampSequenceCodeGenerator implements CodeGenerator, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TimestampSequenceCodeGenerator.class);
+
+    private static final long SEQUENCE_PER_SECOND = 1_000_000L;
+    private static final int MAX_NODES = 100;
+    private static final String NODE_GENERATOR = "code_nodes";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // Mã cũ không có phần node / bộ đếm (PREFIX-yyyyMMddHHmmss) được tính là bộ đếm 0
+    private static final Pattern CODE_PATTERN = Pattern.compile("^[A-Z]+-(\\d{14})(?:-\\d{2}-(\\d{6}))?");
+
+    // (bảng, cột, tiền tố) của các mã đã sinh
+    private static final List<String[]> ISSUED_CODES = List.of(
+            new String[]{"transactions", "transaction_code", "IMP"},
+            new String[]{"transactions", "transaction_code", "EXP"},
+            new String[]{"material_requests", "request_code", "REQ"},
+            new String[]{"suppliers", "code", "SUP"});
+
+    private final int configuredNodeId;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final AtomicLong state = new AtomicLong();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile String nodeId;
+
+    // Bộ nhớ đệm chuỗi thời gian của giây gần nhất (tránh format lại mỗi lần)
+    private volatile FormattedSecond lastFormatted = new FormattedSecond(-1, "");
+
+    /**
+     * Bộ sinh không dùng DB (node cố định, trạng thái bắt đầu từ 0)
+     */
+    public TimestampSequenceCodeGenerator(int nodeId) {
+        this(nodeId, null, null);
+        if (nodeId < 0) {
+            throw new IllegalArgumentException("Cần node-id 0-99 khi không dùng DB");
+        }
+    }
+
+    @Autowired
+    public TimestampSequenceCodeGenerator(@Value("${app.code-generator.node-id:-1}") int nodeId,
+                                          JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate) {
+        if (nodeId < -1 || nodeId >= MAX_NODES) {
+            throw new IllegalArgumentException("app.code-generator.node-id phải nằm trong khoảng 0-99 (hoặc -1: tự cấp)");
+        }
+        this.configuredNodeId = nodeId;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId >= 0 ? formatNode(nodeId) : null;
+    }
+
+    /**
+     * Lấy mã node (nếu tự cấp) và khởi tạo trạng thái từ mã lớn nhất trong DB
+     * Chạy sau khi mọi bean đã được tạo (lược đồ đã sẵn sàng), trước khi web server nhận request.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        if (configuredNodeId < 0) {
+            nodeId = formatNode(claimNodeId());
+        }
+        long issued = maxIssuedValue();
+        state.accumulateAndGet(issued, Math::max);
+        log.info("Bộ sinh mã: node {}, tiếp tục sau {}", nodeId, issued);
+    }
+
+    @Override
+    public String nextCode(String prefix) {
+        long floor = Instant.now().getEpochSecond() * SEQUENCE_PER_SECOND;
+        long value = state.accumulateAndGet(floor, (current, min) -> Math.max(current + 1, min));
+
+        long second = value / SEQUENCE_PER_SECOND;
+        long sequence = value % SEQUENCE_PER_SECOND;
+
+        StringBuilder code = new StringBuilder(prefix.length() + 25);
+        code.append(prefix).append('-')
+                .append(formatSecond(second)).append('-')
+                .append(nodeId).append('-');
+        String digits = Long.toString(sequence);
+        for (int i = digits.length(); i < 6; i++) {
+            code.append('0');
+        }
+        return code.append(digits).toString();
+    }
+
+    /**
+     * Cấp mã node kế tiếp (vòng 0-99): hai instance khởi động gần nhau nhận hai mã khác nhau
+     */
+    private int claimNodeId() {
+        jdbcTemplate.update("INSERT IGNORE INTO id_generators (gen_name, gen_value) VALUES (?, -1)", NODE_GENERATOR);
+        Long value = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE id_generators SET gen_value = gen_value + 1 WHERE gen_name = ?", NODE_GENERATOR);
+            return jdbcTemplate.queryForObject("SELECT gen_value FROM id_generators WHERE gen_name = ?",
+                    Long.class, NODE_GENERATOR);
+        });
+        return (int) Math.floorMod(value, MAX_NODES);
+    }
+
+    /**
+     * Giá trị (giây, bộ đếm) của mã lớn nhất đã lưu, trên mọi node
+     * Mỗi tiền tố một truy vấn đọc ngược chỉ mục UNIQUE của cột mã, chỉ lấy một dòng.
+     */
+    private long maxIssuedValue() {
+        long max = 0;
+        for (String[] source : ISSUED_CODES) {
+            List<String> codes = jdbcTemplate.queryForList(
+                    "SELECT " + source[1] + " FROM " + source[0] + " WHERE " + source[1] + " LIKE ? " +
+                    "ORDER BY " + source[1] + " DESC LIMIT 1",
+                    String.class, source[2] + "-%");
+            if (!codes.isEmpty()) {
+                max = Math.max(max, parseValue(codes.get(0)));
+            }
+        }
+        return max;
+    }
+
+    private long parseValue(String code) {
+        Matcher matcher = CODE_PATTERN.matcher(code);
+        if (!matcher.find()) {
+            return 0;
+        }
+        long second = LocalDateTime.parse(matcher.group(1), TIMESTAMP_FORMAT).atZone(zone).toEpochSecond();
+        long sequence = matcher.group(2) != null ? Long.parseLong(matcher.group(2)) : 0;
+        return second * SEQUENCE_PER_SECOND + sequence;
+    }
+
+    private static String formatNode(int nodeId) {
+        return String.format("%02d", nodeId);
+    }
+
+    private String formatSecond(long second) {
+        FormattedSecond cached = lastFormatted;
+        if (cached.second == second) {
+            return cached.text;
+        }
+        String text = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone).format(TIMESTAMP_FORMAT);
+        lastFormatted = new FormattedSecond(second, text);
+        return text;
+    }
+
+    private record FormattedSecond(long second, String text) {
+    }
+}
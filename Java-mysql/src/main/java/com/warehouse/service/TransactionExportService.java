@@ -0,0 +1,165 @@
+package com.warehouse.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.warehouse.dto.response.TransactionExportRow;
+import com.warehouse.entity.Transaction;
+import com.warehouse.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service xuất sổ giao dịch dạng CSV / NDJSON
+ * Dữ liệu được đọc tuần tự từ DB và ghi thẳng ra output stream từng dòng,
+ * nên bộ nhớ sử dụng không phụ thuộc số lượng giao dịch.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TransactionExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER = "id,transaction_code,transaction_date,type,material_code,material_name,"
+            + "quantity,unit,unit_price,total_price,supplier,employee,request_code,note";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Kiểm tra định dạng xuất
+     */
+    public String normalizeFormat(String format) {
+        String normalized = format == null ? FORMAT_CSV : format.trim().toLowerCase();
+        if (!FORMAT_CSV.equals(normalized) && !FORMAT_NDJSON.equals(normalized)) {
+            throw new RuntimeException("Định dạng không hỗ trợ: " + format + " (chỉ hỗ trợ csv, ndjson)");
+        }
+        return normalized;
+    }
+
+    /**
+     * Ghi sổ giao dịch ra output stream
+     *
+     * @return số dòng đã ghi
+     */
+    public long export(String format,
+                       Transaction.TransactionType type,
+                       Long materialId,
+                       LocalDateTime startDate,
+                       LocalDateTime endDate,
+                       OutputStream out) throws IOException {
+        try (Stream<TransactionExportRow> rows = transactionRepository.streamForExport(type, materialId, startDate, endDate)) {
+            if (FORMAT_NDJSON.equals(normalizeFormat(format))) {
+                return writeNdjson(rows.iterator(), out);
+            }
+            return writeCsv(rows.iterator(), out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeCsv(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // BOM để Excel nhận đúng tiếng Việt (UTF-8)
+        writer.write('\uFEFF');
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writer.write(String.valueOf(row.getId()));
+            writeCsvField(writer, row.getTransactionCode());
+            writeCsvField(writer, row.getTransactionDate());
+            writeCsvField(writer, row.getType());
+            writeCsvField(writer, row.getMaterialCode());
+            writeCsvField(writer, row.getMaterialName());
+            writeCsvField(writer, row.getQuantity() != null ? row.getQuantity().toPlainString() : null);
+            writeCsvField(writer, row.getUnit());
+            writeCsvField(writer, row.getUnitPrice() != null ? row.getUnitPrice().toPlainString() : null);
+            writeCsvField(writer, row.getTotalPrice() != null ? row.getTotalPrice().toPlainString() : null);
+            writeCsvField(writer, row.getSupplierName());
+            writeCsvField(writer, row.getEmployeeUsername());
+            writeCsvField(writer, row.getRequestCode());
+            writeCsvField(writer, row.getNote());
+            writer.write('\n');
+
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<TransactionExportRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(new NonClosingOutputStream(out))) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    /**
+     * Không đóng response stream khi SequenceWriter đóng (container tự quản lý)
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
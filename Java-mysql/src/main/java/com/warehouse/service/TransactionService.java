@@ -2,23 +2,42 @@ package com.warehouse.service;
 
 import com.warehouse.dto.request.ExportRequest;
 import com.warehouse.dto.request.ImportRequest;
+import com.warehouse.dto.response.BatchLineResult;
+import com.warehouse.dto.response.BatchResultDTO;
+import com.warehouse.dto.response.CursorPageDTO;
+import com.warehouse.dto.response.TransactionSummaryDTO;
 import com.warehouse.entity.Employee;
 import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialLot;
 import com.warehouse.entity.MaterialRequest;
+import com.warehouse.entity.Supplier;
 import com.warehouse.entity.Transaction;
+import com.warehouse.event.MaterialRequestEvent;
+import com.warehouse.event.StockEvent;
+import com.warehouse.event.TransactionEvent;
 import com.warehouse.repository.EmployeeRepository;
 import com.warehouse.repository.MaterialRepository;
 import com.warehouse.repository.MaterialRequestRepository;
+import com.warehouse.repository.SupplierRepository;
 import com.warehouse.repository.TransactionRepository;
+import com.warehouse.security.EmployeePrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service cho quản lý giao dịch nhập - xuất kho
@@ -27,6 +46,9 @@ import java.util.List;
 @Transactional
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -39,9 +61,30 @@ public class TransactionService {
     @Autowired
     private MaterialRequestRepository materialRequestRepository;
 
+    @Autowired
+    private SupplierRepository supplierRepository;
+
     @Autowired
     private MaterialService materialService;
 
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private MaterialLotService lotService;
+
+    @Autowired
+    private CodeGenerator codeGenerator;
+
+    @Autowired
+    private ConsumptionReportService consumptionReportService;
+
+    @Autowired
+    private ConsumptionForecastService consumptionForecastService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Nhập kho
      */
@@ -49,126 +92,392 @@ public class TransactionService {
         Material material = materialRepository.findById(request.getMaterialId())
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu"));
 
-        // Cập nhật số lượng
-        material.setQuantity(material.getQuantity().add(request.getQuantity()));
-        
+        applyImport(material, request);
+
+        Supplier supplier = null;
+        if (request.getSupplierId() != null) {
+            supplier = supplierRepository.findById(request.getSupplierId()).orElse(null);
+        }
+
+        Transaction transaction = buildImportTransaction(material, request, supplier, getCurrentEmployee());
+        transaction.setTransactionCode(codeGenerator.nextCode("IMP"));
+        receiveLot(material, request, transaction);
+        updateStatus(material, StockEvent.Type.IMPORT,
+                lotService.loadOpenLots(List.of(material.getId())).get(material.getId()));
+
+        Transaction saved = transactionRepository.save(transaction);
+        consumptionReportService.record(List.of(saved));
+        consumptionForecastService.record(List.of(saved));
+        publishTransactionEvents(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Xuất kho
+     */
+    public Transaction exportMaterial(ExportRequest request) {
+        MaterialRequest materialRequest = null;
+        if (request.getRequestId() != null) {
+            materialRequest = materialRequestRepository.findById(request.getRequestId())
+                    .orElse(null);
+        }
+
+        Material material;
+        if (materialRequest != null && !materialRequest.getMaterial().getId().equals(request.getMaterialId())) {
+            // Yêu cầu của nguyên liệu khác: khóa cả hai nguyên liệu theo thứ tự id để trả lại phần hàng đang giữ
+            material = lockMaterials(List.of(request.getMaterialId(), materialRequest.getMaterial().getId()))
+                    .get(request.getMaterialId());
+            if (material == null) {
+                throw new RuntimeException("Không tìm thấy nguyên liệu");
+            }
+        } else {
+            material = materialRepository.findById(request.getMaterialId())
+                    .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu"));
+        }
+
+        applyExport(material, request, materialRequest);
+        releaseOtherHold(material, materialRequest);
+        List<MaterialLot> lots = lotService.loadOpenLots(List.of(material.getId())).get(material.getId());
+        lotService.allocate(lots, request.getQuantity());
+        updateStatus(material, StockEvent.Type.EXPORT, lots);
+
+        Transaction transaction = buildExportTransaction(material, request, materialRequest, getCurrentEmployee());
+        transaction.setTransactionCode(codeGenerator.nextCode("EXP"));
+
+        Transaction saved = transactionRepository.save(transaction);
+        consumptionReportService.record(List.of(saved));
+        consumptionForecastService.record(List.of(saved));
+        publishTransactionEvents(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Nhập kho hàng loạt
+     * Nạp và khóa toàn bộ nguyên liệu bằng một truy vấn (theo thứ tự id), cộng tồn kho bằng UPDATE nguyên tử
+     * và ghi các Transaction theo lô JDBC trong cùng một transaction DB.
+     * Dòng lỗi được bỏ qua và trả về kết quả riêng, các dòng khác vẫn được xử lý.
+     */
+    public BatchResultDTO importMaterials(List<ImportRequest> requests) {
+        Map<Long, Material> materials = lockMaterials(requests.stream().map(ImportRequest::getMaterialId).toList());
+        Map<Long, Supplier> suppliers = supplierRepository.findAllById(distinctIds(
+                        requests.stream().map(ImportRequest::getSupplierId).toList())).stream()
+                .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+        Employee employee = getCurrentEmployee();
+
+        Set<Material> touched = new LinkedHashSet<>();
+        List<Transaction> transactions = new ArrayList<>();
+        List<BatchLineResult> lines = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ImportRequest request = requests.get(i);
+            Material material = materials.get(request.getMaterialId());
+            if (material == null) {
+                lines.add(BatchLineResult.error(i, request.getMaterialId(), "Không tìm thấy nguyên liệu"));
+                continue;
+            }
+
+            applyImport(material, request);
+            touched.add(material);
+
+            Supplier supplier = request.getSupplierId() != null ? suppliers.get(request.getSupplierId()) : null;
+            Transaction transaction = buildImportTransaction(material, request, supplier, employee);
+            transaction.setTransactionCode(codeGenerator.nextCode("IMP"));
+            receiveLot(material, request, transaction);
+            transactions.add(transaction);
+            lines.add(BatchLineResult.success(i, material.getId(), transaction.getTransactionCode()));
+        }
+
+        Map<Long, List<MaterialLot>> lots = lotService.loadOpenLots(touched.stream().map(Material::getId).toList());
+        touched.forEach(material -> updateStatus(material, StockEvent.Type.IMPORT, lots.get(material.getId())));
+        transactionRepository.saveAll(transactions);
+        consumptionReportService.record(transactions);
+        consumptionForecastService.record(transactions);
+        publishTransactionEvents(transactions);
+
+        return BatchResultDTO.of(lines);
+    }
+
+    /**
+     * Xuất kho hàng loạt
+     * Các nguyên liệu được khóa trước theo thứ tự id, sau đó các dòng được áp dụng theo thứ tự gửi lên;
+     * mỗi dòng trừ tồn kho bằng một câu lệnh UPDATE có điều kiện, nên nhiều dòng cùng một
+     * nguyên liệu được kiểm tra trên số lượng còn lại sau các dòng trước đó.
+     */
+    public BatchResultDTO exportMaterials(List<ExportRequest> requests) {
+        Map<Long, MaterialRequest> materialRequests = materialRequestRepository.findAllById(distinctIds(
+                        requests.stream().map(ExportRequest::getRequestId).toList())).stream()
+                .collect(Collectors.toMap(MaterialRequest::getId, Function.identity()));
+        // Nguyên liệu của các yêu cầu được khóa cùng lúc (theo thứ tự id) để trả lại phần hàng đang giữ
+        List<Long> lockIds = new ArrayList<>(requests.stream().map(ExportRequest::getMaterialId).toList());
+        materialRequests.values().forEach(materialRequest -> lockIds.add(materialRequest.getMaterial().getId()));
+        Map<Long, Material> materials = lockMaterials(lockIds);
+        Employee employee = getCurrentEmployee();
+
+        Set<Material> touched = new LinkedHashSet<>();
+        List<Transaction> transactions = new ArrayList<>();
+        List<BatchLineResult> lines = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ExportRequest request = requests.get(i);
+            Material material = materials.get(request.getMaterialId());
+            if (material == null) {
+                lines.add(BatchLineResult.error(i, request.getMaterialId(), "Không tìm thấy nguyên liệu"));
+                continue;
+            }
+
+            MaterialRequest materialRequest = request.getRequestId() != null
+                    ? materialRequests.get(request.getRequestId()) : null;
+            try {
+                applyExport(material, request, materialRequest);
+            } catch (RuntimeException e) {
+                lines.add(BatchLineResult.error(i, material.getId(), e.getMessage()));
+                continue;
+            }
+            releaseOtherHold(material, materialRequest);
+            touched.add(material);
+
+            Transaction transaction = buildExportTransaction(material, request, materialRequest, employee);
+            transaction.setTransactionCode(codeGenerator.nextCode("EXP"));
+            transactions.add(transaction);
+            lines.add(BatchLineResult.success(i, material.getId(), transaction.getTransactionCode()));
+        }
+
+        // Phân bổ lô sau khi mọi dòng nguyên liệu đã bị khóa: một truy vấn nạp lô, các dòng áp dụng theo thứ tự
+        Map<Long, List<MaterialLot>> lots = lotService.loadOpenLots(touched.stream().map(Material::getId).toList());
+        for (Transaction transaction : transactions) {
+            lotService.allocate(lots.get(transaction.getMaterial().getId()), transaction.getQuantity());
+        }
+        touched.forEach(material -> updateStatus(material, StockEvent.Type.EXPORT, lots.get(material.getId())));
+        transactionRepository.saveAll(transactions);
+        consumptionReportService.record(transactions);
+        consumptionForecastService.record(transactions);
+        publishTransactionEvents(transactions);
+
+        return BatchResultDTO.of(lines);
+    }
+
+    /**
+     * Lấy lịch sử giao dịch theo trang (keyset trên transactionDate, id)
+     * Mỗi trang chỉ đọc tối đa size + 1 dòng nên bộ nhớ không phụ thuộc độ dài lịch sử.
+     */
+    public CursorPageDTO<TransactionSummaryDTO> getTransactionHistory(LocalDateTime startDate,
+                                                                      LocalDateTime endDate,
+                                                                      Transaction.TransactionType type,
+                                                                      Long materialId,
+                                                                      Long employeeId,
+                                                                      String cursor,
+                                                                      Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDateTime.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        List<TransactionSummaryDTO> rows = transactionRepository.findPage(type, materialId, employeeId,
+                startDate, endDate, cursorDate, cursorId, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionSummaryDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getId());
+        }
+        return new CursorPageDTO<>(items, items.size(), hasMore, nextCursor);
+    }
+
+    /**
+     * Lấy lịch sử giao dịch theo nguyên liệu
+     */
+    public List<TransactionSummaryDTO> getTransactionHistoryByMaterial(Long materialId) {
+        return transactionRepository.findTransactionHistoryByMaterial(materialId);
+    }
+
+    /**
+     * Cập nhật hạn dùng, trạng thái nguyên liệu và phát StockEvent (được xử lý sau khi commit)
+     * Hạn dùng của nguyên liệu là hạn dùng sớm nhất trong các lô còn hàng; giữ nguyên nếu
+     * nguyên liệu chỉ còn tồn kho cũ chưa được ghi nhận theo lô.
+     */
+    private void updateStatus(Material material, StockEvent.Type type, List<MaterialLot> openLots) {
+        if (!openLots.isEmpty() || material.getQuantity().signum() == 0) {
+            material.setExpiryDate(MaterialLotService.earliestExpiry(openLots));
+        }
+        materialService.updateMaterialStatus(material);
+        eventPublisher.publishEvent(new StockEvent(type, material, openLots));
+    }
+
+    /**
+     * Tạo lô cho lần nhập kho (mã lô là mã giao dịch nhập)
+     */
+    private void receiveLot(Material material, ImportRequest request, Transaction transaction) {
+        lotService.receive(material, request.getQuantity(), request.getExpiryDate(),
+                transaction.getTransactionCode(), transaction.getTransactionDate());
+    }
+
+    /**
+     * Phát sự kiện cho các giao dịch vừa lưu (và yêu cầu bổ sung đã hoàn thành, nếu có)
+     */
+    private void publishTransactionEvents(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            eventPublisher.publishEvent(new TransactionEvent(transaction));
+            if (transaction.getRequest() != null) {
+                eventPublisher.publishEvent(new MaterialRequestEvent(MaterialRequestEvent.Type.COMPLETED, transaction.getRequest()));
+            }
+        }
+    }
+
+    /**
+     * Cập nhật số lượng, đơn giá khi nhập kho (hạn sử dụng được ghi theo lô)
+     */
+    private void applyImport(Material material, ImportRequest request) {
+        // Cập nhật số lượng (nguyên tử trên DB)
+        stockLedgerService.increase(material, request.getQuantity());
+
         // Cập nhật đơn giá nếu có
         if (request.getUnitPrice() != null) {
             material.setUnitPrice(request.getUnitPrice());
         }
-        
-        // Cập nhật hạn sử dụng nếu có
-        if (request.getExpiryDate() != null) {
-            material.setExpiryDate(request.getExpiryDate());
-        }
+    }
 
-        materialRepository.save(material);
-        materialService.updateMaterialStatus(material);
+    /**
+     * Kiểm tra tồn kho khả dụng và trừ số lượng khi xuất kho
+     * Xuất theo yêu cầu đã duyệt được dùng phần hàng yêu cầu đang giữ; phần giữ được trả lại
+     * trong cùng câu lệnh UPDATE trừ tồn kho.
+     */
+    private void applyExport(Material material, ExportRequest request, MaterialRequest materialRequest) {
+        BigDecimal released = BigDecimal.ZERO;
+        if (materialRequest != null && material.getId().equals(materialRequest.getMaterial().getId())) {
+            released = stockLedgerService.lockHold(material, materialRequest);
+        }
+        // Kiểm tra và trừ số lượng trong cùng một câu lệnh UPDATE có điều kiện
+        if (!stockLedgerService.tryDecrease(material, request.getQuantity(), released)) {
+            throw new RuntimeException("Không đủ số lượng để xuất. Tồn kho: " + material.getQuantity() + " " + material.getUnit()
+                    + ", đang giữ cho yêu cầu đã duyệt: " + material.getReservedQuantity().subtract(released) + " " + material.getUnit());
+        }
+        if (released.signum() > 0) {
+            materialRequest.setReservedQuantity(BigDecimal.ZERO);
+        }
+    }
 
-        // Tạo transaction
+    /**
+     * Tạo bản ghi giao dịch nhập kho (chưa có mã giao dịch)
+     */
+    private Transaction buildImportTransaction(Material material, ImportRequest request,
+                                               Supplier supplier, Employee employee) {
         Transaction transaction = new Transaction();
-        transaction.setTransactionCode(generateTransactionCode("IMP"));
         transaction.setMaterial(material);
         transaction.setType(Transaction.TransactionType.IMPORT);
         transaction.setQuantity(request.getQuantity());
         transaction.setUnit(request.getUnit());
         transaction.setUnitPrice(request.getUnitPrice());
         transaction.setTotalPrice(request.getUnitPrice().multiply(request.getQuantity()));
-        
-        if (request.getSupplierId() != null) {
-            transaction.setSupplier(materialRepository.findById(request.getSupplierId())
-                    .map(Material::getSupplier)
-                    .orElse(null));
-        }
-        
-        transaction.setEmployee(getCurrentEmployee());
+        transaction.setSupplier(supplier);
+        transaction.setEmployee(employee);
         transaction.setNote(request.getNote());
         transaction.setTransactionDate(LocalDateTime.now());
-
-        return transactionRepository.save(transaction);
+        return transaction;
     }
 
     /**
-     * Xuất kho
+     * Tạo bản ghi giao dịch xuất kho (chưa có mã giao dịch)
      */
-    public Transaction exportMaterial(ExportRequest request) {
-        Material material = materialRepository.findById(request.getMaterialId())
-                .orElseThrow(() -> new RuntimeException("Không tìm thấy nguyên liệu"));
-
-        // Kiểm tra số lượng
-        if (material.getQuantity().compareTo(request.getQuantity()) < 0) {
-            throw new RuntimeException("Không đủ số lượng để xuất. Tồn kho: " + material.getQuantity() + " " + material.getUnit());
-        }
-
-        // Cập nhật số lượng
-        material.setQuantity(material.getQuantity().subtract(request.getQuantity()));
-        materialRepository.save(material);
-        materialService.updateMaterialStatus(material);
-
-        // Tạo transaction
+    private Transaction buildExportTransaction(Material material, ExportRequest request,
+                                               MaterialRequest materialRequest, Employee employee) {
         Transaction transaction = new Transaction();
-        transaction.setTransactionCode(generateTransactionCode("EXP"));
         transaction.setMaterial(material);
         transaction.setType(Transaction.TransactionType.EXPORT);
         transaction.setQuantity(request.getQuantity());
         transaction.setUnit(material.getUnit());
         transaction.setUnitPrice(material.getUnitPrice());
-        
+
         if (material.getUnitPrice() != null) {
             transaction.setTotalPrice(material.getUnitPrice().multiply(request.getQuantity()));
         }
-        
-        transaction.setEmployee(getCurrentEmployee());
+
+        transaction.setEmployee(employee);
         transaction.setNote(request.getNote());
         transaction.setTransactionDate(LocalDateTime.now());
 
-        // Liên kết với yêu cầu nếu có
-        if (request.getRequestId() != null) {
-            MaterialRequest materialRequest = materialRequestRepository.findById(request.getRequestId())
-                    .orElse(null);
+        // Liên kết với yêu cầu nếu có, cập nhật trạng thái yêu cầu
+        if (materialRequest != null) {
             transaction.setRequest(materialRequest);
-            
-            // Cập nhật trạng thái yêu cầu
-            if (materialRequest != null) {
-                materialRequest.setStatus(MaterialRequest.RequestStatus.COMPLETED);
-                materialRequestRepository.save(materialRequest);
-            }
+            materialRequest.setStatus(MaterialRequest.RequestStatus.COMPLETED);
         }
-
-        return transactionRepository.save(transaction);
+        return transaction;
     }
 
     /**
-     * Lấy lịch sử giao dịch
+     * Yêu cầu của nguyên liệu khác với nguyên liệu xuất: trả lại phần hàng yêu cầu đang giữ
+     * Nguyên liệu của yêu cầu đã được khóa cùng nguyên liệu xuất (theo thứ tự id); phần giữ được đọc lại
+     * sau khi khóa như khi từ chối / hết hạn giữ hàng, rồi cập nhật cache, cảnh báo và SSE qua StockEvent.
      */
-    public List<Transaction> getTransactionHistory(LocalDateTime startDate, LocalDateTime endDate) {
-        if (startDate != null && endDate != null) {
-            return transactionRepository.findByTransactionDateBetween(startDate, endDate);
+    private void releaseOtherHold(Material material, MaterialRequest materialRequest) {
+        if (materialRequest == null || material.getId().equals(materialRequest.getMaterial().getId())) {
+            return;
         }
-        return transactionRepository.findAll();
+        Material heldMaterial = materialRequest.getMaterial();
+        BigDecimal held = stockLedgerService.lockHold(heldMaterial, materialRequest);
+        if (held.signum() <= 0) {
+            return;
+        }
+        materialRequest.setReservedQuantity(BigDecimal.ZERO);
+        stockLedgerService.release(heldMaterial, held);
+        updateStatus(heldMaterial, StockEvent.Type.RELEASE,
+                lotService.loadOpenLots(List.of(heldMaterial.getId())).get(heldMaterial.getId()));
     }
 
     /**
-     * Lấy lịch sử giao dịch theo nguyên liệu
+     * Nạp và khóa các nguyên liệu được tham chiếu bằng một truy vấn
+     * Khóa dòng được lấy theo thứ tự id tăng dần thay vì thứ tự các dòng trong lô, nên hai lô
+     * đồng thời trên [A, B] và [B, A] chờ nhau thay vì deadlock.
      */
-    public List<Transaction> getTransactionHistoryByMaterial(Long materialId) {
-        return transactionRepository.findTransactionHistoryByMaterial(materialId);
+    private Map<Long, Material> lockMaterials(List<Long> materialIds) {
+        Set<Long> ids = distinctIds(materialIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return materialRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(Material::getId, Function.identity()));
+    }
+
+    private Set<Long> distinctIds(List<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
     }
 
     /**
-     * Sinh mã giao dịch tự động
+     * Mã hóa vị trí trang (transactionDate, id) thành cursor dạng base64 (URL-safe)
      */
-    private String generateTransactionCode(String prefix) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return prefix + "-" + timestamp;
+    private String encodeCursor(LocalDateTime transactionDate, Long id) {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
     }
 
     /**
-     * Lấy thông tin nhân viên hiện tại
+     * Lấy nhân viên hiện tại
+     * Trả về tham chiếu (proxy) theo ID trong principal, không truy vấn DB
      */
     private Employee getCurrentEmployee() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return employeeRepository.findByUsername(username)
+        return EmployeePrincipal.current()
+                .map(principal -> employeeRepository.getReferenceById(principal.getId()))
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy thông tin nhân viên"));
     }
 }
@@ -5,6 +5,13 @@ USE warehouse_db;
 -- Xóa dữ liệu cũ (nếu có)
 SET FOREIGN_KEY_CHECKS = 0;
 TRUNCATE TABLE transactions;
+TRUNCATE TABLE daily_material_stats;
+TRUNCATE TABLE daily_supplier_stats;
+TRUNCATE TABLE stock_snapshots;
+TRUNCATE TABLE material_forecasts;
+TRUNCATE TABLE material_lots;
+TRUNCATE TABLE outbox_messages;
+TRUNCATE TABLE idempotency_keys;
 TRUNCATE TABLE material_requests;
 TRUNCATE TABLE materials;
 TRUNCATE TABLE suppliers;
@@ -44,14 +51,42 @@ INSERT INTO material_requests (request_code, material_id, requested_quantity, un
 ('REQ-20241103110000', 10, 30.00, 'kg', 4, NULL, 'PENDING', 'Hết đường để làm món tráng miệng', NULL, NULL, NOW(), NOW()),
 ('REQ-20241103120000', 3, 10.00, 'kg', 4, 2, 'COMPLETED', 'Món đặc biệt cuối tuần', 'Đã xuất kho', NOW(), NOW(), NOW());
 
--- Thêm dữ liệu mẫu cho Transactions
-INSERT INTO transactions (transaction_code, material_id, type, quantity, unit, unit_price, total_price, supplier_id, employee_id, request_id, note, transaction_date, created_at) VALUES
-('IMP-20241101080000', 1, 'IMPORT', 50.00, 'kg', 25000, 1250000, 1, 2, NULL, 'Nhập kho đầu tháng', '2024-11-01 08:00:00', NOW()),
-('IMP-20241101090000', 2, 'IMPORT', 30.00, 'kg', 120000, 3600000, 3, 2, NULL, 'Nhập thịt tươi', '2024-11-01 09:00:00', NOW()),
-('EXP-20241102100000', 1, 'EXPORT', 10.00, 'kg', 25000, 250000, NULL, 2, NULL, 'Xuất cho bếp', '2024-11-02 10:00:00', NOW()),
-('EXP-20241102110000', 2, 'EXPORT', 5.00, 'kg', 120000, 600000, NULL, 2, 1, 'Xuất theo yêu cầu REQ-20241103100000', '2024-11-02 11:00:00', NOW()),
-('IMP-20241103080000', 3, 'IMPORT', 15.00, 'kg', 350000, 5250000, 1, 2, NULL, 'Nhập cá hồi tươi', '2024-11-03 08:00:00', NOW()),
-('EXP-20241103140000', 3, 'EXPORT', 7.00, 'kg', 350000, 2450000, NULL, 2, 3, 'Xuất theo yêu cầu REQ-20241103120000', '2024-11-03 14:00:00', NOW());
+-- Thêm dữ liệu mẫu cho Transactions (ID gán sẵn vì bảng dùng bộ sinh ID id_generators)
+INSERT INTO transactions (id, transaction_code, material_id, type, quantity, unit, unit_price, total_price, supplier_id, employee_id, request_id, note, transaction_date, created_at) VALUES
+(1, 'IMP-20241101080000', 1, 'IMPORT', 50.00, 'kg', 25000, 1250000, 1, 2, NULL, 'Nhập kho đầu tháng', '2024-11-01 08:00:00', NOW()),
+(2, 'IMP-20241101090000', 2, 'IMPORT', 30.00, 'kg', 120000, 3600000, 3, 2, NULL, 'Nhập thịt tươi', '2024-11-01 09:00:00', NOW()),
+(3, 'EXP-20241102100000', 1, 'EXPORT', 10.00, 'kg', 25000, 250000, NULL, 2, NULL, 'Xuất cho bếp', '2024-11-02 10:00:00', NOW()),
+(4, 'EXP-20241102110000', 2, 'EXPORT', 5.00, 'kg', 120000, 600000, NULL, 2, 1, 'Xuất theo yêu cầu REQ-20241103100000', '2024-11-02 11:00:00', NOW()),
+(5, 'IMP-20241103080000', 3, 'IMPORT', 15.00, 'kg', 350000, 5250000, 1, 2, NULL, 'Nhập cá hồi tươi', '2024-11-03 08:00:00', NOW()),
+(6, 'EXP-20241103140000', 3, 'EXPORT', 7.00, 'kg', 350000, 2450000, NULL, 2, 3, 'Xuất theo yêu cầu REQ-20241103120000', '2024-11-03 14:00:00', NOW());
+
+-- Khởi tạo bộ sinh ID cho Transactions (giá trị = ID lớn nhất + kích thước khối cấp phát)
+REPLACE INTO id_generators (gen_name, gen_value)
+SELECT 'transactions', COALESCE(MAX(id), 0) + 50 FROM transactions;
+
+-- Lô mở đầu cho tồn kho mẫu (một lô mỗi nguyên liệu, hạn dùng của nguyên liệu)
+INSERT INTO material_lots (id, material_id, lot_code, expiry_date, received_quantity, remaining_quantity, received_at)
+SELECT id, id, CONCAT('OPEN-', code), expiry_date, quantity, quantity, NOW() FROM materials WHERE quantity > 0;
+
+REPLACE INTO id_generators (gen_name, gen_value)
+SELECT 'material_lots', COALESCE(MAX(id), 0) + 50 FROM material_lots;
+
+-- Khởi tạo bảng tổng hợp báo cáo tiêu thụ từ các giao dịch mẫu
+INSERT INTO daily_material_stats (material_id, stat_date, import_quantity, import_value, import_count,
+                                  export_quantity, export_value, export_count)
+SELECT material_id, CAST(transaction_date AS DATE),
+       SUM(CASE WHEN type = 'IMPORT' THEN quantity ELSE 0 END),
+       SUM(CASE WHEN type = 'IMPORT' THEN COALESCE(total_price, 0) ELSE 0 END),
+       SUM(CASE WHEN type = 'IMPORT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN type = 'EXPORT' THEN quantity ELSE 0 END),
+       SUM(CASE WHEN type = 'EXPORT' THEN COALESCE(total_price, 0) ELSE 0 END),
+       SUM(CASE WHEN type = 'EXPORT' THEN 1 ELSE 0 END)
+FROM transactions GROUP BY material_id, CAST(transaction_date AS DATE);
+
+INSERT INTO daily_supplier_stats (supplier_id, stat_date, import_quantity, import_value, import_count)
+SELECT supplier_id, CAST(transaction_date AS DATE), SUM(quantity), SUM(COALESCE(total_price, 0)), COUNT(*)
+FROM transactions WHERE type = 'IMPORT' AND supplier_id IS NOT NULL
+GROUP BY supplier_id, CAST(transaction_date AS DATE);
 
 -- Hiển thị thông báo hoàn thành
 SELECT 'Dữ liệu mẫu đã được thêm thành công!' AS Message;
@@ -0,0 +1,11 @@
+-- Bảng phản hồi theo Idempotency-Key (dùng khi app.idempotency.persistent = true)
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    request_key VARCHAR(64) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    status_code INT,
+    content_type VARCHAR(100),
+    response_body MEDIUMTEXT,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    INDEX idx_idempotency_keys_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
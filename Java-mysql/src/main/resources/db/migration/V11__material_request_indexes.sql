@@ -0,0 +1,11 @@
+-- Chỉ mục theo truy vấn cho material_requests
+
+-- findPendingRequests: WHERE status = 'PENDING' ORDER BY created_at
+CREATE INDEX idx_material_requests_status_created ON material_requests (status, created_at, id);
+
+-- findExpiredHolds: WHERE status = 'APPROVED' AND approved_at < :cutoff
+CREATE INDEX idx_material_requests_status_approved ON material_requests (status, approved_at);
+
+-- Đối chiếu phần hàng giữ (checkReservations / reconcileReservedQuantities), findMaterialIdsWithOpenRequests:
+-- WHERE material_id = ? AND status = 'APPROVED'
+CREATE INDEX idx_material_requests_material_status ON material_requests (material_id, status);
@@ -0,0 +1,9 @@
+-- Bảng sinh ID theo khối (cho phép Hibernate gom INSERT transactions theo lô)
+CREATE TABLE IF NOT EXISTS id_generators (
+    gen_name VARCHAR(50) PRIMARY KEY,
+    gen_value BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Khởi tạo bộ sinh ID cho Transactions (giá trị = ID lớn nhất + kích thước khối cấp phát)
+REPLACE INTO id_generators (gen_name, gen_value)
+SELECT 'transactions', COALESCE(MAX(id), 0) + 50 FROM transactions;
@@ -0,0 +1,5 @@
+-- Chỉ mục cho phân trang keyset (transaction_date, id) theo từng bộ lọc của lịch sử giao dịch
+CREATE INDEX idx_transactions_date_id ON transactions (transaction_date, id);
+CREATE INDEX idx_transactions_type_date ON transactions (type, transaction_date, id);
+CREATE INDEX idx_transactions_material_date ON transactions (material_id, transaction_date, id);
+CREATE INDEX idx_transactions_employee_date ON transactions (employee_id, transaction_date, id);
@@ -0,0 +1,2 @@
+-- Cảnh báo nguyên liệu sắp hết hạn: WHERE expiry_date <= ?
+CREATE INDEX idx_materials_expiry_date ON materials (expiry_date);
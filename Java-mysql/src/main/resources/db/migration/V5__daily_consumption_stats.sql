@@ -0,0 +1,41 @@
+-- Bảng tổng hợp nhập / xuất theo nguyên liệu và ngày (báo cáo tiêu thụ)
+CREATE TABLE IF NOT EXISTS daily_material_stats (
+    material_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    import_quantity DECIMAL(14,2) NOT NULL DEFAULT 0,
+    import_value DECIMAL(16,2) NOT NULL DEFAULT 0,
+    import_count INT NOT NULL DEFAULT 0,
+    export_quantity DECIMAL(14,2) NOT NULL DEFAULT 0,
+    export_value DECIMAL(16,2) NOT NULL DEFAULT 0,
+    export_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (material_id, stat_date),
+    INDEX idx_daily_material_stats_date (stat_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Bảng tổng hợp giá trị nhập kho theo nhà cung cấp và ngày
+CREATE TABLE IF NOT EXISTS daily_supplier_stats (
+    supplier_id BIGINT NOT NULL,
+    stat_date DATE NOT NULL,
+    import_quantity DECIMAL(14,2) NOT NULL DEFAULT 0,
+    import_value DECIMAL(16,2) NOT NULL DEFAULT 0,
+    import_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (supplier_id, stat_date),
+    INDEX idx_daily_supplier_stats_date (stat_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Tổng hợp các giao dịch đã có (sau đó bảng được cập nhật theo từng giao dịch)
+INSERT INTO daily_material_stats (material_id, stat_date, import_quantity, import_value, import_count,
+                                  export_quantity, export_value, export_count)
+SELECT material_id, CAST(transaction_date AS DATE),
+       SUM(CASE WHEN type = 'IMPORT' THEN quantity ELSE 0 END),
+       SUM(CASE WHEN type = 'IMPORT' THEN COALESCE(total_price, 0) ELSE 0 END),
+       SUM(CASE WHEN type = 'IMPORT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN type = 'EXPORT' THEN quantity ELSE 0 END),
+       SUM(CASE WHEN type = 'EXPORT' THEN COALESCE(total_price, 0) ELSE 0 END),
+       SUM(CASE WHEN type = 'EXPORT' THEN 1 ELSE 0 END)
+FROM transactions GROUP BY material_id, CAST(transaction_date AS DATE);
+
+INSERT INTO daily_supplier_stats (supplier_id, stat_date, import_quantity, import_value, import_count)
+SELECT supplier_id, CAST(transaction_date AS DATE), SUM(quantity), SUM(COALESCE(total_price, 0)), COUNT(*)
+FROM transactions WHERE type = 'IMPORT' AND supplier_id IS NOT NULL
+GROUP BY supplier_id, CAST(transaction_date AS DATE);
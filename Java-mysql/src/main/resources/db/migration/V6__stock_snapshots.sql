@@ -0,0 +1,8 @@
+-- Bảng ảnh chụp tồn kho cuối ngày (tính tồn kho tại thời điểm trong quá khứ)
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    material_id BIGINT NOT NULL,
+    snapshot_date DATE NOT NULL,
+    quantity DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (material_id, snapshot_date),
+    INDEX idx_stock_snapshots_date (snapshot_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,8 @@
+-- Bảng trạng thái dự báo tiêu thụ theo nguyên liệu
+CREATE TABLE IF NOT EXISTS material_forecasts (
+    material_id BIGINT PRIMARY KEY,
+    smoothed_rate DECIMAL(14,4),
+    last_date DATE NOT NULL,
+    last_quantity DECIMAL(14,2) NOT NULL,
+    updated_at DATETIME
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
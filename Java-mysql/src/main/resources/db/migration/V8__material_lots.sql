@@ -0,0 +1,20 @@
+-- Bảng lô nguyên liệu (mỗi lần nhập kho một lô; xuất kho theo FEFO)
+CREATE TABLE IF NOT EXISTS material_lots (
+    id BIGINT PRIMARY KEY,
+    material_id BIGINT NOT NULL,
+    lot_code VARCHAR(255) NOT NULL,
+    expiry_date DATE,
+    received_quantity DECIMAL(14,2) NOT NULL,
+    remaining_quantity DECIMAL(14,2) NOT NULL,
+    received_at DATETIME NOT NULL,
+    FOREIGN KEY (material_id) REFERENCES materials(id) ON DELETE CASCADE,
+    INDEX idx_material_lots_fefo (material_id, expiry_date, id),
+    INDEX idx_material_lots_expiry_date (expiry_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Lô mở đầu cho tồn kho hiện có (một lô mỗi nguyên liệu, hạn dùng của nguyên liệu)
+INSERT INTO material_lots (id, material_id, lot_code, expiry_date, received_quantity, remaining_quantity, received_at)
+SELECT id, id, CONCAT('OPEN-', code), expiry_date, quantity, quantity, NOW() FROM materials WHERE quantity > 0;
+
+REPLACE INTO id_generators (gen_name, gen_value)
+SELECT 'material_lots', COALESCE(MAX(id), 0) + 50 FROM material_lots;
@@ -0,0 +1,23 @@
+-- Phần hàng giữ cho yêu cầu đã duyệt (tồn kho khả dụng = quantity - reserved_quantity)
+ALTER TABLE materials
+    ADD COLUMN reserved_quantity DECIMAL(10,2) NOT NULL DEFAULT 0 AFTER quantity;
+
+-- Phần hàng yêu cầu đang giữ và khóa chống duyệt / từ chối trùng
+ALTER TABLE material_requests
+    ADD COLUMN reserved_quantity DECIMAL(10,2) AFTER approved_at,
+    ADD COLUMN decision_key VARCHAR(100) AFTER reserved_quantity;
+
+-- Bảng outbox: việc xử lý sau khi commit (thông báo...), có thử lại
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    message_key VARCHAR(100) UNIQUE NOT NULL,
+    type VARCHAR(40) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    last_error TEXT,
+    created_at DATETIME NOT NULL,
+    processed_at DATETIME,
+    INDEX idx_outbox_messages_due (status, next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,90 @@
+package com.warehouse;
+
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import com.warehouse.repository.EmployeeRepository;
+import com.warehouse.repository.MaterialRepository;
+import com.warehouse.repository.SupplierRepository;
+import com.warehouse.security.EmployeePrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lớp cơ sở cho test tích hợp: ứng dụng chạy trên H2 chế độ MySQL (profile test)
+ * Các lớp test dùng chung một context và một DB, nên dữ liệu tạo ra luôn có mã riêng
+ * và điều kiện kiểm tra chỉ xét dữ liệu của chính test đó.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    protected EmployeeRepository employeeRepository;
+
+    @Autowired
+    protected SupplierRepository supplierRepository;
+
+    @Autowired
+    protected MaterialRepository materialRepository;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    protected Employee createEmployee(Employee.Role role) {
+        int n = SEQUENCE.incrementAndGet();
+        Employee employee = new Employee();
+        employee.setUsername("test-" + role.name().toLowerCase() + "-" + n);
+        employee.setPassword("password123");
+        employee.setFullName("Nhân viên test " + n);
+        employee.setEmail("test-" + n + "@warehouse.local");
+        employee.setRole(role);
+        return employeeRepository.save(employee);
+    }
+
+    protected Supplier createSupplier() {
+        int n = SEQUENCE.incrementAndGet();
+        Supplier supplier = new Supplier();
+        supplier.setCode("SUP-TEST-" + n);
+        supplier.setName("Nhà cung cấp test " + n);
+        supplier.setContactPerson("Test");
+        supplier.setPhone("0280000000");
+        supplier.setEmail("supplier-" + n + "@warehouse.local");
+        return supplierRepository.save(supplier);
+    }
+
+    protected Material createMaterial(Supplier supplier, String quantity) {
+        int n = SEQUENCE.incrementAndGet();
+        Material material = new Material();
+        material.setCode("MAT-TEST-" + n);
+        material.setName("Nguyên liệu test " + n);
+        material.setUnit("kg");
+        material.setQuantity(new BigDecimal(quantity));
+        material.setMinQuantity(new BigDecimal("10"));
+        material.setUnitPrice(new BigDecimal("1000"));
+        material.setExpiryDate(LocalDate.now().plusYears(1));
+        material.setSupplier(supplier);
+        return materialRepository.save(material);
+    }
+
+    /**
+     * Đăng nhập bằng nhân viên (các service đọc người dùng hiện tại từ SecurityContext)
+     */
+    protected void authenticate(Employee employee) {
+        EmployeePrincipal principal = new EmployeePrincipal(employee, false);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
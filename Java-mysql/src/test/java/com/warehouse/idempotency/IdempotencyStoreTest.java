@@ -0,0 +1,56 @@
+package com.warehouse.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * app.idempotency.persistent = true và DB không ghi được phản hồi: khóa vẫn được trả phản hồi cũ từ bộ nhớ
+ * (kể cả khi kho đầy và bỏ bớt khóa) và lỗi được đếm
+ */
+class IdempotencyStoreTest {
+
+    private static final int MAX_ENTRIES = 10;
+
+    private final IdempotencyRecordStore recordStore = mock(IdempotencyRecordStore.class);
+    private final IdempotencyStore store = new IdempotencyStore();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(store, "recordStore", recordStore);
+        ReflectionTestUtils.setField(store, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(store, "maxEntries", MAX_ENTRIES);
+        ReflectionTestUtils.setField(store, "waitSeconds", 1L);
+        ReflectionTestUtils.setField(store, "persistent", true);
+    }
+
+    @Test
+    void responseNotPersistedStaysInMemoryAndIsCounted() {
+        doThrow(new IllegalStateException("Mất kết nối DB"))
+                .when(recordStore).complete(eq("lost"), any(), anyLong());
+        StoredResponse response = new StoredResponse(201, "application/json",
+                "{\"success\":true}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(store.begin("lost", "fp"));
+        store.complete("lost", response);
+        // Khóa "lost" hết hạn sớm nhất: nếu không được giữ lại, nó sẽ bị bỏ đầu tiên khi đầy
+        for (int i = 0; i < MAX_ENTRIES * 2; i++) {
+            assertNull(store.begin("key-" + i, "fp"));
+            store.complete("key-" + i, new StoredResponse(200, null, new byte[0]));
+        }
+
+        assertEquals(1, store.getPersistFailures());
+        assertSame(response, store.begin("lost", "fp"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.warehouse.outbox;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.entity.OutboxMessage;
+import com.warehouse.event.OutboxEnqueuedEvent;
+import com.warehouse.repository.OutboxMessageRepository;
+import com.warehouse.support.StatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ghi việc vào outbox bằng một câu INSERT IGNORE: việc trùng khóa không được ghi lần hai
+ */
+@RecordApplicationEvents
+class OutboxServiceTest extends IntegrationTestSupport {
+
+    // Id đối tượng riêng cho test này, không trùng với yêu cầu thật
+    private static final AtomicLong AGGREGATE_ID = new AtomicLong(900_000_000L);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void duplicateEnqueueWritesOnceWithoutExistsQuery() {
+        Long aggregateId = AGGREGATE_ID.incrementAndGet();
+
+        List<String> first = StatementRecorder.record(() ->
+                outboxService.enqueue(OutboxMessage.Type.REQUEST_APPROVED, aggregateId));
+        List<String> second = StatementRecorder.record(() ->
+                outboxService.enqueue(OutboxMessage.Type.REQUEST_APPROVED, aggregateId));
+
+        List<OutboxMessage> rows = outboxRepository.findAll().stream()
+                .filter(message -> message.getMessageKey().equals("REQUEST_APPROVED:" + aggregateId))
+                .toList();
+        assertEquals(1, rows.size());
+        // Chỉ lần ghi được mới báo việc mới, với đúng id của dòng
+        List<Long> enqueued = events.stream(OutboxEnqueuedEvent.class).map(OutboxEnqueuedEvent::getMessageId).toList();
+        assertEquals(List.of(rows.get(0).getId()), enqueued);
+        assertEquals(1, second.size(), String.join("\n", second));
+        assertTrue(first.stream().noneMatch(sql -> sql.toLowerCase().startsWith("select")
+                && sql.toLowerCase().contains("outbox_messages")), String.join("\n", first));
+    }
+}
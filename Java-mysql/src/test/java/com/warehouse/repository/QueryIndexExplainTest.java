@@ -0,0 +1,284 @@
+package com.warehouse.repository;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Supplier;
+import com.warehouse.entity.Transaction;
+import com.warehouse.support.StatementRecorder;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Các truy vấn repository chính dùng đúng chỉ mục trên MySQL / MariaDB
+ * Lược đồ do Flyway tạo (V1...), câu SQL là câu Hibernate thực sự sinh ra (ghi bằng StatementRecorder),
+ * kiểm tra cột key MySQL chọn trong EXPLAIN. Dữ liệu đủ nhiều để MySQL không chọn quét toàn bảng vì bảng ít dòng.
+ * Chỉ chạy khi có -Dtest.mysql.url (xem application-mysql.yml), H2 không chạy được V1.
+ */
+@ActiveProfiles("mysql")
+@EnabledIfSystemProperty(named = "test.mysql.url", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryIndexExplainTest extends IntegrationTestSupport {
+
+    private static final int MATERIALS = 200;
+    private static final int EMPLOYEES = 20;
+    private static final int TRANSACTIONS = 20_000;
+    private static final int REQUESTS = 4_000;
+    private static final int PAGE = 21;
+
+    // Index của (..., transaction_date) đã kèm khóa chính id, nên idx_transaction_date (V1) cũng đọc đúng thứ tự (ngày, id)
+    private static final Set<String> DATE_ORDER_INDEXES = Set.of("idx_transactions_date_id", "idx_transaction_date");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MaterialRequestRepository materialRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    private final List<Long> materialIds = new ArrayList<>();
+    private final List<Long> employeeIds = new ArrayList<>();
+    private Long supplierId;
+    private LocalDateTime start;
+
+    @BeforeAll
+    void seed() {
+        Supplier supplier = createSupplier();
+        supplierId = supplier.getId();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employeeIds.add(createEmployee(Employee.Role.WAREHOUSE_STAFF).getId());
+        }
+        for (int i = 0; i < MATERIALS; i++) {
+            materialIds.add(createMaterial(supplier, "100").getId());
+        }
+        // Vài nguyên liệu đã / sắp hết hạn, còn lại hết hạn sau một năm
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("UPDATE materials SET expiry_date = ? WHERE id = ?",
+                    LocalDate.now().plusDays(i - 2), materialIds.get(i));
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transactions", Long.class);
+        start = LocalDateTime.now().minusDays(TRANSACTIONS / 100);
+        List<Object[]> transactions = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            long id = maxId + 1 + i;
+            Timestamp date = Timestamp.valueOf(start.plusMinutes(15L * i));
+            transactions.add(new Object[]{id, "EXPLAIN-" + id, materialIds.get(i % MATERIALS), i % 2 == 0 ? "IMPORT" : "EXPORT",
+                    BigDecimal.ONE, "kg", employeeIds.get(i % EMPLOYEES), date, date});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, transaction_code, material_id, type, quantity, unit, " +
+                "employee_id, transaction_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", transactions);
+        jdbcTemplate.update("UPDATE id_generators SET gen_value = GREATEST(gen_value, ?) WHERE gen_name = 'transactions'",
+                maxId + TRANSACTIONS + 50);
+
+        // Phần lớn yêu cầu đã xong, chỉ 1% chờ xử lý và 1% đã duyệt còn giữ hàng (đa số mới duyệt, vài yêu cầu quá hạn)
+        List<Object[]> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            String status = i % 100 == 0 ? "PENDING" : i % 100 == 1 ? "APPROVED" : i % 2 == 0 ? "COMPLETED" : "REJECTED";
+            Timestamp created = Timestamp.valueOf(start.plusHours(i));
+            Timestamp approved = "PENDING".equals(status) ? null
+                    : "APPROVED".equals(status) && i % 1000 != 1 ? Timestamp.valueOf(LocalDateTime.now().minusHours(1)) : created;
+            requests.add(new Object[]{"EXPLAIN-" + materialIds.get(0) + "-" + i, materialIds.get(i % MATERIALS),
+                    BigDecimal.ONE, "kg", employeeIds.get(i % EMPLOYEES), status,
+                    "APPROVED".equals(status) ? BigDecimal.ONE : null, approved, created});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO material_requests (request_code, material_id, requested_quantity, unit, " +
+                "requester_id, status, reserved_quantity, approved_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", requests);
+
+        jdbcTemplate.execute("ANALYZE TABLE transactions, material_requests, materials");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        String materials = materialIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String employees = employeeIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        jdbcTemplate.update("DELETE FROM transactions WHERE material_id IN (" + materials + ")");
+        jdbcTemplate.update("DELETE FROM material_requests WHERE material_id IN (" + materials + ")");
+        jdbcTemplate.update("DELETE FROM materials WHERE id IN (" + materials + ")");
+        jdbcTemplate.update("DELETE FROM employees WHERE id IN (" + employees + ")");
+        jdbcTemplate.update("DELETE FROM suppliers WHERE id = ?", supplierId);
+    }
+
+    @Test
+    void migrationsAreApplied() {
+        assertEquals(0, flyway.info().pending().length, "Còn migration chưa chạy");
+        for (MigrationInfo migration : flyway.info().applied()) {
+            assertFalse(migration.getState().isFailed(), "Migration lỗi: " + migration.getScript());
+        }
+        assertNotNull(flyway.info().current());
+    }
+
+    @Test
+    void transactionHistoryByMaterialUsesMaterialDateIndex() {
+        Map<String, Object> row = explain(() -> transactionRepository.findTransactionHistoryByMaterial(materialIds.get(7)),
+                "transactions", materialIds.get(7));
+
+        assertKey(row, "idx_transactions_material_date");
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void unfilteredPageReadsInDateOrder() {
+        Map<String, Object> row = explain(() -> transactionRepository.findPage(null, null, null, null, null, null, null, PAGE),
+                "transactions", PAGE);
+
+        assertKey(row, DATE_ORDER_INDEXES);
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void cursorPageReadsInDateOrder() {
+        LocalDateTime cursor = start.plusDays(100);
+        Map<String, Object> row = explain(() -> transactionRepository.findPage(null, null, null, null, null, cursor, 5_000L, PAGE),
+                "transactions", cursor, cursor, 5_000L, PAGE);
+
+        assertKey(row, DATE_ORDER_INDEXES);
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void pageByTypeUsesTypeDateIndex() {
+        Map<String, Object> row = explain(() -> transactionRepository.findPage(Transaction.TransactionType.EXPORT,
+                null, null, null, null, null, null, PAGE), "transactions", "EXPORT", PAGE);
+
+        assertKey(row, "idx_transactions_type_date");
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void pageByMaterialUsesMaterialDateIndex() {
+        Map<String, Object> row = explain(() -> transactionRepository.findPage(null, materialIds.get(3),
+                null, null, null, null, null, PAGE), "transactions", materialIds.get(3), PAGE);
+
+        assertKey(row, "idx_transactions_material_date");
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void pageByEmployeeUsesEmployeeDateIndex() {
+        Map<String, Object> row = explain(() -> transactionRepository.findPage(null, null, employeeIds.get(3),
+                null, null, null, null, PAGE), "transactions", employeeIds.get(3), PAGE);
+
+        assertKey(row, "idx_transactions_employee_date");
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void transactionsByEmployeeUseEmployeeDateIndex() {
+        Map<String, Object> row = explain(() -> transactionRepository.findByEmployeeIdOrderByTransactionDateDesc(employeeIds.get(5)),
+                "transactions", employeeIds.get(5));
+
+        assertKey(row, "idx_transactions_employee_date");
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void expiringMaterialsUseExpiryIndex() {
+        LocalDate horizon = LocalDate.now().plusDays(7);
+        Map<String, Object> row = explain(() -> materialRepository.findExpiringSoonMaterials(horizon), "materials", horizon);
+
+        assertKey(row, "idx_materials_expiry_date");
+    }
+
+    @Test
+    void expiredMaterialsUseExpiryIndex() {
+        Map<String, Object> row = explain(() -> materialRepository.findExpiredMaterials(), "materials");
+
+        assertKey(row, "idx_materials_expiry_date");
+    }
+
+    @Test
+    void warningCandidatesScanAllMaterials() {
+        // So sánh hai cột (quantity <= min_quantity) OR hạn dùng: không chỉ mục nào thu hẹp được, quét toàn bộ bảng
+        LocalDate horizon = LocalDate.now().plusDays(7);
+        Map<String, Object> row = explain(() -> materialRepository.findWarningCandidates(horizon), "materials", horizon);
+
+        assertTrue(Set.of("ALL", "index").contains(String.valueOf(row.get("type"))), "Không còn quét toàn bảng: " + row);
+    }
+
+    @Test
+    void pendingRequestsUseStatusCreatedIndex() {
+        Map<String, Object> row = explain(() -> materialRequestRepository.findPendingRequests(), "material_requests");
+
+        assertKey(row, "idx_material_requests_status_created");
+        assertNoFilesort(row);
+    }
+
+    @Test
+    void expiredHoldsUseStatusApprovedIndex() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(48);
+        Map<String, Object> row = explain(() -> materialRequestRepository.findExpiredHolds(cutoff), "material_requests", cutoff);
+
+        assertKey(row, "idx_material_requests_status_approved");
+    }
+
+    @Test
+    void reservationCheckUsesMaterialStatusIndex() {
+        // Truy vấn con SUM theo từng nguyên liệu; nhánh EXISTS được MySQL gom thành một lần đọc các yêu cầu APPROVED
+        Map<String, Object> row = explain(() -> materialRepository.checkReservations(), "material_requests");
+
+        assertKey(row, "idx_material_requests_material_status");
+    }
+
+    /**
+     * Chạy truy vấn, lấy câu SELECT Hibernate sinh ra và EXPLAIN với cùng tham số (theo thứ tự dấu ?)
+     * Trả về dòng EXPLAIN của lần xuất hiện đầu tiên của bảng trong câu lệnh (theo bí danh Hibernate đặt cho bảng)
+     */
+    private Map<String, Object> explain(Runnable query, String table, Object... parameters) {
+        List<String> statements = StatementRecorder.record(query);
+        String sql = statements.stream().filter(s -> s.trim().toLowerCase().startsWith("select")).findFirst()
+                .orElseThrow(() -> new AssertionError("Không có câu SELECT: " + statements));
+
+        Matcher alias = Pattern.compile("(?i)\\b(?:from|join)\\s+" + table + "\\s+(\\w+)").matcher(sql);
+        if (!alias.find()) {
+            fail("Không thấy bảng " + table + " trong câu lệnh\n" + sql);
+        }
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        return plan.stream().filter(row -> alias.group(1).equals(row.get("table"))).findFirst()
+                .orElseGet(() -> fail("Không thấy bảng " + table + " trong EXPLAIN\n" + sql + "\n" + plan));
+    }
+
+    private static void assertKey(Map<String, Object> row, String index) {
+        assertKey(row, Set.of(index));
+    }
+
+    private static void assertKey(Map<String, Object> row, Set<String> indexes) {
+        assertTrue(indexes.contains(String.valueOf(row.get("key"))),
+                "MySQL chọn " + row.get("key") + " thay vì " + indexes + ": " + row);
+    }
+
+    private static void assertNoFilesort(Map<String, Object> row) {
+        String extra = String.valueOf(row.get("Extra"));
+        assertFalse(extra.contains("filesort"), "Sắp xếp bằng filesort: " + row);
+    }
+}
@@ -0,0 +1,143 @@
+package com.warehouse.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.dto.response.MaterialRequestSummaryDTO;
+import com.warehouse.dto.response.TransactionSummaryDTO;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.entity.Supplier;
+import com.warehouse.support.StatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Danh sách giao dịch / yêu cầu đọc bằng một truy vấn projection, kể cả khi chuyển thành JSON:
+ * số câu lệnh không phụ thuộc số dòng. Mỗi dòng trỏ tới nhân viên, nhà cung cấp, yêu cầu khác nhau,
+ * nên nếu quay lại trả entity (nạp LAZY từng dòng) số câu lệnh sẽ tăng theo kích thước trang.
+ */
+class SummaryProjectionStatementCountTest extends IntegrationTestSupport {
+
+    private static final int ROWS = 1200;
+    private static final int EMPLOYEES = 40;
+    private static final int SUPPLIERS = 20;
+    private static final int REQUESTS = 40;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private MaterialRequestRepository materialRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Material material;
+
+    @BeforeEach
+    void seed() {
+        List<Employee> employees = new ArrayList<>();
+        List<Supplier> suppliers = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(createEmployee(i % 2 == 0 ? Employee.Role.KITCHEN_STAFF : Employee.Role.WAREHOUSE_STAFF));
+        }
+        for (int i = 0; i < SUPPLIERS; i++) {
+            suppliers.add(createSupplier());
+        }
+        material = createMaterial(suppliers.get(0), "0");
+
+        List<MaterialRequest> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            MaterialRequest request = new MaterialRequest();
+            request.setRequestCode("REQ-PROJECTION-" + material.getId() + "-" + i);
+            request.setMaterial(material);
+            request.setRequestedQuantity(BigDecimal.ONE);
+            request.setUnit("kg");
+            request.setRequester(employees.get(i));
+            request.setApprover(employees.get((i + 1) % EMPLOYEES));
+            request.setStatus(i % 2 == 0 ? MaterialRequest.RequestStatus.PENDING : MaterialRequest.RequestStatus.COMPLETED);
+            request.setReason("Test projection");
+            requests.add(request);
+        }
+        requests = materialRequestRepository.saveAll(requests);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long id = 90_000_000L + material.getId() * 10_000 + i;
+            Timestamp date = Timestamp.valueOf(start.plusSeconds(i));
+            rows.add(new Object[]{id, "IMP-PROJECTION-TEST-" + id, material.getId(), i % 2 == 0 ? "IMPORT" : "EXPORT",
+                    BigDecimal.ONE, "kg", new BigDecimal("1000"), new BigDecimal("1000"),
+                    suppliers.get(i % SUPPLIERS).getId(), employees.get(i % EMPLOYEES).getId(),
+                    requests.get(i % REQUESTS).getId(), date, date});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, transaction_code, material_id, type, quantity, unit, " +
+                "unit_price, total_price, supplier_id, employee_id, request_id, transaction_date, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void transactionPageCostsTheSameForAnyPageSize() {
+        List<String> small = recordPage(10);
+        List<String> large = recordPage(1000);
+
+        assertEquals(1, small.size(), String.join("\n", small));
+        assertEquals(small.size(), large.size(), String.join("\n", large));
+    }
+
+    @Test
+    void transactionHistoryByMaterialUsesOneStatement() {
+        List<String> statements = StatementRecorder.record(() -> {
+            List<TransactionSummaryDTO> rows = transactionRepository.findTransactionHistoryByMaterial(material.getId());
+            assertEquals(ROWS, rows.size());
+            toJson(rows);
+        });
+
+        assertEquals(1, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void requestListsUseOneStatement() {
+        List<String> all = StatementRecorder.record(() -> {
+            List<MaterialRequestSummaryDTO> rows = materialRequestRepository.findAllSummaries();
+            assertEquals(REQUESTS, rows.stream().filter(row -> row.getRequestCode().startsWith(
+                    "REQ-PROJECTION-" + material.getId() + "-")).count());
+            toJson(rows);
+        });
+        List<String> pending = StatementRecorder.record(() -> toJson(materialRequestRepository.findPendingRequests()));
+
+        assertEquals(1, all.size(), String.join("\n", all));
+        assertEquals(1, pending.size(), String.join("\n", pending));
+    }
+
+    private List<String> recordPage(int limit) {
+        return StatementRecorder.record(() -> {
+            List<TransactionSummaryDTO> rows = transactionRepository.findPage(null, material.getId(), null,
+                    null, null, null, null, limit);
+            assertEquals(limit, rows.size());
+            toJson(rows);
+        });
+    }
+
+    private void toJson(Object value) {
+        try {
+            objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.warehouse.security;
+
+import com.warehouse.entity.Employee;
+import com.warehouse.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cache đầy: người dùng được nạp lâu nhất bị loại trước, người dùng được nạp lại không bị loại theo lần nạp cũ
+ */
+class PrincipalCacheTest {
+
+    private static final int MAX_SIZE = 3;
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final PrincipalCache cache = new PrincipalCache();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(cache, "maxSize", MAX_SIZE);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        when(employeeRepository.findByUsername(anyString())).thenAnswer(invocation -> {
+            Employee employee = new Employee();
+            employee.setUsername(invocation.getArgument(0));
+            employee.setRole(Employee.Role.WAREHOUSE_STAFF);
+            employee.setActive(true);
+            return Optional.of(employee);
+        });
+    }
+
+    @Test
+    void evictsInLoadOrder() {
+        for (String username : new String[]{"a", "b", "c", "d", "e"}) {
+            cache.get(username);
+        }
+
+        assertEquals(MAX_SIZE, cache.size());
+        cache.get("c");
+        cache.get("d");
+        cache.get("e");
+        assertEquals(5, cache.getMisses());
+        cache.get("a");
+        assertEquals(6, cache.getMisses());
+        assertEquals(MAX_SIZE, cache.size());
+    }
+
+    @Test
+    void replacedEntryIsNotEvictedByItsStaleLoad() {
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+        // "a" hết hạn và được nạp lại: phần tử cũ của "a" ở đầu hàng đợi không được loại bản ghi mới
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.get("a");
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        cache.get("d");
+
+        long misses = cache.getMisses();
+        cache.get("a");
+        cache.get("d");
+        assertEquals(misses, cache.getMisses());
+        assertEquals(MAX_SIZE, cache.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.warehouse.service;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.dto.request.ExportRequest;
+import com.warehouse.dto.request.ImportRequest;
+import com.warehouse.dto.request.MaterialRequestDTO;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import com.warehouse.support.StatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Nhân viên hiện tại được gắn bằng tham chiếu theo ID trong principal: các thao tác ghi không đọc bảng employees
+ * Số câu lệnh trước khi đổi (tìm nhân viên theo username) nhiều hơn đúng một SELECT employees:
+ * nhập 10, xuất 11, tạo yêu cầu 3, duyệt 11, từ chối 6.
+ */
+class CurrentEmployeeStatementCountTest extends IntegrationTestSupport {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private MaterialRequestService materialRequestService;
+
+    private Supplier supplier;
+    private Material material;
+
+    @BeforeEach
+    void setUp() {
+        authenticate(createEmployee(Employee.Role.ADMIN));
+        supplier = createSupplier();
+        material = createMaterial(supplier, "1000");
+        // Lần nhập đầu tiên còn ghi lại hạn dùng của nguyên liệu theo lô
+        transactionService.importMaterial(importRequest());
+    }
+
+    @Test
+    void importMaterial() {
+        List<String> statements = StatementRecorder.record(() -> transactionService.importMaterial(importRequest()));
+
+        assertNoEmployeeLookup(statements);
+        assertEquals(9, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void exportMaterial() {
+        List<String> statements = StatementRecorder.record(() -> transactionService.exportMaterial(
+                new ExportRequest(material.getId(), new BigDecimal("1"), null, null)));
+
+        assertNoEmployeeLookup(statements);
+        assertEquals(10, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void createRequest() {
+        List<String> statements = StatementRecorder.record(() -> materialRequestService.createRequest(requestDto()));
+
+        assertNoEmployeeLookup(statements);
+        assertEquals(2, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void approveRequest() {
+        Long requestId = materialRequestService.createRequest(requestDto()).getId();
+
+        List<String> statements = StatementRecorder.record(() -> materialRequestService.approveRequest(requestId, null));
+
+        assertNoEmployeeLookup(statements);
+        assertEquals(10, statements.size(), String.join("\n", statements));
+    }
+
+    @Test
+    void rejectRequest() {
+        Long requestId = materialRequestService.createRequest(requestDto()).getId();
+
+        List<String> statements = StatementRecorder.record(() -> materialRequestService.rejectRequest(requestId, "Không cần", null));
+
+        assertNoEmployeeLookup(statements);
+        assertEquals(6, statements.size(), String.join("\n", statements));
+    }
+
+    private ImportRequest importRequest() {
+        return new ImportRequest(material.getId(), new BigDecimal("5"), "kg", new BigDecimal("1000"),
+                supplier.getId(), null, null);
+    }
+
+    private MaterialRequestDTO requestDto() {
+        return new MaterialRequestDTO(material.getId(), new BigDecimal("2"), "kg", "Sắp hết hàng", null);
+    }
+
+    private static void assertNoEmployeeLookup(List<String> statements) {
+        assertTrue(statements.stream().noneMatch(sql -> sql.toLowerCase().contains("from employees")),
+                "Có truy vấn bảng employees:\n" + String.join("\n", statements));
+    }
+}
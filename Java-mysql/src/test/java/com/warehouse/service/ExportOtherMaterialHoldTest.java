@@ -0,0 +1,97 @@
+package com.warehouse.service;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.cache.MaterialCache;
+import com.warehouse.dto.request.ExportRequest;
+import com.warehouse.dto.request.MaterialRequestDTO;
+import com.warehouse.dto.response.BatchResultDTO;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.MaterialRequest;
+import com.warehouse.entity.Supplier;
+import com.warehouse.event.StockEvent;
+import com.warehouse.repository.MaterialRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Xuất kho một nguyên liệu theo yêu cầu đã duyệt của nguyên liệu khác: phần hàng yêu cầu giữ trên
+ * nguyên liệu của yêu cầu được trả lại (DB, cache nguyên liệu và StockEvent cho chỉ mục cảnh báo / SSE)
+ */
+@RecordApplicationEvents
+class ExportOtherMaterialHoldTest extends IntegrationTestSupport {
+
+    private static final BigDecimal HELD = new BigDecimal("4.00");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private MaterialRequestService materialRequestService;
+
+    @Autowired
+    private MaterialRequestRepository materialRequestRepository;
+
+    @Autowired
+    private MaterialCache materialCache;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Material exported;
+    private Material requested;
+    private Long requestId;
+
+    @BeforeEach
+    void setUp() {
+        authenticate(createEmployee(Employee.Role.ADMIN));
+        Supplier supplier = createSupplier();
+        exported = createMaterial(supplier, "50");
+        requested = createMaterial(supplier, "50");
+        requestId = materialRequestService.createRequest(
+                new MaterialRequestDTO(requested.getId(), HELD, "kg", "Dùng nguyên liệu thay thế", null)).getId();
+        materialRequestService.approveRequest(requestId, null);
+
+        assertEquals(0, HELD.compareTo(reservedInCache()));
+        events.clear();
+    }
+
+    @Test
+    void exportReleasesHoldOfRequestedMaterial() {
+        transactionService.exportMaterial(new ExportRequest(exported.getId(), new BigDecimal("3"), requestId, null));
+
+        assertHoldReleased();
+    }
+
+    @Test
+    void batchExportReleasesHoldOfRequestedMaterial() {
+        BatchResultDTO result = transactionService.exportMaterials(List.of(
+                new ExportRequest(exported.getId(), new BigDecimal("3"), requestId, null)));
+
+        assertEquals(1, result.getSucceeded());
+        assertHoldReleased();
+    }
+
+    private void assertHoldReleased() {
+        MaterialRequest request = materialRequestRepository.findById(requestId).orElseThrow();
+        assertEquals(MaterialRequest.RequestStatus.COMPLETED, request.getStatus());
+        assertEquals(0, request.getReservedQuantity().signum());
+        assertEquals(0, materialRepository.findById(requested.getId()).orElseThrow().getReservedQuantity().signum());
+        assertEquals(0, reservedInCache().signum(), "Cache nguyên liệu vẫn giữ phần hàng của yêu cầu");
+        assertTrue(events.stream(StockEvent.class).anyMatch(event -> event.getType() == StockEvent.Type.RELEASE
+                && event.getMaterial().getId().equals(requested.getId())), "Không có StockEvent trả lại hàng giữ");
+    }
+
+    private BigDecimal reservedInCache() {
+        return materialCache.getById(requested.getId()).orElseThrow().getReservedQuantity();
+    }
+}
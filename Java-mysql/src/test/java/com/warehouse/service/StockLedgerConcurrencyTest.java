@@ -0,0 +1,99 @@
+package com.warehouse.service;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.entity.Material;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 64 luồng cùng nhập / xuất một nguyên liệu qua StockLedgerService, mỗi thao tác một transaction:
+ * không mất cập nhật nào (tồn đầu + nhập - xuất = tồn cuối) và tồn kho không lúc nào âm
+ */
+class StockLedgerConcurrencyTest extends IntegrationTestSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerConcurrencyTest.class);
+
+    private static final int WRITERS = 64;
+    private static final int OPS_PER_WRITER = 50;
+    private static final BigDecimal START = new BigDecimal("100.00");
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentWritersLoseNoUpdates() throws Exception {
+        Long materialId = createMaterial(createSupplier(), START.toPlainString()).getId();
+        AtomicLong imported = new AtomicLong();
+        AtomicLong exported = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicReference<BigDecimal> lowest = new AtomicReference<>(START);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPS_PER_WRITER; i++) {
+                    // Xuất nhiều hơn nhập để tồn kho thường xuyên chạm 0 và điều kiện chặn âm được thử
+                    boolean isImport = random.nextInt(5) < 2;
+                    long amount = random.nextLong(1, 6);
+                    BigDecimal after = transactionTemplate.execute(status -> {
+                        Material material = materialRepository.findById(materialId).orElseThrow();
+                        if (isImport) {
+                            stockLedgerService.increase(material, BigDecimal.valueOf(amount));
+                            imported.addAndGet(amount);
+                        } else if (stockLedgerService.tryDecrease(material, BigDecimal.valueOf(amount))) {
+                            exported.addAndGet(amount);
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                        return material.getQuantity();
+                    });
+                    lowest.accumulateAndGet(after, BigDecimal::min);
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        executor.shutdown();
+
+        BigDecimal expected = START.add(BigDecimal.valueOf(imported.get() - exported.get()));
+        BigDecimal actual = materialRepository.findById(materialId).orElseThrow().getQuantity();
+        log.info("{} luồng x {} thao tác: {} ops/s (nhập {}, xuất {}, từ chối {} lần vì không đủ hàng)",
+                WRITERS, OPS_PER_WRITER, Math.round(WRITERS * OPS_PER_WRITER / seconds),
+                imported.get(), exported.get(), rejected.get());
+
+        assertEquals(0, expected.compareTo(actual), "Tồn cuối " + actual + " khác " + expected);
+        assertTrue(lowest.get().signum() >= 0, "Tồn kho bị âm: " + lowest.get());
+        assertTrue(rejected.get() > 0, "Không lần xuất nào bị chặn, điều kiện chặn âm chưa được thử");
+    }
+}
@@ -0,0 +1,144 @@
+package com.warehouse.service;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.dto.request.ExportRequest;
+import com.warehouse.dto.request.ImportRequest;
+import com.warehouse.dto.request.MaterialRequestDTO;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import com.warehouse.entity.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Phê duyệt / từ chối, xuất kho theo yêu cầu, trả lại hàng giữ quá hạn và nhập / xuất tự do chạy đồng thời
+ * trên cùng một nguyên liệu: bộ đếm giữ hàng của nguyên liệu luôn bằng tổng phần giữ của các yêu cầu đã duyệt
+ * và tồn kho cuối bằng tồn đầu + nhập - xuất
+ */
+class StockReservationConcurrencyTest extends IntegrationTestSupport {
+
+    private static final int REQUESTS = 40;
+    private static final int FREE_OPS = 80;
+    // Ít hơn pool kết nối (10): bảng sinh ID của giao dịch / lô lấy thêm một kết nối riêng khi hết khối,
+    // nên với nhiều luồng hơn pool, luồng đang giữ khóa nguyên liệu phải chờ kết nối của các luồng đang chờ khóa
+    private static final int THREADS = 8;
+    private static final BigDecimal START = new BigDecimal("60.00");
+    private static final BigDecimal REQUEST_QUANTITY = new BigDecimal("5");
+
+    // Lỗi nghiệp vụ được chờ đợi khi các thao tác tranh nhau (thiếu hàng, yêu cầu đã được xử lý)
+    private static final List<String> EXPECTED_ERRORS = List.of("Không đủ số lượng", "Yêu cầu đã được xử lý");
+
+    @Autowired
+    private MaterialRequestService materialRequestService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void holdCounterMatchesRequestsUnderConcurrency() throws Exception {
+        Employee admin = createEmployee(Employee.Role.ADMIN);
+        Supplier supplier = createSupplier();
+        Long materialId = createMaterial(supplier, START.toPlainString()).getId();
+
+        authenticate(admin);
+        List<BigDecimal> imported = Collections.synchronizedList(new ArrayList<>());
+        List<BigDecimal> exported = Collections.synchronizedList(new ArrayList<>());
+        List<Runnable> ops = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Long id = materialRequestService.createRequest(
+                    new MaterialRequestDTO(materialId, REQUEST_QUANTITY, "kg", "Kiểm tra tranh chấp", null)).getId();
+            ops.add(() -> materialRequestService.approveRequest(id, null));
+            ops.add(() -> materialRequestService.rejectRequest(id, "Kiểm tra tranh chấp", null));
+            ops.add(() -> exported.add(transactionService.exportMaterial(
+                    new ExportRequest(materialId, REQUEST_QUANTITY, id, null)).getQuantity()));
+            ops.add(() -> {
+                // Lùi thời điểm duyệt để phần giữ của yêu cầu này quá hạn
+                jdbcTemplate.update("UPDATE material_requests SET approved_at = DATEADD('DAY', -30, approved_at) " +
+                        "WHERE id = ? AND status = 'APPROVED'", id);
+                stockReservationService.releaseExpiredHolds();
+            });
+        }
+        for (int i = 0; i < FREE_OPS; i++) {
+            if (i % 2 == 0) {
+                ops.add(() -> imported.add(transactionService.importMaterial(new ImportRequest(materialId,
+                        BigDecimal.ONE, "kg", new BigDecimal("1000"), supplier.getId(), null, null)).getQuantity()));
+            } else {
+                ops.add(() -> exported.add(transactionService.exportMaterial(
+                        new ExportRequest(materialId, BigDecimal.ONE, null, null)).getQuantity()));
+            }
+        }
+        Collections.shuffle(ops);
+        SecurityContextHolder.clearContext();
+
+        ConcurrentLinkedQueue<String> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable op : ops) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                authenticate(admin);
+                try {
+                    op.run();
+                    succeeded.incrementAndGet();
+                } catch (RuntimeException e) {
+                    String message = String.valueOf(e.getMessage());
+                    if (EXPECTED_ERRORS.stream().noneMatch(message::contains)) {
+                        unexpected.add(message);
+                    }
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(unexpected.isEmpty(), String.join("\n", unexpected));
+        assertTrue(succeeded.get() > 0);
+
+        Material material = materialRepository.findById(materialId).orElseThrow();
+        BigDecimal held = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(reserved_quantity), 0) FROM material_requests " +
+                "WHERE material_id = ? AND status = 'APPROVED'", BigDecimal.class, materialId);
+        assertEquals(0, held.compareTo(material.getReservedQuantity()),
+                "Bộ đếm giữ hàng " + material.getReservedQuantity() + " khác tổng phần giữ " + held);
+
+        BigDecimal expected = START.add(sum(imported)).subtract(sum(exported));
+        assertEquals(0, expected.compareTo(material.getQuantity()), "Tồn cuối " + material.getQuantity() + " khác " + expected);
+        assertTrue(material.getReservedQuantity().signum() >= 0);
+        assertTrue(material.getQuantity().compareTo(material.getReservedQuantity()) >= 0,
+                "Phần giữ " + material.getReservedQuantity() + " lớn hơn tồn kho " + material.getQuantity());
+    }
+
+    private static BigDecimal sum(List<BigDecimal> quantities) {
+        return quantities.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
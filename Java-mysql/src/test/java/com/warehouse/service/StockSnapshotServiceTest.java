@@ -0,0 +1,126 @@
+package com.warehouse.service;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.dto.response.StockAsOfDTO;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tồn kho tại một ngày (ảnh chụp + giao dịch sau ảnh chụp) phải bằng kết quả cộng dồn toàn bộ giao dịch
+ * Kiểm tra mọi ngày trong khoảng: trước giao dịch đầu tiên, trước ảnh chụp đầu tiên, đúng ngày chụp,
+ * ngày ngay sau ảnh chụp, ngày không có giao dịch và hôm nay (sau ảnh chụp cuối cùng).
+ */
+class StockSnapshotServiceTest extends IntegrationTestSupport {
+
+    private static final BigDecimal OPENING = new BigDecimal("100.00");
+    private static final int FIRST_DAY = -20;
+    private static final int EMPTY_DAY = -12;
+    private static final int FIRST_SNAPSHOT = -15;
+    private static final int SECOND_SNAPSHOT = -8;
+
+    @Autowired
+    private StockSnapshotService stockSnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private final List<Object[]> transactions = new ArrayList<>();
+    private Material material;
+
+    @BeforeEach
+    void seed() {
+        Employee employee = createEmployee(Employee.Role.WAREHOUSE_STAFF);
+        material = createMaterial(createSupplier(), "0");
+
+        // Mỗi ngày: nhập lúc 00:00:00, xuất giữa ngày, nhập lúc 23:59:59 (biên của ngày)
+        BigDecimal net = BigDecimal.ZERO;
+        for (int day = FIRST_DAY; day <= 0; day++) {
+            if (day == EMPTY_DAY) {
+                continue;
+            }
+            LocalDate date = today.plusDays(day);
+            net = net.add(addTransaction(employee, date.atStartOfDay(), "IMPORT", new BigDecimal(10 + Math.abs(day))));
+            net = net.add(addTransaction(employee, date.atTime(12, 30), "EXPORT", new BigDecimal("4.50")));
+            LocalDateTime lastSecond = date.atTime(LocalTime.of(23, 59, 59));
+            if (!lastSecond.isAfter(LocalDateTime.now())) {
+                net = net.add(addTransaction(employee, lastSecond, "IMPORT", new BigDecimal("1.25")));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, transaction_code, material_id, type, quantity, unit, " +
+                "employee_id, transaction_date, created_at) VALUES (?, ?, ?, ?, ?, 'kg', ?, ?, ?)", transactions);
+        // Tồn kho hiện tại khớp với tồn đầu kỳ + mọi giao dịch
+        jdbcTemplate.update("UPDATE materials SET quantity = ? WHERE id = ?", OPENING.add(net), material.getId());
+
+        stockSnapshotService.takeSnapshot(today.plusDays(FIRST_SNAPSHOT));
+        stockSnapshotService.takeSnapshot(today.plusDays(SECOND_SNAPSHOT));
+    }
+
+    @Test
+    void snapshotPlusDeltaMatchesFullReplay() {
+        for (int day = FIRST_DAY - 5; day <= 0; day++) {
+            LocalDate date = today.plusDays(day);
+            StockAsOfDTO stock = stockSnapshotService.getStockAsOf(date, material.getId()).get(0);
+
+            assertEquals(0, replay(date).compareTo(stock.getQuantity()),
+                    "Ngày " + date + ": " + stock.getQuantity() + " khác " + replay(date));
+            if (day < FIRST_SNAPSHOT) {
+                assertNull(stock.getBaseSnapshotDate(), "Ngày " + date + " trước ảnh chụp đầu tiên");
+            } else {
+                assertNotNull(stock.getBaseSnapshotDate(), "Ngày " + date);
+            }
+        }
+    }
+
+    @Test
+    void dayWithoutTransactionsKeepsPreviousClosingStock() {
+        LocalDate empty = today.plusDays(EMPTY_DAY);
+
+        StockAsOfDTO before = stockSnapshotService.getStockAsOf(empty.minusDays(1), material.getId()).get(0);
+        StockAsOfDTO stock = stockSnapshotService.getStockAsOf(empty, material.getId()).get(0);
+
+        assertEquals(0, before.getQuantity().compareTo(stock.getQuantity()));
+        assertEquals(today.plusDays(FIRST_SNAPSHOT), stock.getBaseSnapshotDate());
+        // Cùng ảnh chụp, không thêm giao dịch nào được cộng
+        assertEquals(before.getReplayedTransactions(), stock.getReplayedTransactions());
+    }
+
+    /**
+     * Tồn cuối ngày tính bằng cộng dồn từ đầu mọi giao dịch đến hết ngày
+     */
+    private BigDecimal replay(LocalDate date) {
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+        BigDecimal quantity = OPENING;
+        for (Object[] row : transactions) {
+            if (((Timestamp) row[6]).toLocalDateTime().isBefore(dayEnd)) {
+                BigDecimal amount = (BigDecimal) row[4];
+                quantity = "IMPORT".equals(row[3]) ? quantity.add(amount) : quantity.subtract(amount);
+            }
+        }
+        return quantity;
+    }
+
+    private BigDecimal addTransaction(Employee employee, LocalDateTime date, String type, BigDecimal quantity) {
+        long id = 80_000_000L + material.getId() * 1000 + transactions.size();
+        Timestamp timestamp = Timestamp.valueOf(date);
+        transactions.add(new Object[]{id, type.substring(0, 3) + "-SNAPSHOT-TEST-" + id, material.getId(), type,
+                quantity, employee.getId(), timestamp, timestamp});
+        return "IMPORT".equals(type) ? quantity : quantity.negate();
+    }
+}
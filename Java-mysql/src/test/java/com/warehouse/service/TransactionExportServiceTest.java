@@ -0,0 +1,120 @@
+package com.warehouse.service;
+
+import com.warehouse.IntegrationTestSupport;
+import com.warehouse.entity.Employee;
+import com.warehouse.entity.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Xuất sổ giao dịch: số dòng ghi ra đúng bằng số giao dịch và heap không tăng theo số dòng
+ */
+class TransactionExportServiceTest extends IntegrationTestSupport {
+
+    private static final int ROWS = 200_000;
+    private static final long FIRST_ID = 50_000_000L;
+    private static final int SAMPLE_EVERY = 25_000;
+    // Đo trên H2: nạp hết 200.000 dòng thành List tăng khoảng 45 MB, đọc tuần tự khoảng 12 MB
+    // (phần lớn là bộ đệm kết quả của H2 trong bộ nhớ; MySQL đọc từng dòng từ server)
+    private static final long MAX_HEAP_GROWTH = 24L * 1024 * 1024;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Material material;
+
+    @BeforeEach
+    void seedTransactions() {
+        Employee employee = createEmployee(Employee.Role.WAREHOUSE_STAFF);
+        material = createMaterial(createSupplier(), "0");
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            long id = FIRST_ID + material.getId() * ROWS + i;
+            Timestamp date = Timestamp.valueOf(start.plusSeconds(i));
+            batch.add(new Object[]{id, "IMP-EXPORT-TEST-" + id, material.getId(), "IMPORT",
+                    BigDecimal.ONE, "kg", new BigDecimal("1000"), new BigDecimal("1000"),
+                    employee.getId(), "Giao dịch test số " + i, date, date});
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+    }
+
+    @Test
+    void exportStreamsRowsWithBoundedHeap() throws Exception {
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+
+        long written = transactionExportService.export(TransactionExportService.FORMAT_CSV,
+                null, material.getId(), null, null, out);
+
+        assertEquals(ROWS, written);
+        // Dòng tiêu đề + mỗi giao dịch một dòng
+        assertEquals(ROWS + 1, out.lines);
+        assertTrue(out.samples >= ROWS / SAMPLE_EVERY, "Không lấy mẫu heap trong lúc xuất");
+        assertTrue(out.maxGrowth < MAX_HEAP_GROWTH,
+                "Heap tăng " + out.maxGrowth / (1024 * 1024) + " MB trong lúc xuất " + ROWS + " dòng");
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (id, transaction_code, material_id, type, quantity, unit, " +
+                "unit_price, total_price, employee_id, note, transaction_date, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    /**
+     * Bỏ dữ liệu ghi ra, đếm số dòng và đo heap (sau GC) mỗi SAMPLE_EVERY dòng
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baseline;
+        private long lines;
+        private int samples;
+        private long maxGrowth;
+
+        HeapSamplingOutputStream() {
+            this.baseline = usedHeap();
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+                samples++;
+                maxGrowth = Math.max(maxGrowth, usedHeap() - baseline);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        private long usedHeap() {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.warehouse.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ghi lại các câu lệnh SQL Hibernate chuẩn bị trên luồng hiện tại (đăng ký trong application-test.yml)
+ * Statistics của Hibernate đếm chung mọi luồng, kể cả các job nền (outbox, SSE), nên test
+ * đếm câu lệnh của một thao tác dùng lớp này.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Chạy thao tác và trả về các câu lệnh nó đã chuẩn bị (theo thứ tự)
+     */
+    public static List<String> record(Runnable action) {
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            action.run();
+            return List.copyOf(statements);
+        } finally {
+            STATEMENTS.remove();
+        }
+    }
+}
@@ -24,7 +24,7 @@ try {
 Write-Host "`n=== TEST /api/transactions ===" -ForegroundColor Cyan
 try {
     $r3 = Invoke-RestMethod -Uri 'http://localhost:8080/api/transactions' -Method Get -Headers $headers
-    Write-Host "OK - Count: $($r3.data.Count)" -ForegroundColor Green
+    Write-Host "OK - Count: $($r3.data.items.Count)" -ForegroundColor Green
 } catch {
     Write-Host "FAIL - $($_.Exception.Response.StatusCode.value__)" -ForegroundColor Red
 }
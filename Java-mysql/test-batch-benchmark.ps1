@@ -0,0 +1,39 @@
+# So sánh thông lượng nhập kho: gọi từng dòng vs. nhập hàng loạt
+param(
+    [int]$Lines = 200,
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+$items = 1..$Lines | ForEach-Object {
+    @{ materialId = (($_ - 1) % 10) + 1; quantity = 1; unit = 'kg'; unitPrice = 1000; supplierId = 1; note = "Benchmark dòng $_" }
+}
+
+Write-Host "`n=== NHẬP TỪNG DÒNG ($Lines lần gọi /api/materials/import) ===" -ForegroundColor Cyan
+$failed = 0
+$single = Measure-Command {
+    foreach ($item in $items) {
+        try {
+            Invoke-RestMethod -Uri "$BaseUrl/api/materials/import" -Method Post -Headers $headers -Body ($item | ConvertTo-Json) -ContentType 'application/json' | Out-Null
+        } catch {
+            $failed++
+        }
+    }
+}
+$singleRate = [math]::Round(($Lines - $failed) / $single.TotalSeconds, 2)
+Write-Host "Thời gian: $([math]::Round($single.TotalSeconds, 3)) s - Lỗi: $failed - $singleRate dòng/s"
+
+Write-Host "`n=== NHẬP HÀNG LOẠT (1 lần gọi /api/materials/import/batch) ===" -ForegroundColor Cyan
+$body = @{ items = $items } | ConvertTo-Json -Depth 4
+$batch = Measure-Command {
+    $batchResp = Invoke-RestMethod -Uri "$BaseUrl/api/materials/import/batch" -Method Post -Headers $headers -Body $body -ContentType 'application/json'
+}
+$batchRate = [math]::Round($batchResp.data.succeeded / $batch.TotalSeconds, 2)
+Write-Host "Thời gian: $([math]::Round($batch.TotalSeconds, 3)) s - Thành công: $($batchResp.data.succeeded)/$($batchResp.data.total) - $batchRate dòng/s"
+
+Write-Host "`n=== KẾT QUẢ ===" -ForegroundColor Green
+Write-Host "Tăng tốc: $([math]::Round($batchRate / $singleRate, 1))x"
@@ -0,0 +1,48 @@
+# Đo độ trễ GET /api/materials (p50 / p99)
+# Chạy một lần với cache bật (mặc định) và một lần sau khi khởi động lại ứng dụng với
+#   --app.cache.material.enabled=false
+# rồi so sánh hai kết quả.
+param(
+    [int]$Requests = 2000,
+    [int]$Warmup = 100,
+    [string]$Label = 'cache',
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+Write-Host "`n=== WARMUP ($Warmup requests) ===" -ForegroundColor Cyan
+1..$Warmup | ForEach-Object {
+    Invoke-RestMethod -Uri "$BaseUrl/api/materials" -Method Get -Headers $headers | Out-Null
+}
+
+Write-Host "`n=== ĐO ($Requests requests) ===" -ForegroundColor Cyan
+$latencies = New-Object System.Collections.Generic.List[double]
+$watch = New-Object System.Diagnostics.Stopwatch
+1..$Requests | ForEach-Object {
+    $watch.Restart()
+    Invoke-RestMethod -Uri "$BaseUrl/api/materials" -Method Get -Headers $headers | Out-Null
+    $watch.Stop()
+    $latencies.Add($watch.Elapsed.TotalMilliseconds)
+}
+
+$sorted = $latencies | Sort-Object
+function Get-Percentile($values, [double]$p) {
+    $index = [math]::Ceiling($p * $values.Count) - 1
+    return [math]::Round($values[[math]::Max(0, $index)], 2)
+}
+
+Write-Host "`n=== KẾT QUẢ [$Label] ===" -ForegroundColor Green
+Write-Host "p50: $(Get-Percentile $sorted 0.50) ms"
+Write-Host "p99: $(Get-Percentile $sorted 0.99) ms"
+Write-Host "max: $([math]::Round($sorted[-1], 2)) ms"
+
+try {
+    $stats = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/cache/stats" -Method Get -Headers $headers).data
+    Write-Host "Cache - hits: $($stats.hits) - misses: $($stats.misses) - evictions: $($stats.evictions) - hit rate: $([math]::Round($stats.hitRate * 100, 1))%"
+} catch {
+    Write-Host "Không lấy được thống kê cache" -ForegroundColor Yellow
+}
@@ -0,0 +1,62 @@
+# Kiểm tra tranh chấp tồn kho: nhiều luồng nhập / xuất đồng thời trên cùng một nguyên liệu
+# Yêu cầu PowerShell 7+ (ForEach-Object -Parallel)
+param(
+    [int]$Writers = 64,
+    [int]$OpsPerWriter = 20,
+    [long]$MaterialId = 1,
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+$before = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId" -Method Get -Headers $headers).data.quantity
+Write-Host "Tồn kho ban đầu: $before"
+
+Write-Host "`n=== $Writers LUỒNG x $OpsPerWriter THAO TÁC ===" -ForegroundColor Cyan
+$elapsed = Measure-Command {
+    $results = 1..$Writers | ForEach-Object -ThrottleLimit $Writers -Parallel {
+        $imported = 0; $exported = 0; $rejected = 0; $errors = 0
+        for ($i = 0; $i -lt $using:OpsPerWriter; $i++) {
+            # Luồng chẵn nhập 1 đơn vị, luồng lẻ xuất 1 đơn vị
+            $isImport = ($_ % 2) -eq 0
+            $uri = if ($isImport) { "$using:BaseUrl/api/materials/import" } else { "$using:BaseUrl/api/materials/export" }
+            $body = if ($isImport) {
+                @{ materialId = $using:MaterialId; quantity = 1; unit = 'kg'; unitPrice = 1000 } | ConvertTo-Json
+            } else {
+                @{ materialId = $using:MaterialId; quantity = 1 } | ConvertTo-Json
+            }
+            try {
+                Invoke-RestMethod -Uri $uri -Method Post -Headers $using:headers -Body $body -ContentType 'application/json' | Out-Null
+                if ($isImport) { $imported++ } else { $exported++ }
+            } catch {
+                $message = $_.ErrorDetails.Message
+                if ($message -and $message.Contains('Không đủ số lượng')) { $rejected++ } else { $errors++ }
+            }
+        }
+        [pscustomobject]@{ Imported = $imported; Exported = $exported; Rejected = $rejected; Errors = $errors }
+    }
+}
+
+$imported = ($results | Measure-Object -Property Imported -Sum).Sum
+$exported = ($results | Measure-Object -Property Exported -Sum).Sum
+$rejected = ($results | Measure-Object -Property Rejected -Sum).Sum
+$errors = ($results | Measure-Object -Property Errors -Sum).Sum
+
+$after = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId" -Method Get -Headers $headers).data.quantity
+$expected = [decimal]$before + $imported - $exported
+$total = $Writers * $OpsPerWriter
+
+Write-Host "`n=== KẾT QUẢ ===" -ForegroundColor Cyan
+Write-Host "Nhập thành công: $imported - Xuất thành công: $exported - Từ chối do thiếu hàng: $rejected - Lỗi khác: $errors"
+Write-Host "Thông lượng: $([math]::Round($total / $elapsed.TotalSeconds, 2)) thao tác/s"
+Write-Host "Tồn kho cuối: $after - Kỳ vọng: $expected"
+
+if ([decimal]$after -eq $expected -and [decimal]$after -ge 0) {
+    Write-Host "✓ Không mất cập nhật, tồn kho không âm" -ForegroundColor Green
+} else {
+    Write-Host "✗ Sai lệch tồn kho: $([decimal]$after - $expected)" -ForegroundColor Red
+    exit 1
+}
@@ -0,0 +1,60 @@
+# Đo độ trễ xuất kho (p50 / p99) khi nguyên liệu có nhiều lô còn hàng
+# Bước 1: nhập $Lots lô cho nguyên liệu $MaterialId (hạn dùng ngẫu nhiên trong 1-365 ngày tới) bằng nhập hàng loạt
+# Bước 2: gọi $Requests lần /api/materials/export, mỗi lần $Quantity - phân bổ FEFO trên các lô còn lại
+# Mỗi lần xuất chỉ nạp các lô còn hàng của nguyên liệu bằng một truy vấn theo chỉ mục (material_id, expiry_date, id).
+param(
+    [int]$MaterialId = 1,
+    [int]$Lots = 500,
+    [int]$Requests = 300,
+    [decimal]$Quantity = 3,
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+Write-Host "`n=== NHẬP $Lots LÔ ===" -ForegroundColor Cyan
+$random = New-Object System.Random 42
+$items = 1..$Lots | ForEach-Object {
+    @{ materialId = $MaterialId; quantity = 5; unit = 'kg'; unitPrice = 1000;
+       expiryDate = (Get-Date).AddDays($random.Next(1, 366)).ToString('yyyy-MM-dd'); note = "Benchmark lô $_" }
+}
+for ($i = 0; $i -lt $items.Count; $i += 100) {
+    $chunk = $items[$i..([math]::Min($i + 99, $items.Count - 1))]
+    Invoke-RestMethod -Uri "$BaseUrl/api/materials/import/batch" -Method Post -Headers $headers -Body (@{ items = $chunk } | ConvertTo-Json -Depth 4) -ContentType 'application/json' | Out-Null
+}
+$openLots = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId/lots" -Method Get -Headers $headers).data.Count
+Write-Host "Số lô còn hàng: $openLots"
+
+Write-Host "`n=== XUẤT KHO ($Requests lần) ===" -ForegroundColor Cyan
+$body = @{ materialId = $MaterialId; quantity = $Quantity; note = 'Benchmark FEFO' } | ConvertTo-Json
+$latencies = New-Object System.Collections.Generic.List[double]
+$watch = New-Object System.Diagnostics.Stopwatch
+$failed = 0
+1..$Requests | ForEach-Object {
+    $watch.Restart()
+    try {
+        Invoke-RestMethod -Uri "$BaseUrl/api/materials/export" -Method Post -Headers $headers -Body $body -ContentType 'application/json' | Out-Null
+    } catch {
+        $failed++
+    }
+    $watch.Stop()
+    $latencies.Add($watch.Elapsed.TotalMilliseconds)
+}
+
+$sorted = $latencies | Sort-Object
+function Get-Percentile($values, [double]$p) {
+    $index = [math]::Ceiling($p * $values.Count) - 1
+    return [math]::Round($values[[math]::Max(0, $index)], 2)
+}
+
+# Kiểm tra FEFO: các lô còn lại phải có hạn dùng không sớm hơn lô đã hết
+$remaining = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId/lots" -Method Get -Headers $headers).data
+
+Write-Host "`n=== KẾT QUẢ ===" -ForegroundColor Green
+Write-Host "Lỗi: $failed - Lô còn lại: $($remaining.Count) (lô đầu tiên hết hạn $($remaining[0].expiryDate))"
+Write-Host "p50: $(Get-Percentile $sorted 0.50) ms"
+Write-Host "p99: $(Get-Percentile $sorted 0.99) ms"
+Write-Host "max: $([math]::Round($sorted[-1], 2)) ms"
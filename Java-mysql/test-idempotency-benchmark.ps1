@@ -0,0 +1,69 @@
+# Đo chi phí header Idempotency-Key trên POST /api/materials/import (p50 / p99)
+# - Nhập kho không có khóa, có khóa mới mỗi lần, và gửi lại khóa đã xử lý (trả phản hồi đã lưu)
+# - Gửi đồng thời nhiều request cùng khóa: chỉ một giao dịch được tạo
+# Yêu cầu PowerShell 7+ (ForEach-Object -Parallel)
+param(
+    [int]$Requests = 500,
+    [int]$Warmup = 50,
+    [int]$Duplicates = 32,
+    [long]$MaterialId = 1,
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+$body = @{ materialId = $MaterialId; quantity = 1; unit = 'kg'; unitPrice = 1000 } | ConvertTo-Json
+
+function Get-Percentile($values, [double]$p) {
+    $index = [math]::Ceiling($p * $values.Count) - 1
+    return [math]::Round($values[[math]::Max(0, $index)], 2)
+}
+
+function Measure-Import([string]$Label, [scriptblock]$KeyFor) {
+    1..$Warmup | ForEach-Object {
+        $h = $headers.Clone(); $key = & $KeyFor $_; if ($key) { $h['Idempotency-Key'] = "warmup-$key" }
+        Invoke-RestMethod -Uri "$BaseUrl/api/materials/import" -Method Post -Headers $h -Body $body -ContentType 'application/json' | Out-Null
+    }
+    $latencies = New-Object System.Collections.Generic.List[double]
+    $watch = New-Object System.Diagnostics.Stopwatch
+    1..$Requests | ForEach-Object {
+        $h = $headers.Clone(); $key = & $KeyFor $_; if ($key) { $h['Idempotency-Key'] = $key }
+        $watch.Restart()
+        Invoke-RestMethod -Uri "$BaseUrl/api/materials/import" -Method Post -Headers $h -Body $body -ContentType 'application/json' | Out-Null
+        $watch.Stop()
+        $latencies.Add($watch.Elapsed.TotalMilliseconds)
+    }
+    $sorted = $latencies | Sort-Object
+    Write-Host ("{0,-22} p50: {1,7} ms - p99: {2,7} ms" -f $Label, (Get-Percentile $sorted 0.50), (Get-Percentile $sorted 0.99))
+}
+
+$run = [guid]::NewGuid().ToString('N').Substring(0, 8)
+Write-Host "`n=== ĐỘ TRỄ ($Requests requests mỗi loại) ===" -ForegroundColor Cyan
+Measure-Import 'Không có khóa' { param($i) $null }
+Measure-Import 'Khóa mới' { param($i) "bench-$run-$i" }
+Measure-Import 'Gửi lại khóa đã xử lý' { param($i) "bench-$run-1" }
+
+Write-Host "`n=== $Duplicates REQUEST ĐỒNG THỜI CÙNG KHÓA ===" -ForegroundColor Cyan
+$before = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId" -Method Get -Headers $headers).data.quantity
+$key = "dup-$run"
+$results = 1..$Duplicates | ForEach-Object -ThrottleLimit $Duplicates -Parallel {
+    $h = ($using:headers).Clone(); $h['Idempotency-Key'] = $using:key
+    $resp = Invoke-WebRequest -Uri "$using:BaseUrl/api/materials/import" -Method Post -Headers $h -Body $using:body -ContentType 'application/json'
+    [pscustomobject]@{
+        Code = ($resp.Content | ConvertFrom-Json).data.transactionCode
+        Replayed = $resp.Headers['Idempotent-Replayed'] -contains 'true'
+    }
+}
+$after = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId" -Method Get -Headers $headers).data.quantity
+$codes = ($results | Select-Object -ExpandProperty Code -Unique).Count
+$replayed = ($results | Where-Object Replayed).Count
+
+Write-Host "Mã giao dịch khác nhau: $codes - Phản hồi trả lại: $replayed - Tồn kho tăng: $([decimal]$after - [decimal]$before)"
+if ($codes -eq 1 -and ([decimal]$after - [decimal]$before) -eq 1) {
+    Write-Host "✓ Chỉ một giao dịch được tạo" -ForegroundColor Green
+} else {
+    Write-Host "✗ Request trùng khóa được xử lý nhiều lần" -ForegroundColor Red
+    exit 1
+}
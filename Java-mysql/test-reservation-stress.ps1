@@ -0,0 +1,91 @@
+# Kiểm tra giữ hàng: phê duyệt / từ chối yêu cầu, xuất kho theo yêu cầu và nhập / xuất tự do đồng thời
+# trên cùng một nguyên liệu; sau khi chạy, bộ đếm giữ hàng phải khớp tổng phần giữ của các yêu cầu
+# Yêu cầu PowerShell 7+ (ForEach-Object -Parallel)
+param(
+    [int]$Requests = 40,
+    [int]$FreeOps = 80,
+    [decimal]$RequestQuantity = 5,
+    [long]$MaterialId = 1,
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+$material = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId" -Method Get -Headers $headers).data
+$before = [decimal]$material.quantity
+Write-Host "Tồn kho ban đầu: $before - Đang giữ: $($material.reservedQuantity)"
+
+Write-Host "`n=== TẠO $Requests YÊU CẦU ===" -ForegroundColor Cyan
+$requestIds = 1..$Requests | ForEach-Object {
+    $body = @{ materialId = $MaterialId; requestedQuantity = $RequestQuantity; unit = $material.unit; reason = 'stress' } | ConvertTo-Json
+    (Invoke-RestMethod -Uri "$BaseUrl/api/requests" -Method Post -Headers $headers -Body $body -ContentType 'application/json').data.id
+}
+
+# Mỗi yêu cầu: phê duyệt, từ chối và xuất kho theo yêu cầu chạy lẫn với nhập / xuất tự do
+$ops = @()
+foreach ($id in $requestIds) {
+    $ops += @{ Kind = 'approve'; Id = $id }, @{ Kind = 'reject'; Id = $id }, @{ Kind = 'linked'; Id = $id }
+}
+for ($i = 0; $i -lt $FreeOps; $i++) {
+    $ops += @{ Kind = $(if ($i % 2 -eq 0) { 'import' } else { 'export' }); Id = $null }
+}
+$ops = $ops | Sort-Object { Get-Random }
+
+Write-Host "`n=== $($ops.Count) THAO TÁC ĐỒNG THỜI ===" -ForegroundColor Cyan
+$elapsed = Measure-Command {
+    $results = $ops | ForEach-Object -ThrottleLimit 32 -Parallel {
+        $op = $_
+        $base = $using:BaseUrl
+        $quantity = if ($op.Kind -eq 'linked') { $using:RequestQuantity } else { 1 }
+        try {
+            switch ($op.Kind) {
+                'approve' { Invoke-RestMethod -Uri "$base/api/requests/$($op.Id)/approve" -Method Put -Headers $using:headers | Out-Null }
+                'reject' { Invoke-RestMethod -Uri "$base/api/requests/$($op.Id)/reject?reason=stress" -Method Put -Headers $using:headers | Out-Null }
+                'import' {
+                    $body = @{ materialId = $using:MaterialId; quantity = 1; unit = 'kg'; unitPrice = 1000 } | ConvertTo-Json
+                    Invoke-RestMethod -Uri "$base/api/materials/import" -Method Post -Headers $using:headers -Body $body -ContentType 'application/json' | Out-Null
+                }
+                default {
+                    $body = @{ materialId = $using:MaterialId; quantity = $quantity; requestId = $op.Id } | ConvertTo-Json
+                    Invoke-RestMethod -Uri "$base/api/materials/export" -Method Post -Headers $using:headers -Body $body -ContentType 'application/json' | Out-Null
+                }
+            }
+            [pscustomobject]@{ Kind = $op.Kind; Ok = $true; Quantity = $quantity; Message = $null }
+        } catch {
+            [pscustomobject]@{ Kind = $op.Kind; Ok = $false; Quantity = 0; Message = $_.ErrorDetails.Message }
+        }
+    }
+}
+
+$imported = ($results | Where-Object { $_.Ok -and $_.Kind -eq 'import' } | Measure-Object -Property Quantity -Sum).Sum
+$exported = ($results | Where-Object { $_.Ok -and ($_.Kind -eq 'export' -or $_.Kind -eq 'linked') } | Measure-Object -Property Quantity -Sum).Sum
+$shortage = ($results | Where-Object { -not $_.Ok -and $_.Message -and $_.Message.Contains('Không đủ số lượng') }).Count
+$handled = ($results | Where-Object { -not $_.Ok -and $_.Message -and $_.Message.Contains('đã được xử lý') }).Count
+$errors = ($results | Where-Object { -not $_.Ok }).Count - $shortage - $handled
+
+$after = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/$MaterialId" -Method Get -Headers $headers).data
+$check = (Invoke-RestMethod -Uri "$BaseUrl/api/materials/reservations" -Method Get -Headers $headers).data |
+        Where-Object { $_.materialId -eq $MaterialId }
+$expected = $before + $imported - $exported
+
+Write-Host "`n=== KẾT QUẢ ===" -ForegroundColor Cyan
+foreach ($kind in 'approve', 'reject', 'linked', 'import', 'export') {
+    $ok = ($results | Where-Object { $_.Kind -eq $kind -and $_.Ok }).Count
+    $failed = ($results | Where-Object { $_.Kind -eq $kind -and -not $_.Ok }).Count
+    Write-Host ("{0,-8} thành công: {1,4} - thất bại: {2,4}" -f $kind, $ok, $failed)
+}
+Write-Host "Từ chối do thiếu hàng: $shortage - Yêu cầu đã xử lý: $handled - Lỗi khác: $errors"
+Write-Host "Thông lượng: $([math]::Round($ops.Count / $elapsed.TotalSeconds, 2)) thao tác/s"
+Write-Host "Tồn kho cuối: $($after.quantity) - Kỳ vọng: $expected - Đang giữ: $($after.reservedQuantity)"
+
+$held = if ($check) { [decimal]$check.heldByRequests } else { [decimal]0 }
+if ([decimal]$after.quantity -eq $expected -and [decimal]$after.quantity -ge [decimal]$after.reservedQuantity `
+        -and [decimal]$after.reservedQuantity -eq $held) {
+    Write-Host "✓ Không mất cập nhật, bộ đếm giữ hàng khớp các yêu cầu ($held)" -ForegroundColor Green
+} else {
+    Write-Host "✗ Sai lệch: tồn kho $([decimal]$after.quantity - $expected), giữ hàng $([decimal]$after.reservedQuantity - $held)" -ForegroundColor Red
+    exit 1
+}
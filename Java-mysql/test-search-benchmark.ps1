@@ -0,0 +1,71 @@
+# Đo độ trễ GET /api/materials/search (p50 / p99) với nhiều nguyên liệu
+# Bước 1 (tùy chọn, -Seed): thêm $Materials nguyên liệu giả vào MySQL trong container warehouse-mysql
+#   (tên / mô tả có dấu) rồi nạp lại chỉ mục tìm kiếm.
+# Mỗi vòng đo lần lượt các từ khóa trong $Queries (không dấu, có dấu, tiền tố ngắn, mã, nhiều từ).
+# Chạy một lần với chỉ mục bật (mặc định) và một lần sau khi khởi động lại ứng dụng với
+#   --app.search.enabled=false
+# rồi so sánh hai kết quả. Xóa dữ liệu giả: DELETE FROM materials WHERE code LIKE 'BENCH-%';
+param(
+    [switch]$Seed,
+    [int]$Materials = 100000,
+    [int]$Requests = 500,
+    [int]$Warmup = 50,
+    [string[]]$Queries = @('gao', 'Gạo', 'ca', 'BENCH-0421', 'thit bo', 'nuoc mam'),
+    [string]$Label = 'index',
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+if ($Seed) {
+    Write-Host "`n=== SEED $Materials nguyên liệu ===" -ForegroundColor Cyan
+    $sql = @"
+SET SESSION cte_max_recursion_depth = $($Materials + 1);
+INSERT INTO materials (code, name, description, quantity, unit, min_quantity, unit_price, status, created_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < $Materials)
+SELECT CONCAT('BENCH-', LPAD(n, 6, '0')),
+       CONCAT(ELT(n % 8 + 1, 'Gạo', 'Thịt bò', 'Cá basa', 'Nước mắm', 'Đường', 'Rau muống', 'Trứng gà', 'Dầu ăn'), ' loại ', n),
+       CONCAT('Hàng thử nghiệm số ', n, ' từ ', ELT(n % 4 + 1, 'Đà Lạt', 'Hà Nội', 'Cần Thơ', 'Phú Quốc')),
+       500, 'kg', 10, 1000, 'AVAILABLE', NOW()
+FROM seq;
+"@
+    $sql | docker exec -i warehouse-mysql mysql -uwarehouse_user -pwarehouse_pass --default-character-set=utf8mb4 warehouse_db
+    Invoke-RestMethod -Uri "$BaseUrl/api/materials/search/rebuild" -Method Post -Headers $headers | Out-Null
+}
+
+function Get-SearchUrl([string]$query) {
+    return "$BaseUrl/api/materials/search?q=$([uri]::EscapeDataString($query))&page=0&size=20"
+}
+
+Write-Host "`n=== WARMUP ($Warmup requests) ===" -ForegroundColor Cyan
+1..$Warmup | ForEach-Object {
+    Invoke-RestMethod -Uri (Get-SearchUrl $Queries[$_ % $Queries.Count]) -Method Get -Headers $headers | Out-Null
+}
+
+Write-Host "`n=== ĐO ($Requests requests) ===" -ForegroundColor Cyan
+$latencies = New-Object System.Collections.Generic.List[double]
+$totals = @{}
+$watch = New-Object System.Diagnostics.Stopwatch
+1..$Requests | ForEach-Object {
+    $query = $Queries[$_ % $Queries.Count]
+    $watch.Restart()
+    $resp = Invoke-RestMethod -Uri (Get-SearchUrl $query) -Method Get -Headers $headers
+    $watch.Stop()
+    $latencies.Add($watch.Elapsed.TotalMilliseconds)
+    $totals[$query] = $resp.data.total
+}
+
+$sorted = $latencies | Sort-Object
+function Get-Percentile($values, [double]$p) {
+    $index = [math]::Ceiling($p * $values.Count) - 1
+    return [math]::Round($values[[math]::Max(0, $index)], 2)
+}
+
+Write-Host "`n=== KẾT QUẢ [$Label] ===" -ForegroundColor Green
+$totals.GetEnumerator() | ForEach-Object { Write-Host "'$($_.Key)': $($_.Value) kết quả" }
+Write-Host "p50: $(Get-Percentile $sorted 0.50) ms"
+Write-Host "p99: $(Get-Percentile $sorted 0.99) ms"
+Write-Host "max: $([math]::Round($sorted[-1], 2)) ms"
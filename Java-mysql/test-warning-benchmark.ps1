@@ -0,0 +1,66 @@
+# Đo độ trễ GET /api/materials/warning (p50 / p99) với nhiều nguyên liệu
+# Bước 1 (tùy chọn, -Seed): thêm $Materials nguyên liệu giả vào MySQL trong container warehouse-mysql
+#   (khoảng 10% tồn kho thấp, 5% sắp hết hạn, 5% đã hết hạn) rồi tính lại chỉ mục cảnh báo.
+# Chạy một lần với chỉ mục bật (mặc định) và một lần sau khi khởi động lại ứng dụng với
+#   --app.warning.index.enabled=false
+# rồi so sánh hai kết quả. Xóa dữ liệu giả: DELETE FROM materials WHERE code LIKE 'BENCH-%';
+param(
+    [switch]$Seed,
+    [int]$Materials = 50000,
+    [int]$Requests = 500,
+    [int]$Warmup = 50,
+    [string]$Label = 'index',
+    [string]$BaseUrl = 'http://localhost:8080'
+)
+
+Write-Host "=== LOGIN ===" -ForegroundColor Cyan
+$loginResp = Invoke-RestMethod -Uri "$BaseUrl/api/auth/login" -Method Post -Body (@{username='admin';password='password123'} | ConvertTo-Json) -ContentType 'application/json'
+$token = $loginResp.data.token
+$headers = @{'Authorization' = "Bearer $token"}
+
+if ($Seed) {
+    Write-Host "`n=== SEED $Materials nguyên liệu ===" -ForegroundColor Cyan
+    $sql = @"
+SET SESSION cte_max_recursion_depth = $($Materials + 1);
+INSERT INTO materials (code, name, quantity, unit, min_quantity, unit_price, expiry_date, status, created_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < $Materials)
+SELECT CONCAT('BENCH-', LPAD(n, 6, '0')), CONCAT('Nguyên liệu thử ', n),
+       IF(n % 10 = 0, 5, 500), 'kg', 10, 1000,
+       CASE WHEN n % 20 = 1 THEN DATE_ADD(CURDATE(), INTERVAL 3 DAY)
+            WHEN n % 20 = 2 THEN DATE_SUB(CURDATE(), INTERVAL 3 DAY)
+            ELSE DATE_ADD(CURDATE(), INTERVAL 365 DAY) END,
+       'AVAILABLE', NOW()
+FROM seq;
+"@
+    $sql | docker exec -i warehouse-mysql mysql -uwarehouse_user -pwarehouse_pass --default-character-set=utf8mb4 warehouse_db
+    Invoke-RestMethod -Uri "$BaseUrl/api/materials/warning/rebuild" -Method Post -Headers $headers | Out-Null
+}
+
+Write-Host "`n=== WARMUP ($Warmup requests) ===" -ForegroundColor Cyan
+1..$Warmup | ForEach-Object {
+    Invoke-RestMethod -Uri "$BaseUrl/api/materials/warning" -Method Get -Headers $headers | Out-Null
+}
+
+Write-Host "`n=== ĐO ($Requests requests) ===" -ForegroundColor Cyan
+$latencies = New-Object System.Collections.Generic.List[double]
+$watch = New-Object System.Diagnostics.Stopwatch
+$count = 0
+1..$Requests | ForEach-Object {
+    $watch.Restart()
+    $resp = Invoke-RestMethod -Uri "$BaseUrl/api/materials/warning" -Method Get -Headers $headers
+    $watch.Stop()
+    $latencies.Add($watch.Elapsed.TotalMilliseconds)
+    $count = $resp.data.Count
+}
+
+$sorted = $latencies | Sort-Object
+function Get-Percentile($values, [double]$p) {
+    $index = [math]::Ceiling($p * $values.Count) - 1
+    return [math]::Round($values[[math]::Max(0, $index)], 2)
+}
+
+Write-Host "`n=== KẾT QUẢ [$Label] ===" -ForegroundColor Green
+Write-Host "Số cảnh báo: $count"
+Write-Host "p50: $(Get-Percentile $sorted 0.50) ms"
+Write-Host "p99: $(Get-Percentile $sorted 0.99) ms"
+Write-Host "max: $([math]::Round($sorted[-1], 2)) ms"
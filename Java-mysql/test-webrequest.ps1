@@ -36,7 +36,7 @@ Write-Host "`nTesting /api/transactions..."
 try {
     $response = Invoke-WebRequest -Uri 'http://localhost:8080/api/transactions' -Method Get -Headers $headers
     $result = $response.Content | ConvertFrom-Json
-    Write-Host "✓ SUCCESS - Status: $($response.StatusCode) - Count: $($result.data.Count)" -ForegroundColor Green
+    Write-Host "✓ SUCCESS - Status: $($response.StatusCode) - Count: $($result.data.items.Count)" -ForegroundColor Green
 } catch {
     Write-Host "✗ FAILED - Status: $($_.Exception.Response.StatusCode.value__)" -ForegroundColor Red
 }
@@ -6,7 +6,7 @@ import Navbar from '@/components/Navbar';
 import Card from '@/components/Card';
 import Loading from '@/components/Loading';
 import ProtectedRoute from '@/components/ProtectedRoute';
-import { api } from '@/utils/api';
+import { api, subscribeChanges } from '@/utils/api';
 import { formatNumber } from '@/utils/helpers';
 
 function DashboardContent() {
@@ -23,6 +23,18 @@ function DashboardContent() {
 
   useEffect(() => {
     loadDashboardData();
+
+    // Tải lại khi có thay đổi tồn kho / yêu cầu (gộp các sự kiện liên tiếp)
+    let timer;
+    const unsubscribe = subscribeChanges((event) => {
+      if (event.entity === 'transaction') return;
+      clearTimeout(timer);
+      timer = setTimeout(loadDashboardData, 500);
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
   }, []);
 
   const loadDashboardData = async () => {
@@ -6,7 +6,7 @@ import Navbar from '@/components/Navbar';
 import Card from '@/components/Card';
 import Loading from '@/components/Loading';
 import ProtectedRoute from '@/components/ProtectedRoute';
-import { api } from '@/utils/api';
+import { api, subscribeChanges } from '@/utils/api';
 import { formatNumber, formatDate, getMaterialStatusColor, getMaterialStatusText } from '@/utils/helpers';
 
 function MaterialsContent() {
@@ -19,6 +19,19 @@ function MaterialsContent() {
 
   useEffect(() => {
     loadMaterials();
+
+    // Cập nhật số lượng / trạng thái tại chỗ khi nhận sự kiện nhập / xuất kho
+    const unsubscribe = subscribeChanges((event) => {
+      if (event.entity === 'resync') {
+        loadMaterials();
+      } else if (event.entity === 'material') {
+        const { quantity, status, expiryDate } = event.data;
+        setMaterials((current) => current.map((m) =>
+          m.id === event.id ? { ...m, quantity, status, expiryDate } : m
+        ));
+      }
+    });
+    return unsubscribe;
   }, []);
 
   useEffect(() => {
@@ -8,7 +8,7 @@ import Button from '@/components/Button';
 import Modal from '@/components/Modal';
 import Loading from '@/components/Loading';
 import ProtectedRoute from '@/components/ProtectedRoute';
-import { api, getUser } from '@/utils/api';
+import { api, getUser, subscribeChanges } from '@/utils/api';
 import { formatNumber, formatDateTime, getRequestStatusColor, getRequestStatusText, hasRole } from '@/utils/helpers';
 
 function RequestsContent() {
@@ -32,6 +32,18 @@ function RequestsContent() {
     const userData = getUser();
     setUser(userData);
     loadData();
+
+    // Tải lại khi yêu cầu được tạo / duyệt / từ chối / hoàn thành
+    let timer;
+    const unsubscribe = subscribeChanges((event) => {
+      if (event.entity !== 'request' && event.entity !== 'resync') return;
+      clearTimeout(timer);
+      timer = setTimeout(loadData, 300);
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
   }, []);
 
   const loadData = async () => {
@@ -16,6 +16,8 @@ function TransactionsContent() {
   const [loading, setLoading] = useState(true);
   const [user, setUser] = useState(null);
   const [transactions, setTransactions] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [materials, setMaterials] = useState([]);
   const [showImportModal, setShowImportModal] = useState(false);
   const [showExportModal, setShowExportModal] = useState(false);
@@ -48,7 +50,10 @@ function TransactionsContent() {
         api.getMaterials(),
       ]);
 
-      if (transRes.success) setTransactions(transRes.data);
+      if (transRes.success) {
+        setTransactions(transRes.data.items);
+        setNextCursor(transRes.data.nextCursor);
+      }
       if (matRes.success) setMaterials(matRes.data);
     } catch (error) {
       console.error('Error loading data:', error);
@@ -57,6 +62,22 @@ function TransactionsContent() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const transRes = await api.getTransactions({ cursor: nextCursor });
+      if (transRes.success) {
+        setTransactions((prev) => [...prev, ...transRes.data.items]);
+        setNextCursor(transRes.data.nextCursor);
+      }
+    } catch (error) {
+      console.error('Error loading more transactions:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleImport = async (e) => {
     e.preventDefault();
     try {
@@ -187,6 +208,13 @@ function TransactionsContent() {
               </tbody>
             </table>
           </div>
+          {nextCursor && (
+            <div className="flex justify-center pt-4">
+              <Button onClick={loadMore} variant="secondary" disabled={loadingMore}>
+                {loadingMore ? 'Đang tải...' : 'Tải thêm'}
+              </Button>
+            </div>
+          )}
         </Card>
       </div>
 
@@ -73,6 +73,28 @@ const fetchWithAuth = async (url, options = {}) => {
   return response;
 };
 
+// Khóa cho một lần thao tác (crypto.randomUUID chỉ có trên HTTPS / localhost)
+const newIdempotencyKey = () =>
+  typeof crypto !== 'undefined' && crypto.randomUUID
+    ? crypto.randomUUID()
+    : `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+
+// POST kèm Idempotency-Key: khi lỗi mạng gửi lại với cùng khóa, máy chủ chỉ xử lý một lần
+const postIdempotent = async (url, data, retries = 2) => {
+  const key = newIdempotencyKey();
+  for (let attempt = 0; ; attempt++) {
+    try {
+      return await fetchWithAuth(url, {
+        method: 'POST',
+        body: JSON.stringify(data),
+        headers: { 'Idempotency-Key': key },
+      });
+    } catch (error) {
+      if (attempt >= retries) throw error;
+    }
+  }
+};
+
 // API Methods
 export const api = {
   // Auth
@@ -102,8 +124,9 @@ export const api = {
     return response.json();
   },
 
-  searchMaterials: async (name) => {
-    const response = await fetchWithAuth(`/materials/search?name=${name}`);
+  searchMaterials: async (query, page = 0, size = 20) => {
+    const params = new URLSearchParams({ q: query, page, size });
+    const response = await fetchWithAuth(`/materials/search?${params}`);
     return response.json();
   },
 
@@ -114,26 +137,37 @@ export const api = {
 
   // Transactions
   importMaterial: async (data) => {
-    const response = await fetchWithAuth('/materials/import', {
-      method: 'POST',
-      body: JSON.stringify(data),
-    });
+    const response = await postIdempotent('/materials/import', data);
     return response.json();
   },
 
   exportMaterial: async (data) => {
-    const response = await fetchWithAuth('/materials/export', {
-      method: 'POST',
-      body: JSON.stringify(data),
-    });
+    const response = await postIdempotent('/materials/export', data);
+    return response.json();
+  },
+
+  // Hàng loạt: items là danh sách dòng như importMaterial / exportMaterial, trả về kết quả từng dòng
+  importMaterials: async (items) => {
+    const response = await postIdempotent('/materials/import/batch', { items });
     return response.json();
   },
 
-  getTransactions: async (startDate, endDate) => {
+  exportMaterials: async (items) => {
+    const response = await postIdempotent('/materials/export/batch', { items });
+    return response.json();
+  },
+
+  // Trả về một trang: { items, size, hasMore, nextCursor }
+  getTransactions: async ({ startDate, endDate, type, materialId, employeeId, cursor, size } = {}) => {
     let url = '/transactions';
     const params = new URLSearchParams();
     if (startDate) params.append('startDate', startDate);
     if (endDate) params.append('endDate', endDate);
+    if (type) params.append('type', type);
+    if (materialId) params.append('materialId', materialId);
+    if (employeeId) params.append('employeeId', employeeId);
+    if (cursor) params.append('cursor', cursor);
+    if (size) params.append('size', size);
     if (params.toString()) url += `?${params.toString()}`;
     
     const response = await fetchWithAuth(url);
@@ -189,8 +223,9 @@ export const api = {
     return response.json();
   },
 
-  searchSuppliers: async (name) => {
-    const response = await fetchWithAuth(`/suppliers/search?name=${name}`);
+  searchSuppliers: async (query, page = 0, size = 20) => {
+    const params = new URLSearchParams({ q: query, page, size });
+    const response = await fetchWithAuth(`/suppliers/search?${params}`);
     return response.json();
   },
 
@@ -217,3 +252,65 @@ export const api = {
     return response.json();
   },
 };
+
+// Theo dõi thay đổi qua Server-Sent Events (GET /stream)
+// Dùng fetch thay cho EventSource để gửi được header Authorization.
+// onEvent nhận { entity, action, id, data }; entity = 'resync' nghĩa là cần tải lại toàn bộ.
+// Trả về hàm hủy theo dõi. Tự kết nối lại khi mất kết nối.
+export const subscribeChanges = (onEvent) => {
+  const controller = new AbortController();
+  let retryDelay = 1000;
+
+  const dispatch = (block) => {
+    let name = 'message';
+    const dataLines = [];
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) name = line.slice(6).trim();
+      else if (line.startsWith('data:')) dataLines.push(line.slice(5));
+    }
+    if (name === 'connected' || dataLines.length === 0 || !dataLines.join('')) return;
+    try {
+      onEvent(JSON.parse(dataLines.join('\n')));
+    } catch (error) {
+      console.error('Error handling stream event:', error);
+    }
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const response = await fetch(`${API_URL}/stream`, {
+          headers: { Authorization: `Bearer ${getToken()}`, Accept: 'text/event-stream' },
+          signal: controller.signal,
+        });
+        if (response.status === 401) return;
+        if (!response.ok || !response.body) throw new Error(`Stream status ${response.status}`);
+
+        retryDelay = 1000;
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+        while (true) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n');
+          let index;
+          while ((index = buffer.indexOf('\n\n')) >= 0) {
+            dispatch(buffer.slice(0, index));
+            buffer = buffer.slice(index + 2);
+          }
+        }
+        // Kết nối bị đóng (hết hạn phía server): tải lại để không bỏ sót thay đổi
+        onEvent({ entity: 'resync', action: 'RECONNECT' });
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        console.error('Stream disconnected:', error);
+        await new Promise((resolve) => setTimeout(resolve, retryDelay));
+        retryDelay = Math.min(retryDelay * 2, 30000);
+      }
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};